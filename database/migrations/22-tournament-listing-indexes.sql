@@ -0,0 +1,29 @@
+-- Migration: Composite indexes for tournament listings
+-- Tournament lists are paged with a keyset on (start_date, tournament_id), newest first,
+-- optionally filtered by club, creator, status, category or format.
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_tournament_start_date_id
+  ON core.tournament(start_date, tournament_id);
+
+CREATE INDEX IF NOT EXISTS idx_tournament_club_start_date_id
+  ON core.tournament(club_id, start_date, tournament_id);
+
+CREATE INDEX IF NOT EXISTS idx_tournament_user_start_date_id
+  ON core.tournament(firebase_uid, start_date, tournament_id);
+
+CREATE INDEX IF NOT EXISTS idx_tournament_status_start_date_id
+  ON core.tournament(status_id, start_date, tournament_id);
+
+CREATE INDEX IF NOT EXISTS idx_tournament_category_start_date_id
+  ON core.tournament(category_id, start_date, tournament_id);
+
+CREATE INDEX IF NOT EXISTS idx_tournament_format_start_date_id
+  ON core.tournament(format_id, start_date, tournament_id);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS core.idx_tournament_club_id;
+DROP INDEX IF EXISTS core.idx_tournament_user_id;
+
+COMMIT;
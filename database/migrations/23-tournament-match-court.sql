@@ -0,0 +1,9 @@
+-- Migration: Court assignment for tournament matches
+-- Group fixtures generated with court rotation record the court (1-based) each match is played on.
+
+BEGIN;
+
+ALTER TABLE core.tournament_match
+  ADD COLUMN IF NOT EXISTS court INTEGER;
+
+COMMIT;
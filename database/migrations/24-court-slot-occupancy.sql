@@ -0,0 +1,37 @@
+-- Migration: Materialized per-court occupancy counters
+-- One row per court in a time slot, kept in step with confirmed court bookings by the booking
+-- service. Admission is a single conditional UPDATE on this row, and availability reads these
+-- counters instead of counting court_bookings rows.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS core.court_slot_occupancy (
+    venue_id UUID NOT NULL REFERENCES core.club(club_id) ON DELETE CASCADE,
+    booking_date DATE NOT NULL,
+    time_slot TIME NOT NULL,
+    court_number INTEGER NOT NULL,
+    team1_count INTEGER NOT NULL DEFAULT 0 CHECK (team1_count >= 0),
+    team2_count INTEGER NOT NULL DEFAULT 0 CHECK (team2_count >= 0),
+    total INTEGER NOT NULL DEFAULT 0 CHECK (total >= 0),
+    PRIMARY KEY (venue_id, booking_date, time_slot, court_number)
+);
+
+-- Range scans by date (rebuild and consistency check)
+CREATE INDEX IF NOT EXISTS idx_court_slot_occupancy_date
+  ON core.court_slot_occupancy(booking_date);
+
+-- Backfill from the confirmed bookings already on record
+INSERT INTO core.court_slot_occupancy (venue_id, booking_date, time_slot, court_number, team1_count, team2_count, total)
+SELECT venue_id, booking_date, time_slot, court_number,
+       COUNT(*) FILTER (WHERE team_number = 1),
+       COUNT(*) FILTER (WHERE team_number = 2),
+       COUNT(*)
+FROM core.court_bookings
+WHERE status = 'confirmed'
+  AND court_number IS NOT NULL
+GROUP BY venue_id, booking_date, time_slot, court_number
+ON CONFLICT (venue_id, booking_date, time_slot, court_number) DO NOTHING;
+
+COMMENT ON TABLE core.court_slot_occupancy IS 'Confirmed players per court and time slot, maintained by the court booking service';
+
+COMMIT;
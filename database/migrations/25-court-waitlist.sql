@@ -0,0 +1,36 @@
+-- Migration: Waitlist for full courts
+-- Players queue for a time slot (optionally a specific court) when it is full. When a confirmed
+-- booking is cancelled, the first compatible waiting player is booked in the same transaction.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS core.court_waitlist (
+    waitlist_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    -- Strictly increasing, gives the FIFO order
+    queue_seq BIGSERIAL NOT NULL,
+    schedule_id UUID NOT NULL REFERENCES core.court_schedules(schedule_id) ON DELETE CASCADE,
+    firebase_uid VARCHAR(255) NOT NULL REFERENCES core.user(firebase_uid) ON DELETE CASCADE,
+    venue_id UUID NOT NULL REFERENCES core.club(club_id) ON DELETE CASCADE,
+    booking_date DATE NOT NULL,
+    time_slot TIME NOT NULL,
+    game_duration INTEGER NOT NULL,
+    court_number INTEGER, -- NULL: any court in the slot
+    status VARCHAR(20) NOT NULL DEFAULT 'waiting' CHECK (status IN ('waiting', 'promoted', 'left')),
+    booking_id UUID REFERENCES core.court_bookings(booking_id) ON DELETE SET NULL,
+    queued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    promoted_at TIMESTAMP
+);
+
+-- A player waits at most once per time slot
+CREATE UNIQUE INDEX IF NOT EXISTS unique_user_waiting_per_slot
+  ON core.court_waitlist(firebase_uid, venue_id, booking_date, time_slot)
+  WHERE status = 'waiting';
+
+-- Head of the queue for a slot
+CREATE INDEX IF NOT EXISTS idx_court_waitlist_queue
+  ON core.court_waitlist(venue_id, booking_date, time_slot, queue_seq)
+  WHERE status = 'waiting';
+
+COMMENT ON TABLE core.court_waitlist IS 'FIFO queue of players waiting for a seat in a full court time slot';
+
+COMMIT;
@@ -0,0 +1,24 @@
+-- Migration: 5AM run capacity per day
+-- One counter row per run day, kept in step with core.run_booking by the run booking service.
+-- Admission is a single conditional UPDATE on this row; capacity is NULL unless the day has an
+-- override, in which case the configured default (run-booking.default-capacity) applies.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS core.run_day_capacity (
+    booking_date DATE PRIMARY KEY,
+    capacity INTEGER CHECK (capacity IS NULL OR capacity >= 0),
+    booked INTEGER NOT NULL DEFAULT 0 CHECK (booked >= 0)
+);
+
+-- Backfill from the bookings already on record
+INSERT INTO core.run_day_capacity (booking_date, booked)
+SELECT booking_date, COUNT(*)
+FROM core.run_booking
+GROUP BY booking_date
+ON CONFLICT (booking_date) DO NOTHING;
+
+COMMENT ON TABLE core.run_day_capacity IS 'Bookings and optional capacity override per 5AM run day, maintained by the run booking service';
+COMMENT ON COLUMN core.run_day_capacity.capacity IS 'Capacity override for the day; NULL means the configured default';
+
+COMMIT;
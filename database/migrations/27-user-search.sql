@@ -0,0 +1,33 @@
+-- Migration: Indexed user search
+-- Adds a normalized search column covering names, email and username with a trigram index
+-- (substring search), and prefix indexes on the individual columns (autocomplete).
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE core."user"
+  ADD COLUMN IF NOT EXISTS search_text TEXT GENERATED ALWAYS AS (
+    LOWER(COALESCE(first_name, '') || ' ' || COALESCE(last_name, '') || ' ' ||
+          COALESCE(display_name, '') || ' ' || COALESCE(username, '') || ' ' || COALESCE(email, ''))
+  ) STORED;
+
+-- Substring search (LIKE '%term%') and ranking by word similarity
+CREATE INDEX IF NOT EXISTS idx_user_search_text_trgm
+  ON core."user" USING GIN (search_text gin_trgm_ops);
+
+-- Prefix search (LIKE 'term%') per column
+CREATE INDEX IF NOT EXISTS idx_user_first_name_prefix
+  ON core."user" (LOWER(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_user_last_name_prefix
+  ON core."user" (LOWER(last_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_user_display_name_prefix
+  ON core."user" (LOWER(display_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_user_username_prefix
+  ON core."user" (LOWER(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_user_email_prefix
+  ON core."user" (LOWER(email) text_pattern_ops);
+
+COMMENT ON COLUMN core."user".search_text IS 'Lower-cased names, username and email for user search (maintained by the database)';
+
+COMMIT;
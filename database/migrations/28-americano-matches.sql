@@ -0,0 +1,25 @@
+-- Migration: Americano / Mexicano games
+-- Americano partners change every round, so games are stored per player rather than against
+-- fixed tournament teams. One row per court per round.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS core.americano_match (
+    match_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tournament_id UUID NOT NULL REFERENCES core.tournament(tournament_id) ON DELETE CASCADE,
+    round INTEGER NOT NULL CHECK (round >= 1),
+    court INTEGER NOT NULL CHECK (court >= 1),
+    team1_player1 VARCHAR(255) NOT NULL,
+    team1_player2 VARCHAR(255) NOT NULL,
+    team2_player1 VARCHAR(255) NOT NULL,
+    team2_player2 VARCHAR(255) NOT NULL,
+    team1_points INTEGER CHECK (team1_points >= 0),
+    team2_points INTEGER CHECK (team2_points >= 0),
+    status VARCHAR(20) NOT NULL DEFAULT 'scheduled' CHECK (status IN ('scheduled', 'completed')),
+    scheduled_time TIMESTAMP,
+    CONSTRAINT unique_americano_court_per_round UNIQUE (tournament_id, round, court)
+);
+
+COMMENT ON TABLE core.americano_match IS 'Games of Americano and Mexicano tournaments: four players per court per round';
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- Migration: Knockout brackets generated up front
+-- All rounds of a knockout bracket are created when it is generated. Matches of later rounds are
+-- placeholders without teams until the feeder matches are decided, and every knockout match
+-- records its 0-based position within its round so winners know which slot they fill.
+
+BEGIN;
+
+ALTER TABLE core.tournament_match
+  ALTER COLUMN team1_id DROP NOT NULL,
+  ALTER COLUMN team2_id DROP NOT NULL;
+
+ALTER TABLE core.tournament_match
+  ADD COLUMN IF NOT EXISTS bracket_position INTEGER CHECK (bracket_position >= 0);
+
+-- Group fixtures, knockout rounds and seeding aggregates are all read per tournament and phase
+CREATE INDEX IF NOT EXISTS idx_tournament_match_tournament_phase_round
+  ON core.tournament_match(tournament_id, phase, round);
+
+COMMIT;
@@ -0,0 +1,29 @@
+-- Migration: Knockout bracket tree
+-- Every knockout match points at the match its winner moves on to and the slot (team 1 or 2)
+-- the winner fills there, so completing a match updates a single row and the bracket can be
+-- drawn from one query.
+
+BEGIN;
+
+ALTER TABLE core.tournament_match
+  ADD COLUMN IF NOT EXISTS next_match_id UUID REFERENCES core.tournament_match(match_id) ON DELETE SET NULL,
+  ADD COLUMN IF NOT EXISTS next_slot SMALLINT CHECK (next_slot IN (1, 2));
+
+-- Feeder matches of a match
+CREATE INDEX IF NOT EXISTS idx_tournament_match_next_match
+  ON core.tournament_match(next_match_id)
+  WHERE next_match_id IS NOT NULL;
+
+-- Link brackets generated with bracket positions: position p feeds position p / 2 of the next round
+UPDATE core.tournament_match m
+SET next_match_id = n.match_id,
+    next_slot = m.bracket_position % 2 + 1
+FROM core.tournament_match n
+WHERE n.tournament_id = m.tournament_id
+  AND m.phase <> 'group'
+  AND n.phase <> 'group'
+  AND n.round = m.round + 1
+  AND n.bracket_position = m.bracket_position / 2
+  AND m.next_match_id IS NULL;
+
+COMMIT;
@@ -0,0 +1,10 @@
+-- Migration: Optimistic locking for tournament matches
+-- Every update to a match bumps its version, so a score update based on a stale read (e.g. two
+-- referees scoring the same match) is rejected instead of silently overwriting the other.
+
+BEGIN;
+
+ALTER TABLE core.tournament_match
+  ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
@@ -0,0 +1,31 @@
+package za.cf.cp.auth;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * The Firebase user of the current request, as established by {@link FirebaseAuthFilter}.
+ */
+@RequestScoped
+public class AuthenticatedUser {
+
+    private String uid;
+
+    /**
+     * Get the uid from the verified ID token, or null for public or unauthenticated requests
+     */
+    public String getUid() {
+        return uid;
+    }
+
+    void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    /**
+     * Resolve the uid a request acts on: the token's uid when one was verified,
+     * otherwise the uid the client supplied.
+     */
+    public String resolveUid(String requestedUid) {
+        return uid != null ? uid : requestedUid;
+    }
+}
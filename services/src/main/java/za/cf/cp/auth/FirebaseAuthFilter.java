@@ -1,123 +1,139 @@
 package za.cf.cp.auth;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.Priorities;
-import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.ext.web.RoutingContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 import org.jboss.resteasy.reactive.server.ServerRequestFilter;
 
-import java.util.Arrays;
 import java.util.List;
 
 /**
- * Simple authentication filter for Firebase ID tokens
- * For now, this just checks for the presence of a token without validation
- * In production, you would want to validate the Firebase ID token properly
+ * Authentication filter for Firebase ID tokens.
+ * Tokens are verified locally by {@link FirebaseTokenVerifier} and the uid is made available
+ * to resources through {@link AuthenticatedUser}. Verification can be switched off for local
+ * development with firebase.auth.verify-tokens=false.
  */
 @ApplicationScoped
 public class FirebaseAuthFilter {
 
+    private static final Logger LOG = Logger.getLogger(FirebaseAuthFilter.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final long LOG_INTERVAL_MILLIS = 10_000;
+
+    // Header names are case-insensitive in Vert.x; the optimized form avoids re-encoding per lookup
+    private static final CharSequence AUTHORIZATION = HttpHeaders.createOptimized("Authorization");
+    private static final CharSequence X_AUTHORIZATION = HttpHeaders.createOptimized("X-Authorization");
+
     @Context
     UriInfo uriInfo;
 
     @Context
     RoutingContext routingContext;
 
-    // List of paths that don't require authentication
-    private static final List<String> PUBLIC_PATHS = Arrays.asList(
-        "/api/health",
-        "/api/rules",
-        "/api/clubs",
-        "/api/facilities",
-        "/swagger-ui",
-        "/swagger-ui/",
-        "/q/swagger-ui",
-        "/openapi"
-    );
+    @Inject
+    FirebaseTokenVerifier tokenVerifier;
+
+    @Inject
+    AuthenticatedUser authenticatedUser;
+
+    @ConfigProperty(name = "firebase.auth.verify-tokens", defaultValue = "true")
+    boolean verifyTokens;
+
+    // Paths (prefixes) that don't require authentication
+    @ConfigProperty(name = "firebase.auth.public-paths")
+    List<String> publicPaths;
+
+    private PublicPathMatcher publicPathMatcher;
+
+    private final RateLimitedLog missingTokenLog =
+            new RateLimitedLog(LOG, "Missing or invalid Authorization header", LOG_INTERVAL_MILLIS);
+    private final RateLimitedLog invalidTokenLog =
+            new RateLimitedLog(LOG, "Rejected Firebase ID token", LOG_INTERVAL_MILLIS);
+
+    @PostConstruct
+    void init() {
+        publicPathMatcher = new PublicPathMatcher(publicPaths);
+    }
 
     @ServerRequestFilter(preMatching = true, priority = Priorities.AUTHENTICATION - 1)
     public Response filter(ContainerRequestContext requestContext) {
         String method = requestContext.getMethod();
-        String path = uriInfo.getPath();
-        
+
         // If this is a CORS preflight request, skip auth so that browser can proceed
-        if ("OPTIONS".equalsIgnoreCase(method)) {
+        if ("OPTIONS".equals(method)) {
             return null;
         }
-        
+
         // Skip authentication for public paths
-        if (isPublicPath(path)) {
+        String path = uriInfo.getPath();
+        if (publicPathMatcher.matches(path)) {
             return null;
         }
 
-        // Get the Authorization header
-        String authHeader = requestContext.getHeaderString(HttpHeaders.AUTHORIZATION);
-        if (authHeader == null) {
-            // Try lowercase key just in case
-            authHeader = requestContext.getHeaders().getFirst("authorization");
-        }
-        if (authHeader == null) {
-            // Try debug header
-            authHeader = requestContext.getHeaderString("X-Authorization");
-        }
-        if (authHeader == null && routingContext != null) {
-            // As a fallback, read from the raw Vert.x request
-            String rawUpper = routingContext.request().getHeader("Authorization");
-            String rawLower = routingContext.request().getHeader("authorization");
-            String rawX = routingContext.request().getHeader("X-Authorization");
-            authHeader = rawUpper != null ? rawUpper : (rawLower != null ? rawLower : rawX);
-        }
-        
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.err.println("Missing or invalid Authorization header for path: " + path);
-            return Response.status(Response.Status.UNAUTHORIZED)
-                    .entity("{\"error\": \"Missing or invalid Authorization header\"}")
-                    .type("application/json")
-                    .build();
+        String authHeader = authorizationHeader(requestContext);
+        if (authHeader == null
+                || authHeader.length() <= BEARER_PREFIX.length()
+                || !authHeader.startsWith(BEARER_PREFIX)) {
+            missingTokenLog.warn(method, path, authHeader == null ? "absent" : "not a bearer token");
+            return unauthorized("Missing or invalid Authorization header");
         }
 
-        // Extract the token
-        String token = authHeader.substring("Bearer ".length());
-        
-        // For now, just check if token exists (basic validation)
-        if (token == null || token.isEmpty()) {
-            System.err.println("Empty token for path: " + path);
-            return Response.status(Response.Status.UNAUTHORIZED)
-                    .entity("{\"error\": \"Empty token\"}")
-                    .type("application/json")
-                    .build();
+        String token = authHeader.substring(BEARER_PREFIX.length());
+
+        if (!verifyTokens) {
+            // Development: accept any token, but still expose the uid when the token carries one
+            authenticatedUser.setUid(decodeSubjectUnverified(token));
+            return null;
         }
 
-        // TODO: In production, validate the Firebase ID token here
-        // For development, we'll accept any non-empty token for testing
-        if (isDevelopmentMode()) {
+        try {
+            authenticatedUser.setUid(tokenVerifier.verify(token));
             return null;
+        } catch (JWTVerificationException e) {
+            invalidTokenLog.warn(method, path, e.getMessage());
+            return unauthorized("Invalid or expired token");
         }
-        
-        // TODO: Add proper Firebase token validation here for production
-        return null;
     }
 
     /**
-     * Check if the path is public (doesn't require authentication)
+     * Read the Authorization header, falling back to X-Authorization used by some debugging clients
      */
-    private boolean isPublicPath(String path) {
-        boolean isPublic = PUBLIC_PATHS.stream().anyMatch(publicPath -> {
-            boolean matches = path.startsWith(publicPath);
-            return matches;
-        });
-        return isPublic;
+    private String authorizationHeader(ContainerRequestContext requestContext) {
+        if (routingContext == null) {
+            return requestContext.getHeaderString("Authorization");
+        }
+        String header = routingContext.request().getHeader(AUTHORIZATION);
+        return header != null ? header : routingContext.request().getHeader(X_AUTHORIZATION);
     }
 
     /**
-     * Check if we're running in development mode
+     * Read the subject of a token without verifying it (development only)
      */
-    private boolean isDevelopmentMode() {
-        String profile = System.getProperty("quarkus.profile");
-        return "dev".equals(profile) || profile == null;
+    private String decodeSubjectUnverified(String token) {
+        try {
+            return JWT.decode(token).getSubject();
+        } catch (JWTDecodeException e) {
+            return null;
+        }
+    }
+
+    private static Response unauthorized(String error) {
+        return Response.status(Response.Status.UNAUTHORIZED)
+                .entity("{\"error\": \"" + error + "\"}")
+                .type("application/json")
+                .build();
     }
 }
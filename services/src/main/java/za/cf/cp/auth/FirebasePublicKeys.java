@@ -0,0 +1,235 @@
+package za.cf.cp.auth;
+
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.cert.CertificateFactory;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Firebase ID token signing keys, cached for as long as the key endpoint's Cache-Control max-age allows.
+ * The key set is refreshed in the background shortly before it expires, and (at most every 30 seconds)
+ * when a token references a key id that is not in the current set or the set has expired.
+ *
+ * Lookups never fetch keys themselves: tokens are verified on the event loop, so a lookup answers from
+ * the last good key set and leaves the fetch to the refresh thread. Only {@link #start()} blocks.
+ */
+class FirebasePublicKeys implements RSAKeyProvider {
+
+    private static final Logger LOG = Logger.getLogger(FirebasePublicKeys.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * A fetched set of public keys by key id, usable until expiresAt
+     */
+    record KeySet(Map<String, RSAPublicKey> keys, Instant expiresAt) {
+    }
+
+    /**
+     * Where the key set is fetched from
+     */
+    @FunctionalInterface
+    interface Source {
+        KeySet fetch() throws Exception;
+    }
+
+    private final Source source;
+    private final Duration minRefreshInterval;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private ScheduledFuture<?> scheduledRefresh;
+    private volatile KeySet keySet;
+    private volatile Instant lastFetch = Instant.EPOCH;
+
+    FirebasePublicKeys(Source source) {
+        this(source, MIN_REFRESH_INTERVAL);
+    }
+
+    FirebasePublicKeys(Source source, Duration minRefreshInterval) {
+        this.source = source;
+        this.minRefreshInterval = minRefreshInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "firebase-key-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Keys served by Google's x509 endpoint, honouring its Cache-Control max-age
+     */
+    static Source fromUrl(URI uri) {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        return () -> {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Key endpoint returned status " + response.statusCode());
+            }
+            Duration maxAge = response.headers().firstValue("Cache-Control")
+                    .map(FirebasePublicKeys::parseMaxAge)
+                    .orElse(DEFAULT_MAX_AGE);
+            return new KeySet(parseKeys(response.body()), Instant.now().plus(maxAge));
+        };
+    }
+
+    /**
+     * Keys read from a local file in the same JSON format as the Google endpoint.
+     * Used for offline development and tests; the file is re-read every hour.
+     */
+    static Source fromFile(Path path) {
+        return () -> new KeySet(parseKeys(Files.readString(path)), Instant.now().plus(DEFAULT_MAX_AGE));
+    }
+
+    static Duration parseMaxAge(String cacheControl) {
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        return matcher.find() ? Duration.ofSeconds(Long.parseLong(matcher.group(1))) : DEFAULT_MAX_AGE;
+    }
+
+    /**
+     * Parse a JSON object of key id to PEM. Values may be X.509 certificates (as served by Google)
+     * or bare public keys.
+     */
+    static Map<String, RSAPublicKey> parseKeys(String json) throws Exception {
+        JsonNode root = MAPPER.readTree(json);
+        Map<String, RSAPublicKey> keys = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            keys.put(field.getKey(), parsePem(field.getValue().asText()));
+        }
+        return Map.copyOf(keys);
+    }
+
+    static RSAPublicKey parsePem(String pem) throws GeneralSecurityException {
+        if (pem.contains("BEGIN CERTIFICATE")) {
+            CertificateFactory factory = CertificateFactory.getInstance("X.509");
+            return (RSAPublicKey) factory.generateCertificate(
+                    new ByteArrayInputStream(pem.getBytes(StandardCharsets.UTF_8))).getPublicKey();
+        }
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(Base64.getDecoder().decode(base64));
+        return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(spec);
+    }
+
+    /**
+     * Load the initial key set (blocking) and start background rotation
+     */
+    void start() {
+        refreshQuietly();
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public RSAPublicKey getPublicKeyById(String keyId) {
+        KeySet current = keySet;
+        RSAPublicKey key = current != null ? current.keys().get(keyId) : null;
+        if (key == null || Instant.now().isAfter(current.expiresAt())) {
+            // Unknown key id (Google may have rotated keys before our max-age ran out) or a stale set:
+            // keep answering from what we have and let the refresh thread fetch
+            refreshInBackground();
+        }
+        return key;
+    }
+
+    @Override
+    public RSAPrivateKey getPrivateKey() {
+        return null;
+    }
+
+    @Override
+    public String getPrivateKeyId() {
+        return null;
+    }
+
+    /**
+     * Queue a refresh on the refresh thread unless one is already queued or keys were fetched recently
+     */
+    private void refreshInBackground() {
+        if (Instant.now().isBefore(lastFetch.plus(minRefreshInterval)) || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    refreshQuietly();
+                } finally {
+                    refreshQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            refreshQueued.set(false);
+        }
+    }
+
+    private synchronized void refreshQuietly() {
+        lastFetch = Instant.now();
+        Duration nextRefresh = minRefreshInterval;
+        try {
+            KeySet fetched = source.fetch();
+            keySet = fetched;
+            Duration untilExpiry = Duration.between(Instant.now(), fetched.expiresAt()).minus(REFRESH_MARGIN);
+            if (untilExpiry.compareTo(nextRefresh) > 0) {
+                nextRefresh = untilExpiry;
+            }
+            LOG.debugf("Loaded %d Firebase signing keys, next refresh in %s", fetched.keys().size(), nextRefresh);
+        } catch (Exception e) {
+            // Keep serving the previous key set; tokens signed with it stay verifiable
+            LOG.warnf("Failed to refresh Firebase signing keys: %s", e.getMessage());
+        }
+        scheduleRefresh(nextRefresh);
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(this::refreshQuietly, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
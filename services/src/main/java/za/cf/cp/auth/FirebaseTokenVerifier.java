@@ -0,0 +1,157 @@
+package za.cf.cp.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies Firebase ID tokens in-process against Google's published signing keys.
+ * Successfully verified tokens are remembered by hash until they expire, so repeat
+ * requests with the same token skip the RSA signature check.
+ * Created at startup so the initial (blocking) key fetch never runs on a request thread.
+ */
+@Startup
+@ApplicationScoped
+public class FirebaseTokenVerifier {
+
+    static final String GOOGLE_KEYS_URL =
+            "https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com";
+    static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+    private static final long LEEWAY_SECONDS = 30;
+
+    @ConfigProperty(name = "firebase.project-id")
+    String projectId;
+
+    @ConfigProperty(name = "firebase.auth.keys-url", defaultValue = GOOGLE_KEYS_URL)
+    String keysUrl;
+
+    @ConfigProperty(name = "firebase.auth.keys-file")
+    Optional<String> keysFile;
+
+    @ConfigProperty(name = "firebase.auth.token-cache-size", defaultValue = "50000")
+    long tokenCacheSize;
+
+    private FirebasePublicKeys publicKeys;
+    private JWTVerifier jwtVerifier;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * The uid a token was issued for and the instant it stops being valid
+     */
+    record VerifiedToken(String uid, Instant expiresAt) {
+    }
+
+    public FirebaseTokenVerifier() {
+    }
+
+    FirebaseTokenVerifier(String projectId, FirebasePublicKeys publicKeys, long tokenCacheSize) {
+        this.projectId = projectId;
+        this.tokenCacheSize = tokenCacheSize;
+        init(publicKeys);
+    }
+
+    @PostConstruct
+    void init() {
+        FirebasePublicKeys.Source source = keysFile
+                .map(file -> FirebasePublicKeys.fromFile(Path.of(file)))
+                .orElseGet(() -> FirebasePublicKeys.fromUrl(URI.create(keysUrl)));
+        init(new FirebasePublicKeys(source));
+    }
+
+    private void init(FirebasePublicKeys keys) {
+        publicKeys = keys;
+        publicKeys.start();
+
+        jwtVerifier = JWT.require(Algorithm.RSA256(publicKeys))
+                .withIssuer(ISSUER_PREFIX + projectId)
+                .withAudience(projectId)
+                .acceptLeeway(LEEWAY_SECONDS)
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publicKeys.stop();
+    }
+
+    /**
+     * Verify a Firebase ID token and return the uid it was issued for.
+     *
+     * @throws JWTVerificationException if the token is malformed, expired, not signed by a current
+     *                                  Firebase key or not issued for this project
+     */
+    public String verify(String token) {
+        String cacheKey = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && Instant.now().isBefore(cached.expiresAt())) {
+            return cached.uid();
+        }
+
+        DecodedJWT jwt = jwtVerifier.verify(token);
+
+        String uid = jwt.getSubject();
+        if (uid == null || uid.isEmpty() || uid.length() > 128) {
+            throw new JWTVerificationException("Token has no valid subject");
+        }
+        Instant expiresAt = jwt.getExpiresAtAsInstant();
+        if (expiresAt == null) {
+            throw new JWTVerificationException("Token has no expiry");
+        }
+        Instant authTime = jwt.getClaim("auth_time").asInstant();
+        if (authTime != null && authTime.isAfter(Instant.now().plusSeconds(LEEWAY_SECONDS))) {
+            throw new JWTVerificationException("Token auth_time is in the future");
+        }
+
+        verifiedTokens.put(cacheKey, new VerifiedToken(uid, expiresAt));
+        return uid;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
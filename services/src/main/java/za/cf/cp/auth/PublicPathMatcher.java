@@ -0,0 +1,65 @@
+package za.cf.cp.auth;
+
+import java.util.Collection;
+
+/**
+ * Prefix trie over the configured public path prefixes. Built once, then matches a request
+ * path by walking its characters, without allocating.
+ * A path is public when any configured prefix is a prefix of it.
+ */
+final class PublicPathMatcher {
+
+    private static final int ASCII = 128;
+
+    private final Node root = new Node();
+
+    PublicPathMatcher(Collection<String> prefixes) {
+        for (String prefix : prefixes) {
+            add(prefix.trim());
+        }
+    }
+
+    private void add(String prefix) {
+        if (prefix.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c >= ASCII) {
+                throw new IllegalArgumentException("Public path must be ASCII: " + prefix);
+            }
+            if (node.children == null) {
+                node.children = new Node[ASCII];
+            }
+            if (node.children[c] == null) {
+                node.children[c] = new Node();
+            }
+            node = node.children[c];
+        }
+        node.terminal = true;
+    }
+
+    boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c >= ASCII || node.children == null || node.children[c] == null) {
+                return false;
+            }
+            node = node.children[c];
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+        Node[] children;
+        boolean terminal;
+    }
+}
@@ -0,0 +1,35 @@
+package za.cf.cp.auth;
+
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs a recurring warning at most once per interval and reports how many occurrences
+ * were suppressed in between, so a flood of bad requests cannot flood the log.
+ */
+final class RateLimitedLog {
+
+    private final Logger log;
+    private final String message;
+    private final long intervalNanos;
+    private final AtomicLong nextLogAt = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong suppressed = new AtomicLong();
+
+    RateLimitedLog(Logger log, String message, long intervalMillis) {
+        this.log = log;
+        this.message = message;
+        this.intervalNanos = intervalMillis * 1_000_000L;
+    }
+
+    void warn(String method, String path, String detail) {
+        long now = System.nanoTime();
+        long next = nextLogAt.get();
+        if ((next != Long.MIN_VALUE && now - next < 0) || !nextLogAt.compareAndSet(next, now + intervalNanos)) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long skipped = suppressed.getAndSet(0);
+        log.warnf("%s: method=%s path=%s detail=%s suppressed=%d", message, method, path, detail, skipped);
+    }
+}
@@ -3,6 +3,8 @@ package za.cf.cp.club;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import za.cf.cp.venue.Address;
 import java.util.List;
 import java.util.UUID;
@@ -33,7 +35,9 @@ public class Club extends PanacheEntityBase {
     public ClubType type = ClubType.CLUB; // Default to CLUB
     
     // Venue-specific fields (nullable for traditional clubs)
+    // Loaded for all clubs of a query in one statement rather than one per club
     @OneToMany(mappedBy = "club", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @JsonProperty("facilities")
     public List<ClubFacility> facilities;
     
@@ -7,6 +7,10 @@ import java.util.List;
 import java.util.UUID;
 
 public class AvailableSlot {
+    
+    // Padel is played two against two
+    public static final int PLAYERS_PER_COURT = 4;
+    
     @JsonProperty("date")
     public LocalDate date; // YYYY-MM-DD format
     
@@ -31,6 +35,9 @@ public class AvailableSlot {
     @JsonProperty("totalCourts")
     public int totalCourts;
     
+    @JsonProperty("availableSeats")
+    public int availableSeats;
+    
     @JsonProperty("bookings")
     public List<CourtBooking> bookings;
     
@@ -52,8 +59,60 @@ public class AvailableSlot {
         this.venueName = venueName;
         this.totalCourts = totalCourts;
         this.bookings = bookings;
-        this.availableCourts = totalCourts - (bookings != null ? bookings.size() : 0);
         this.isBookedByUser = false; // This would be set based on user context
         this.userBookingId = null;
+        countAvailability(null);
+    }
+    
+    /**
+     * Work out free courts and seats from the confirmed bookings of this slot, and whether the
+     * given user (if any) is one of the players.
+     * A court is available while it has fewer than four players; bookings without a court number
+     * don't occupy a specific court.
+     */
+    public void countAvailability(String firebaseUid) {
+        int[] playersPerCourt = new int[Math.max(totalCourts, 0)];
+        if (bookings != null) {
+            for (CourtBooking booking : bookings) {
+                Integer court = booking.courtNumber;
+                if (court != null && court >= 1 && court <= playersPerCourt.length) {
+                    playersPerCourt[court - 1]++;
+                }
+            }
+        }
+        countAvailability(playersPerCourt);
+        markUserBooking(firebaseUid, bookings);
+    }
+    
+    /**
+     * Work out free courts and seats from the number of players on each court (index 0 is court 1).
+     */
+    public void countAvailability(int[] playersPerCourt) {
+        availableCourts = 0;
+        availableSeats = 0;
+        for (int court = 0; court < totalCourts; court++) {
+            int players = court < playersPerCourt.length ? playersPerCourt[court] : 0;
+            if (players < PLAYERS_PER_COURT) {
+                availableCourts++;
+                availableSeats += PLAYERS_PER_COURT - players;
+            }
+        }
+    }
+    
+    /**
+     * Flag the slot as booked by the given user if one of the bookings is theirs.
+     */
+    public void markUserBooking(String firebaseUid, List<CourtBooking> userBookings) {
+        isBookedByUser = false;
+        userBookingId = null;
+        if (firebaseUid == null || userBookings == null) {
+            return;
+        }
+        for (CourtBooking booking : userBookings) {
+            if (firebaseUid.equals(booking.firebaseUid)) {
+                isBookedByUser = true;
+                userBookingId = booking.bookingId;
+            }
+        }
     }
 }
@@ -13,9 +13,15 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
+import za.cf.cp.auth.AuthenticatedUser;
+import za.cf.cp.courtschedule.service.CourtBookingAdmission;
 import za.cf.cp.courtschedule.service.CourtBookingService;
+import za.cf.cp.courtschedule.service.CourtSlotOccupancyService;
 import za.cf.cp.courtschedule.dto.CourtBookingRequest;
+import za.cf.cp.user.service.UserService;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.UUID;
 
 @Path("/api/court-bookings")
@@ -28,6 +34,18 @@ public class CourtBookingResource {
     @Inject
     CourtBookingService service;
 
+    @Inject
+    CourtBookingAdmission admission;
+
+    @Inject
+    CourtSlotOccupancyService occupancyService;
+
+    @Inject
+    AuthenticatedUser authenticatedUser;
+
+    @Inject
+    UserService userService;
+
     @GET
     @Path("/user/{userId}")
     public Response getUserBookings(
@@ -56,7 +74,6 @@ public class CourtBookingResource {
     }
 
     @POST
-    @Transactional
     public Response createBooking(CourtBookingRequest request) {
         try {
             LOG.info("Creating court booking: " + request);
@@ -67,7 +84,9 @@ public class CourtBookingResource {
                         .build();
             }
             
-            var booking = service.createBooking(request);
+            request.userId = authenticatedUser.resolveUid(request.userId);
+            // Not transactional here: the admission lock must be held until the booking has committed
+            var booking = admission.admit(request);
             LOG.info("Successfully created court booking: " + booking.bookingId);
             
             var response = new java.util.HashMap<String, Object>();
@@ -97,6 +116,7 @@ public class CourtBookingResource {
             @PathParam("bookingId") String bookingId,
             @QueryParam("userId") String userId) {
         try {
+            userId = authenticatedUser.resolveUid(userId);
             LOG.info("Cancelling booking: " + bookingId + " for user: " + userId);
             
             if (userId == null) {
@@ -126,4 +146,78 @@ public class CourtBookingResource {
                     .build();
         }
     }
+
+    /** Compare the occupancy counters of a date range with the confirmed bookings (admins only) */
+    @GET
+    @Path("/occupancy/check")
+    public Response checkOccupancy(
+            @QueryParam("startDate") String startDate,
+            @QueryParam("endDate") String endDate) {
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return adminRequired();
+        }
+        try {
+            if (startDate == null || endDate == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(java.util.Map.of("success", false, "message", "startDate and endDate are required"))
+                        .build();
+            }
+            
+            var mismatches = occupancyService.check(LocalDate.parse(startDate), LocalDate.parse(endDate));
+            if (!mismatches.isEmpty()) {
+                LOG.warn("Found " + mismatches.size() + " courts with occupancy counters out of step from " + startDate + " to " + endDate);
+            }
+            
+            var response = new java.util.HashMap<String, Object>();
+            response.put("consistent", mismatches.isEmpty());
+            response.put("mismatches", mismatches);
+            return Response.ok(response).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(java.util.Map.of("success", false, "message", "Invalid date format"))
+                    .build();
+        } catch (Exception e) {
+            LOG.error("Error checking court occupancy: " + e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(java.util.Map.of("success", false, "message", "Error checking court occupancy"))
+                    .build();
+        }
+    }
+
+    /** Rebuild the occupancy counters of a date range from the confirmed bookings (admins only) */
+    @POST
+    @Path("/occupancy/rebuild")
+    public Response rebuildOccupancy(
+            @QueryParam("startDate") String startDate,
+            @QueryParam("endDate") String endDate) {
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return adminRequired();
+        }
+        try {
+            if (startDate == null || endDate == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(java.util.Map.of("success", false, "message", "startDate and endDate are required"))
+                        .build();
+            }
+            
+            int courts = occupancyService.rebuild(LocalDate.parse(startDate), LocalDate.parse(endDate));
+            LOG.info("Rebuilt occupancy counters for " + courts + " courts from " + startDate + " to " + endDate);
+            return Response.ok(java.util.Map.of("success", true, "courts", courts)).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(java.util.Map.of("success", false, "message", "Invalid date format"))
+                    .build();
+        } catch (Exception e) {
+            LOG.error("Error rebuilding court occupancy: " + e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(java.util.Map.of("success", false, "message", "Error rebuilding court occupancy"))
+                    .build();
+        }
+    }
+
+    private static Response adminRequired() {
+        return Response.status(Response.Status.FORBIDDEN)
+                .entity(java.util.Map.of("success", false, "message", "Admin role required"))
+                .build();
+    }
 }
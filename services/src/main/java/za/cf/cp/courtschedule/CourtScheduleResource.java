@@ -1,7 +1,9 @@
 package za.cf.cp.courtschedule;
 
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -13,8 +15,14 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import za.cf.cp.auth.AuthenticatedUser;
 import za.cf.cp.courtschedule.dto.CreateCourtScheduleRequest;
 import za.cf.cp.courtschedule.service.CourtScheduleService;
+import za.cf.cp.live.LiveEvent;
+import za.cf.cp.live.LiveEventBus;
+
+import java.util.UUID;
 
 @Path("/api/court-schedules")
 @Produces(MediaType.APPLICATION_JSON)
@@ -26,6 +34,12 @@ public class CourtScheduleResource {
     @Inject
     CourtScheduleService service;
 
+    @Inject
+    AuthenticatedUser authenticatedUser;
+
+    @Inject
+    LiveEventBus liveEvents;
+
     @GET
     public Response getAllSchedules() {
         try {
@@ -47,7 +61,9 @@ public class CourtScheduleResource {
     public Response getAvailableSlots(
             @PathParam("clubId") String clubId,
             @jakarta.ws.rs.QueryParam("startDate") String startDate,
-            @jakarta.ws.rs.QueryParam("endDate") String endDate) {
+            @jakarta.ws.rs.QueryParam("endDate") String endDate,
+            @jakarta.ws.rs.QueryParam("userId") String userId,
+            @jakarta.ws.rs.QueryParam("includeBookings") @jakarta.ws.rs.DefaultValue("true") boolean includeBookings) {
         try {
             LOG.info("Fetching available slots for club: " + clubId + " from " + startDate + " to " + endDate);
             
@@ -57,7 +73,8 @@ public class CourtScheduleResource {
                         .build();
             }
             
-            var availableSlots = service.getAvailableSlots(clubId, startDate, endDate);
+            var availableSlots = service.getAvailableSlots(clubId, startDate, endDate,
+                    authenticatedUser.resolveUid(userId), includeBookings);
             
             LOG.info("Successfully fetched available slots: " + availableSlots.size());
             return Response.ok(availableSlots).build();
@@ -69,6 +86,24 @@ public class CourtScheduleResource {
         }
     }
 
+    /**
+     * Live changes to the slots of a club's schedules, as Server-Sent Events.
+     * Each event names the slot that changed; clients re-fetch its availability.
+     */
+    @GET
+    @Path("/club/{clubId}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<LiveEvent> streamClubEvents(@PathParam("clubId") String clubId) {
+        UUID clubUuid;
+        try {
+            clubUuid = UUID.fromString(clubId);
+        } catch (IllegalArgumentException e) {
+            return Multi.createFrom().failure(new BadRequestException("Invalid club ID format"));
+        }
+        return liveEvents.subscribe(LiveEvent.clubTopic(clubUuid));
+    }
+
     @GET
     @Path("/{id}")
     public Response getById(@PathParam("id") String id) {
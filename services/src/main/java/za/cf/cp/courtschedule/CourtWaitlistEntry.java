@@ -0,0 +1,90 @@
+package za.cf.cp.courtschedule;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * CourtWaitlistEntry entity representing a player queued for a full court time slot.
+ * Maps to the 'court_waitlist' table in the database.
+ */
+@Entity
+@Table(name = "court_waitlist", schema = "core")
+public class CourtWaitlistEntry extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "waitlist_id")
+    @JsonProperty("id")
+    public UUID waitlistId;
+
+    // Assigned by the database on insert
+    @Column(name = "queue_seq", insertable = false, updatable = false)
+    @JsonProperty("queueSeq")
+    public Long queueSeq;
+
+    @Column(name = "schedule_id", nullable = false)
+    @JsonProperty("scheduleId")
+    public UUID scheduleId;
+
+    @Column(name = "firebase_uid", nullable = false)
+    @JsonProperty("userId")
+    public String firebaseUid;
+
+    @Column(name = "venue_id", nullable = false)
+    @JsonProperty("venueId")
+    public UUID venueId;
+
+    @Column(name = "booking_date", nullable = false)
+    @JsonProperty("date")
+    public LocalDate bookingDate;
+
+    @Column(name = "time_slot", nullable = false)
+    @JsonProperty("timeSlot")
+    public LocalTime timeSlot;
+
+    @Column(name = "game_duration", nullable = false)
+    @JsonProperty("gameDuration")
+    public int gameDuration;
+
+    @Column(name = "court_number")
+    @JsonProperty("courtNumber")
+    public Integer courtNumber; // Optional - null means any court in the slot
+
+    @Column(name = "status", nullable = false)
+    @JsonProperty("status")
+    public String status = "waiting"; // waiting, promoted, left
+
+    @Column(name = "booking_id")
+    @JsonProperty("bookingId")
+    public UUID bookingId; // Set once promoted
+
+    @Column(name = "queued_at", insertable = false, updatable = false)
+    @JsonProperty("queuedAt")
+    public LocalDateTime queuedAt;
+
+    @Column(name = "promoted_at")
+    @JsonProperty("promotedAt")
+    public LocalDateTime promotedAt;
+
+    // Default constructor required by JPA
+    public CourtWaitlistEntry() {
+    }
+
+    @Override
+    public String toString() {
+        return "CourtWaitlistEntry{" +
+                "waitlistId=" + waitlistId +
+                ", firebaseUid='" + firebaseUid + '\'' +
+                ", venueId=" + venueId +
+                ", bookingDate=" + bookingDate +
+                ", timeSlot=" + timeSlot +
+                ", courtNumber=" + courtNumber +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
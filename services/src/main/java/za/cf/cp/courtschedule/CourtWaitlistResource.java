@@ -0,0 +1,173 @@
+package za.cf.cp.courtschedule;
+
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import za.cf.cp.auth.AuthenticatedUser;
+import za.cf.cp.courtschedule.dto.CourtBookingRequest;
+import za.cf.cp.courtschedule.dto.WaitlistStatus;
+import za.cf.cp.courtschedule.service.CourtWaitlistService;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Path("/api/court-waitlist")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class CourtWaitlistResource {
+
+    private static final Logger LOG = Logger.getLogger(CourtWaitlistResource.class);
+
+    @Inject
+    CourtWaitlistService service;
+
+    @Inject
+    AuthenticatedUser authenticatedUser;
+
+    @ConfigProperty(name = "court-waitlist.max-wait", defaultValue = "PT30S")
+    Duration maxWait;
+
+    @POST
+    public Response join(CourtBookingRequest request) {
+        try {
+            if (request == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(java.util.Map.of("success", false, "message", "Request body is required"))
+                        .build();
+            }
+
+            request.userId = authenticatedUser.resolveUid(request.userId);
+            LOG.info("Joining waitlist: " + request);
+            var entry = service.join(request);
+            var status = new WaitlistStatus(entry, service.getPosition(entry.waitlistId));
+            LOG.info("User " + request.userId + " is number " + status.position + " on the waitlist");
+
+            var response = new java.util.HashMap<String, Object>();
+            response.put("success", true);
+            response.put("message", "You are number " + status.position + " on the waitlist");
+            response.put("waitlist", status);
+            return Response.status(Response.Status.CREATED).entity(response).build();
+        } catch (RuntimeException e) {
+            // Business rule violations -> return 409 Conflict with message
+            LOG.warn("Business rule violation: " + e.getMessage());
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(java.util.Map.of("success", false, "message", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            LOG.error("Error joining waitlist: " + e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(java.util.Map.of("success", false, "message", "Error joining waitlist"))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{waitlistId}")
+    public Response getStatus(
+            @PathParam("waitlistId") String waitlistId,
+            @QueryParam("userId") String userId) {
+        try {
+            var status = service.getStatus(UUID.fromString(waitlistId));
+            if (!isOwnEntry(status, authenticatedUser.resolveUid(userId))) {
+                return notFound();
+            }
+            return Response.ok(status).build();
+        } catch (IllegalArgumentException e) {
+            return invalidId();
+        } catch (Exception e) {
+            LOG.error("Error fetching waitlist status: " + e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(java.util.Map.of("success", false, "message", "Error fetching waitlist status"))
+                    .build();
+        }
+    }
+
+    /**
+     * Long poll: answers as soon as the entry is promoted to a booking, or with the current
+     * status after {@code timeout} seconds (capped by court-waitlist.max-wait). Clients call it
+     * again while the status is still "waiting".
+     */
+    @GET
+    @Path("/{waitlistId}/promotion")
+    @Blocking
+    public Uni<Response> awaitPromotion(
+            @PathParam("waitlistId") String waitlistId,
+            @QueryParam("userId") String userId,
+            @QueryParam("timeout") Integer timeoutSeconds) {
+        UUID id;
+        try {
+            id = UUID.fromString(waitlistId);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(invalidId());
+        }
+        String uid = authenticatedUser.resolveUid(userId);
+        Duration timeout = timeoutSeconds == null || timeoutSeconds <= 0
+                ? maxWait
+                : Duration.ofSeconds(Math.min(timeoutSeconds, maxWait.toSeconds()));
+
+        return service.awaitStatus(id, timeout)
+                .map(status -> isOwnEntry(status, uid) ? Response.ok(status).build() : notFound())
+                .onFailure().recoverWithItem(e -> {
+                    LOG.error("Error waiting for waitlist promotion: " + e.getMessage(), e);
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity(java.util.Map.of("success", false, "message", "Error waiting for waitlist promotion"))
+                            .build();
+                });
+    }
+
+    @DELETE
+    @Path("/{waitlistId}")
+    public Response leave(
+            @PathParam("waitlistId") String waitlistId,
+            @QueryParam("userId") String userId) {
+        try {
+            userId = authenticatedUser.resolveUid(userId);
+            if (userId == null) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity(java.util.Map.of("success", false, "message", "userId is required"))
+                        .build();
+            }
+
+            if (service.leave(UUID.fromString(waitlistId), userId)) {
+                LOG.info("User " + userId + " left waitlist entry " + waitlistId);
+                return Response.ok(java.util.Map.of("success", true, "message", "You have left the waitlist")).build();
+            }
+            return notFound();
+        } catch (IllegalArgumentException e) {
+            return invalidId();
+        } catch (Exception e) {
+            LOG.error("Error leaving waitlist: " + e.getMessage(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(java.util.Map.of("success", false, "message", "Error leaving waitlist"))
+                    .build();
+        }
+    }
+
+    private static boolean isOwnEntry(WaitlistStatus status, String uid) {
+        return status != null && uid != null && uid.equals(status.userId);
+    }
+
+    private static Response notFound() {
+        return Response.status(Response.Status.NOT_FOUND)
+                .entity(java.util.Map.of("success", false, "message", "Waitlist entry not found"))
+                .build();
+    }
+
+    private static Response invalidId() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(java.util.Map.of("success", false, "message", "Invalid waitlist ID format"))
+                .build();
+    }
+}
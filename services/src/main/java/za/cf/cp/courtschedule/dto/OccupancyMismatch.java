@@ -0,0 +1,45 @@
+package za.cf.cp.courtschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * A court whose occupancy counters disagree with its confirmed bookings.
+ */
+public class OccupancyMismatch {
+    @JsonProperty("venueId")
+    public UUID venueId;
+
+    @JsonProperty("bookingDate")
+    public LocalDate bookingDate;
+
+    @JsonProperty("timeSlot")
+    public LocalTime timeSlot;
+
+    @JsonProperty("courtNumber")
+    public int courtNumber;
+
+    // Counters as stored
+    @JsonProperty("team1Count")
+    public int team1Count;
+
+    @JsonProperty("team2Count")
+    public int team2Count;
+
+    @JsonProperty("total")
+    public int total;
+
+    // Counted from court_bookings
+    @JsonProperty("bookedTeam1")
+    public int bookedTeam1;
+
+    @JsonProperty("bookedTeam2")
+    public int bookedTeam2;
+
+    @JsonProperty("bookedTotal")
+    public int bookedTotal;
+
+    public OccupancyMismatch() {}
+}
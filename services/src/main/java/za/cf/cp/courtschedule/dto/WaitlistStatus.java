@@ -0,0 +1,55 @@
+package za.cf.cp.courtschedule.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import za.cf.cp.courtschedule.CourtWaitlistEntry;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Where a player stands on a court waitlist: still waiting (with their place in the queue),
+ * promoted to a booking, or left.
+ */
+public class WaitlistStatus {
+    @JsonProperty("id")
+    public UUID waitlistId;
+
+    @JsonProperty("userId")
+    public String userId;
+
+    @JsonProperty("venueId")
+    public UUID venueId;
+
+    @JsonProperty("date")
+    public LocalDate bookingDate;
+
+    @JsonProperty("timeSlot")
+    public LocalTime timeSlot;
+
+    @JsonProperty("courtNumber")
+    public Integer courtNumber;
+
+    @JsonProperty("status")
+    public String status; // waiting, promoted, left
+
+    @JsonProperty("position")
+    public long position; // 1 = next in line; 0 once no longer waiting
+
+    @JsonProperty("bookingId")
+    public UUID bookingId;
+
+    public WaitlistStatus() {}
+
+    public WaitlistStatus(CourtWaitlistEntry entry, long position) {
+        this.waitlistId = entry.waitlistId;
+        this.userId = entry.firebaseUid;
+        this.venueId = entry.venueId;
+        this.bookingDate = entry.bookingDate;
+        this.timeSlot = entry.timeSlot;
+        this.courtNumber = entry.courtNumber;
+        this.status = entry.status;
+        this.position = position;
+        this.bookingId = entry.bookingId;
+    }
+}
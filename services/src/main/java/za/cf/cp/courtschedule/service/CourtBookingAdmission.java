@@ -0,0 +1,73 @@
+package za.cf.cp.courtschedule.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import za.cf.cp.courtschedule.CourtBooking;
+import za.cf.cp.courtschedule.dto.CourtBookingRequest;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Entry point for creating court bookings.
+ *
+ * Requests for the same court in the same time slot are queued on a striped in-JVM lock, so they
+ * reach the database one at a time instead of all piling onto the occupancy counter row locked by
+ * {@link CourtBookingService#createBooking}. The lock is held until the booking transaction has
+ * committed.
+ */
+@ApplicationScoped
+public class CourtBookingAdmission {
+
+    @Inject
+    CourtBookingService courtBookingService;
+
+    @ConfigProperty(name = "court-booking.lock-stripes", defaultValue = "64")
+    int lockStripes;
+
+    @ConfigProperty(name = "court-booking.lock-timeout", defaultValue = "PT5S")
+    Duration lockTimeout;
+
+    private ReentrantLock[] locks;
+
+    @PostConstruct
+    void init() {
+        locks = new ReentrantLock[Math.max(lockStripes, 1)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Create a booking, serialized with other bookings for the same court and time slot.
+     */
+    public CourtBooking admit(CourtBookingRequest request) {
+        ReentrantLock lock = lockFor(request);
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Booking was interrupted. Please try again.", e);
+        }
+        if (!acquired) {
+            throw new RuntimeException("This court is busy right now. Please try again.");
+        }
+        try {
+            return courtBookingService.createBooking(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(CourtBookingRequest request) {
+        int hash = Objects.hash(request.venueId, request.bookingDate, request.timeSlot, request.courtNumber);
+        // Spread the bits so stripes are used evenly even for similar keys
+        hash ^= hash >>> 16;
+        return locks[Math.floorMod(hash, locks.length)];
+    }
+}
@@ -1,9 +1,17 @@
 package za.cf.cp.courtschedule.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import za.cf.cp.courtschedule.AvailableSlot;
 import za.cf.cp.courtschedule.CourtBooking;
+import za.cf.cp.courtschedule.CourtSchedule;
 import za.cf.cp.courtschedule.dto.CourtBookingRequest;
+import za.cf.cp.live.LiveEvent;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -12,50 +20,44 @@ import java.util.UUID;
 @ApplicationScoped
 public class CourtBookingService {
 
+    private static final String ONE_BOOKING_PER_DAY_INDEX = "unique_user_booking_per_day";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    CourtSlotOccupancyService occupancyService;
+
+    @Inject
+    CourtWaitlistService waitlistService;
+
+    @Inject
+    Event<LiveEvent> liveEvents;
+
+    /**
+     * Create a confirmed booking on a court.
+     * The seat is taken on the court's occupancy counter with a single conditional update, which
+     * admits or rejects atomically and serializes competing bookings across instances. Callers
+     * should still go through {@link CourtBookingAdmission}, which queues bookings per court
+     * within this instance.
+     */
     @Transactional
     public CourtBooking createBooking(CourtBookingRequest request) {
-        // Enforce: user cannot have more than one confirmed booking on the same day
-        var existingUserDayBooking = CourtBooking.<CourtBooking>find(
-            "firebaseUid = ?1 AND bookingDate = ?2 AND status = 'confirmed'",
-            request.userId, request.bookingDate
-        ).firstResult();
-        if (existingUserDayBooking != null) {
-            throw new RuntimeException("You already have a confirmed booking on this day.");
+        if (request.courtNumber == null) {
+            throw new RuntimeException("Please select a court.");
         }
-
-        // Check if the court already has 4 players booked for this time slot
-        var existingBookings = CourtBooking.<CourtBooking>list(
-            "venueId = ?1 AND bookingDate = ?2 AND timeSlot = ?3 AND courtNumber = ?4 AND status = 'confirmed'",
-            request.venueId, request.bookingDate, request.timeSlot, request.courtNumber
-        );
-        
-        if (existingBookings.size() >= 4) {
-            throw new RuntimeException("Court " + request.courtNumber + " is full (4 players). Please select another court.");
+        if (request.teamNumber != null && request.teamNumber != 1 && request.teamNumber != 2) {
+            throw new RuntimeException("Please choose team 1 or team 2.");
         }
         
-        // Check if the user is already booked for this court and time slot
-        var userExistingBooking = CourtBooking.<CourtBooking>find(
-            "venueId = ?1 AND bookingDate = ?2 AND timeSlot = ?3 AND courtNumber = ?4 AND firebaseUid = ?5 AND status = 'confirmed'",
-            request.venueId, request.bookingDate, request.timeSlot, request.courtNumber, request.userId
-        ).firstResult();
-        
-        if (userExistingBooking != null) {
-            throw new RuntimeException("You are already playing on this court.");
-        }
-        
-        // Auto-assign team if not specified
-        if (request.teamNumber == null) {
-            request.teamNumber = assignTeam(existingBookings);
-        } else {
-            // Check if the specified team is full (2 players)
-            var teamBookings = CourtBooking.<CourtBooking>list(
-                "venueId = ?1 AND bookingDate = ?2 AND timeSlot = ?3 AND courtNumber = ?4 AND teamNumber = ?5 AND status = 'confirmed'",
-                request.venueId, request.bookingDate, request.timeSlot, request.courtNumber, request.teamNumber
-            );
-            
-            if (teamBookings.size() >= 2) {
-                throw new RuntimeException("This team is already full. Please choose another team.");
+        // Only confirmed bookings take a seat
+        if ("confirmed".equals(request.status)) {
+            Integer team = occupancyService.admit(request.venueId, request.bookingDate, request.timeSlot,
+                    request.courtNumber, request.teamNumber);
+            if (team == null) {
+                throw new RuntimeException(rejectionReason(request));
             }
+            request.teamNumber = team;
         }
         
         // Create new booking
@@ -71,11 +73,45 @@ public class CourtBookingService {
         // teamPosition field removed - no longer needed
         booking.status = request.status;
         
-        // Persist the booking
-        booking.persist();
+        // Persist the booking; the user already having a confirmed booking on this day (on this or
+        // any other court) is caught by the one-booking-per-user-per-day unique index, and the
+        // rollback gives the seat back
+        try {
+            booking.persist();
+            entityManager.flush();
+        } catch (ConstraintViolationException e) {
+            if (ONE_BOOKING_PER_DAY_INDEX.equals(e.getConstraintName())) {
+                throw new RuntimeException("You already have a confirmed booking on this day.", e);
+            }
+            throw e;
+        }
+        publishSlotChange("court-booking.created", booking);
         return booking;
     }
 
+    /**
+     * Explain why the occupancy counter turned a booking away.
+     */
+    private String rejectionReason(CourtBookingRequest request) {
+        var occupancy = occupancyService.getOccupancy(request.venueId, request.bookingDate, request.timeSlot,
+                request.courtNumber);
+        if (occupancy.total() >= AvailableSlot.PLAYERS_PER_COURT) {
+            return "Court " + request.courtNumber + " is full (4 players). Please select another court.";
+        }
+        return "This team is already full. Please choose another team.";
+    }
+
+    /**
+     * Tell live subscribers of the schedule's club that a slot changed (delivered after commit).
+     */
+    void publishSlotChange(String type, CourtBooking booking) {
+        CourtSchedule schedule = CourtSchedule.findById(booking.scheduleId);
+        if (schedule != null) {
+            liveEvents.fire(LiveEvent.courtSlot(schedule.clubId, type, booking.venueId, booking.bookingDate,
+                    booking.timeSlot, booking.courtNumber));
+        }
+    }
+
     public List<CourtBooking> getUserBookings(String userId, String startDate, String endDate) {
         try {
             var start = LocalDate.parse(startDate);
@@ -97,7 +133,8 @@ public class CourtBookingService {
     @Transactional
     public boolean cancelBooking(UUID bookingId, String userId) {
         try {
-            var booking = CourtBooking.<CourtBooking>findByIdOptional(bookingId);
+            // Locked so two concurrent cancellations can't both give the seat back
+            var booking = CourtBooking.<CourtBooking>findByIdOptional(bookingId, LockModeType.PESSIMISTIC_WRITE);
             
             if (booking.isEmpty()) {
                 return false;
@@ -110,9 +147,22 @@ public class CourtBookingService {
                  return false;
             }
             
-            // Update status to cancelled
+            // Update status to cancelled, giving the seat back if it held one
+            boolean freesSeat = "confirmed".equals(courtBooking.status) && courtBooking.courtNumber != null;
+            if (freesSeat) {
+                occupancyService.release(courtBooking.venueId, courtBooking.bookingDate, courtBooking.timeSlot,
+                        courtBooking.courtNumber, courtBooking.teamNumber);
+            }
             courtBooking.status = "cancelled";
             courtBooking.persist();
+            publishSlotChange("court-booking.cancelled", courtBooking);
+            
+            // Hand the freed seat to the head of the waitlist, in this same transaction
+            if (freesSeat) {
+                entityManager.flush(); // the promotion runs native statements against court_bookings
+                waitlistService.promoteNext(courtBooking.venueId, courtBooking.bookingDate, courtBooking.timeSlot,
+                        courtBooking.courtNumber);
+            }
             
             return true;
         } catch (Exception e) {
@@ -121,35 +171,4 @@ public class CourtBookingService {
             return false;
         }
     }
-    
-    /**
-     * Auto-assigns team for a new player based on existing bookings
-     * @param existingBookings List of existing bookings for the court
-     * @return Team number (1 or 2)
-     */
-    private Integer assignTeam(List<CourtBooking> existingBookings) {
-        // Count players in each team
-        int team1Count = 0;
-        int team2Count = 0;
-        
-        for (CourtBooking booking : existingBookings) {
-            if (booking.teamNumber != null) {
-                if (booking.teamNumber == 1) {
-                    team1Count++;
-                } else if (booking.teamNumber == 2) {
-                    team2Count++;
-                }
-            }
-        }
-        
-        // Assign to the team with fewer players, or Team 1 if equal
-        if (team1Count <= team2Count && team1Count < 2) {
-            return 1;
-        } else if (team2Count < 2) {
-            return 2;
-        } else {
-            // This shouldn't happen as we check for 4 players max above
-            return 1;
-        }
-    }
 }
@@ -1,6 +1,7 @@
 package za.cf.cp.courtschedule.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import za.cf.cp.courtschedule.CourtSchedule;
 import za.cf.cp.courtschedule.CourtScheduleDay;
@@ -11,12 +12,19 @@ import za.cf.cp.courtschedule.dto.CreateCourtScheduleRequest;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @ApplicationScoped
 public class CourtScheduleService {
 
+    @Inject
+    CourtSlotOccupancyService occupancyService;
+
     @Transactional
     public CourtSchedule create(CreateCourtScheduleRequest req) {
         CourtSchedule schedule = new CourtSchedule();
@@ -47,6 +55,18 @@ public class CourtScheduleService {
     }
 
     public List<AvailableSlot> getAvailableSlots(String clubId, String startDate, String endDate) {
+        return getAvailableSlots(clubId, startDate, endDate, null, true);
+    }
+
+    /**
+     * Get the slots of a club's schedules in a date range that still have a free seat, or that the
+     * given user is booked on.
+     * Free courts and seats come from the occupancy counters, read with one range scan. The
+     * confirmed bookings of the range are only loaded when {@code includeBookings} is set;
+     * otherwise just the user's own bookings are read, to flag the slots they are on.
+     */
+    public List<AvailableSlot> getAvailableSlots(String clubId, String startDate, String endDate, String firebaseUid,
+                                                 boolean includeBookings) {
         var availableSlots = new ArrayList<AvailableSlot>();
         
         try {
@@ -55,56 +75,79 @@ public class CourtScheduleService {
             var end = LocalDate.parse(endDate);
             var clubUuid = UUID.fromString(clubId);
             
-            // Get all active schedules for the club
-            var schedules = CourtSchedule.list("clubId = ?1 AND startDate <= ?2 AND endDate >= ?3", 
-                clubUuid, end, start);
+            // Get all active schedules for the club, with their days
+            List<CourtSchedule> schedules = CourtSchedule.<CourtSchedule>find(
+                "SELECT DISTINCT s FROM CourtSchedule s LEFT JOIN FETCH s.days WHERE s.clubId = ?1 AND s.startDate <= ?2 AND s.endDate >= ?3",
+                clubUuid, end, start).list();
+            
+            Set<UUID> venueIds = new HashSet<>();
+            for (var schedule : schedules) {
+                for (var day : schedule.days) {
+                    venueIds.add(day.venueId);
+                }
+            }
             
             // Early return if no schedules found
-            if (schedules.isEmpty()) {
+            if (venueIds.isEmpty()) {
                 return availableSlots;
             }
             
+            // Players per court of every occupied slot in the range
+            Map<SlotKey, Map<Integer, Integer>> playersBySlot = new HashMap<>();
+            for (var occupancy : occupancyService.getOccupancy(venueIds, start, end)) {
+                playersBySlot.computeIfAbsent(new SlotKey(occupancy.venueId(), occupancy.bookingDate(), occupancy.timeSlot()),
+                        key -> new HashMap<>()).put(occupancy.courtNumber(), occupancy.total());
+            }
+            
+            // Confirmed bookings of the range (or only the user's), grouped by slot
+            Map<SlotKey, List<CourtBooking>> bookingsBySlot = new HashMap<>();
+            List<CourtBooking> bookings;
+            if (includeBookings) {
+                bookings = CourtBooking.<CourtBooking>list(
+                    "venueId IN ?1 AND bookingDate >= ?2 AND bookingDate <= ?3 AND status = 'confirmed'",
+                    venueIds, start, end);
+            } else if (firebaseUid != null) {
+                bookings = CourtBooking.<CourtBooking>list(
+                    "firebaseUid = ?1 AND venueId IN ?2 AND bookingDate >= ?3 AND bookingDate <= ?4 AND status = 'confirmed'",
+                    firebaseUid, venueIds, start, end);
+            } else {
+                bookings = List.of();
+            }
+            for (var booking : bookings) {
+                bookingsBySlot.computeIfAbsent(new SlotKey(booking.venueId, booking.bookingDate, booking.timeSlot),
+                        key -> new ArrayList<>()).add(booking);
+            }
+            
             for (var schedule : schedules) {
-                var courtSchedule = (CourtSchedule) schedule;
-                
-                // Load the schedule days (they might be lazy loaded)
-                courtSchedule.days.size(); // Force loading of the collection
+                // Only the part of the range this schedule covers
+                var from = start.isBefore(schedule.startDate) ? schedule.startDate : start;
+                var to = end.isAfter(schedule.endDate) ? schedule.endDate : end;
                 
-                // For each day in the date range
-                for (var date = start; !date.isAfter(end); date = date.plusDays(1)) {
+                for (var date = from; !date.isAfter(to); date = date.plusDays(1)) {
                     int dayOfWeek = date.getDayOfWeek().getValue() % 7; // Convert to 0-6 (Sunday=0)
                     
                     // Find schedule days that match this day of week
-                    for (var day : courtSchedule.days) {
-                        if (day.dayOfWeek == dayOfWeek) {
-                            // Check if this date falls within the schedule date range
-                            if (!date.isBefore(courtSchedule.startDate) && !date.isAfter(courtSchedule.endDate)) {
-                                
-                                // Get existing bookings for this date and time slot
-                                List<CourtBooking> existingBookings = CourtBooking.<CourtBooking>list(
-                                    "venueId = ?1 AND bookingDate = ?2 AND timeSlot = ?3 AND status = 'confirmed'",
-                                    day.venueId, date, day.timeSlot
-                                );
-
-                                // Create available slot
-                                var slot = new AvailableSlot();
-                                slot.date = date;
-                                slot.timeSlot = day.timeSlot;
-                                slot.gameDuration = day.gameDuration;
-                                slot.scheduleId = courtSchedule.scheduleId;
-                                slot.venueId = day.venueId;
-                                slot.venueName = "Venue " + day.venueId; // TODO: Get actual venue name
-                                slot.totalCourts = day.courtCount;
-                                slot.availableCourts = day.courtCount - existingBookings.size();
-                                slot.bookings = existingBookings;
-                                slot.isBookedByUser = false; // TODO: Check if current user has booking
-                                slot.userBookingId = null;
-                                
-                                // Only add if there are available courts
-                                if (slot.availableCourts > 0) {
-                                    availableSlots.add(slot);
-                                }
-                            }
+                    for (var day : schedule.days) {
+                        if (day.dayOfWeek != dayOfWeek) {
+                            continue;
+                        }
+                        
+                        var key = new SlotKey(day.venueId, date, day.timeSlot);
+                        var slot = new AvailableSlot();
+                        slot.date = date;
+                        slot.timeSlot = day.timeSlot;
+                        slot.gameDuration = day.gameDuration;
+                        slot.scheduleId = schedule.scheduleId;
+                        slot.venueId = day.venueId;
+                        slot.venueName = "Venue " + day.venueId; // TODO: Get actual venue name
+                        slot.totalCourts = day.courtCount;
+                        slot.bookings = includeBookings ? bookingsBySlot.getOrDefault(key, List.of()) : List.of();
+                        slot.countAvailability(playersPerCourt(playersBySlot.get(key), day.courtCount));
+                        slot.markUserBooking(firebaseUid, bookingsBySlot.get(key));
+                        
+                        // Only add if there is a free seat, or the user needs to see their own booking
+                        if (slot.availableSeats > 0 || slot.isBookedByUser) {
+                            availableSlots.add(slot);
                         }
                     }
                 }
@@ -118,6 +161,21 @@ public class CourtScheduleService {
         return availableSlots;
     }
 
+    private static int[] playersPerCourt(Map<Integer, Integer> playersByCourt, int courtCount) {
+        int[] players = new int[Math.max(courtCount, 0)];
+        if (playersByCourt != null) {
+            playersByCourt.forEach((court, total) -> {
+                if (court >= 1 && court <= players.length) {
+                    players[court - 1] = total;
+                }
+            });
+        }
+        return players;
+    }
+
+    private record SlotKey(UUID venueId, LocalDate date, LocalTime timeSlot) {
+    }
+
     @Transactional
     public CourtSchedule update(UUID scheduleId, CreateCourtScheduleRequest req) {
         // Find the existing schedule
@@ -0,0 +1,268 @@
+package za.cf.cp.courtschedule.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import za.cf.cp.courtschedule.AvailableSlot;
+import za.cf.cp.courtschedule.dto.OccupancyMismatch;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-court occupancy counters ({@code core.court_slot_occupancy}).
+ *
+ * The counters are changed in the same transaction as the booking they account for, so they
+ * always match the confirmed rows in {@code core.court_bookings}. {@link #rebuild} and
+ * {@link #check} exist for anything that changes bookings outside the booking service (cascading
+ * deletes, manual fixes).
+ */
+@ApplicationScoped
+public class CourtSlotOccupancyService {
+
+    private static final int PLAYERS_PER_TEAM = AvailableSlot.PLAYERS_PER_COURT / 2;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Players on one court in one time slot.
+     */
+    public record CourtOccupancy(UUID venueId, LocalDate bookingDate, LocalTime timeSlot, int courtNumber,
+                                 int team1Count, int team2Count, int total) {
+    }
+
+    /**
+     * Take a seat on a court: one conditional UPDATE that only succeeds while the court has fewer
+     * than four players and the team fewer than two. When no team is requested the emptier team
+     * is picked (team 1 on a tie). The row stays locked until the transaction ends, which
+     * serializes competing bookings for the same court.
+     * @return the team the seat was taken in, or null if the court or team is full
+     */
+    public Integer admit(UUID venueId, LocalDate bookingDate, LocalTime timeSlot, int courtNumber, Integer teamNumber) {
+        entityManager.createNativeQuery("""
+                INSERT INTO core.court_slot_occupancy (venue_id, booking_date, time_slot, court_number)
+                VALUES (?1, ?2, ?3, ?4)
+                ON CONFLICT (venue_id, booking_date, time_slot, court_number) DO NOTHING
+                """)
+                .setParameter(1, venueId)
+                .setParameter(2, bookingDate)
+                .setParameter(3, timeSlot)
+                .setParameter(4, courtNumber)
+                .executeUpdate();
+
+        // The CTE locks the row and sees its latest version, so the team is chosen from committed counts
+        List<?> admitted = entityManager.createNativeQuery("""
+                WITH choice AS (
+                    SELECT venue_id, booking_date, time_slot, court_number,
+                           CASE WHEN ?5 IN (1, 2) THEN ?5
+                                WHEN team1_count <= team2_count THEN 1
+                                ELSE 2 END AS team
+                    FROM core.court_slot_occupancy
+                    WHERE venue_id = ?1 AND booking_date = ?2 AND time_slot = ?3 AND court_number = ?4
+                    FOR UPDATE
+                )
+                UPDATE core.court_slot_occupancy o
+                SET team1_count = o.team1_count + CASE WHEN c.team = 1 THEN 1 ELSE 0 END,
+                    team2_count = o.team2_count + CASE WHEN c.team = 2 THEN 1 ELSE 0 END,
+                    total = o.total + 1
+                FROM choice c
+                WHERE o.venue_id = c.venue_id AND o.booking_date = c.booking_date
+                  AND o.time_slot = c.time_slot AND o.court_number = c.court_number
+                  AND o.total < ?6
+                  AND CASE c.team WHEN 1 THEN o.team1_count ELSE o.team2_count END < ?7
+                RETURNING c.team
+                """)
+                .setParameter(1, venueId)
+                .setParameter(2, bookingDate)
+                .setParameter(3, timeSlot)
+                .setParameter(4, courtNumber)
+                .setParameter(5, teamNumber == null ? 0 : teamNumber)
+                .setParameter(6, AvailableSlot.PLAYERS_PER_COURT)
+                .setParameter(7, PLAYERS_PER_TEAM)
+                .getResultList();
+        return admitted.isEmpty() ? null : ((Number) admitted.get(0)).intValue();
+    }
+
+    /**
+     * Give back the seat of a confirmed booking that is being cancelled.
+     */
+    public void release(UUID venueId, LocalDate bookingDate, LocalTime timeSlot, int courtNumber, Integer teamNumber) {
+        entityManager.createNativeQuery("""
+                UPDATE core.court_slot_occupancy
+                SET team1_count = GREATEST(team1_count - CASE WHEN ?5 = 1 THEN 1 ELSE 0 END, 0),
+                    team2_count = GREATEST(team2_count - CASE WHEN ?5 = 2 THEN 1 ELSE 0 END, 0),
+                    total = GREATEST(total - 1, 0)
+                WHERE venue_id = ?1 AND booking_date = ?2 AND time_slot = ?3 AND court_number = ?4
+                """)
+                .setParameter(1, venueId)
+                .setParameter(2, bookingDate)
+                .setParameter(3, timeSlot)
+                .setParameter(4, courtNumber)
+                .setParameter(5, teamNumber == null ? 0 : teamNumber)
+                .executeUpdate();
+    }
+
+    /**
+     * Get the current counters of one court (empty if nobody ever booked it).
+     */
+    public CourtOccupancy getOccupancy(UUID venueId, LocalDate bookingDate, LocalTime timeSlot, int courtNumber) {
+        List<?> rows = entityManager.createNativeQuery("""
+                SELECT venue_id, booking_date, time_slot, court_number, team1_count, team2_count, total
+                FROM core.court_slot_occupancy
+                WHERE venue_id = ?1 AND booking_date = ?2 AND time_slot = ?3 AND court_number = ?4
+                """)
+                .setParameter(1, venueId)
+                .setParameter(2, bookingDate)
+                .setParameter(3, timeSlot)
+                .setParameter(4, courtNumber)
+                .getResultList();
+        return rows.isEmpty()
+                ? new CourtOccupancy(venueId, bookingDate, timeSlot, courtNumber, 0, 0, 0)
+                : toOccupancy((Object[]) rows.get(0));
+    }
+
+    /**
+     * Count the full courts (four players) among courts 1 to {@code courtCount} of a time slot.
+     */
+    public int countFullCourts(UUID venueId, LocalDate bookingDate, LocalTime timeSlot, int courtCount) {
+        return ((Number) entityManager.createNativeQuery("""
+                SELECT COUNT(*)
+                FROM core.court_slot_occupancy
+                WHERE venue_id = ?1 AND booking_date = ?2 AND time_slot = ?3
+                  AND court_number BETWEEN 1 AND ?4
+                  AND total >= ?5
+                """)
+                .setParameter(1, venueId)
+                .setParameter(2, bookingDate)
+                .setParameter(3, timeSlot)
+                .setParameter(4, courtCount)
+                .setParameter(5, AvailableSlot.PLAYERS_PER_COURT)
+                .getSingleResult()).intValue();
+    }
+
+    /**
+     * Get the occupied courts of the given venues in a date range, as one range scan.
+     */
+    public List<CourtOccupancy> getOccupancy(Collection<UUID> venueIds, LocalDate startDate, LocalDate endDate) {
+        List<?> rows = entityManager.createNativeQuery("""
+                SELECT venue_id, booking_date, time_slot, court_number, team1_count, team2_count, total
+                FROM core.court_slot_occupancy
+                WHERE venue_id IN (?1) AND booking_date BETWEEN ?2 AND ?3 AND total > 0
+                """)
+                .setParameter(1, venueIds)
+                .setParameter(2, startDate)
+                .setParameter(3, endDate)
+                .getResultList();
+        var occupancy = new ArrayList<CourtOccupancy>(rows.size());
+        for (Object row : rows) {
+            occupancy.add(toOccupancy((Object[]) row));
+        }
+        return occupancy;
+    }
+
+    /**
+     * Rebuild the counters of a date range from the confirmed bookings.
+     * The table is locked against concurrent bookings for the duration, so no admission can slip
+     * in between the delete and the re-count.
+     * @return the number of counter rows written
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        entityManager.createNativeQuery("LOCK TABLE core.court_slot_occupancy IN SHARE ROW EXCLUSIVE MODE")
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM core.court_slot_occupancy WHERE booking_date BETWEEN ?1 AND ?2")
+                .setParameter(1, startDate)
+                .setParameter(2, endDate)
+                .executeUpdate();
+        return entityManager.createNativeQuery("""
+                INSERT INTO core.court_slot_occupancy (venue_id, booking_date, time_slot, court_number, team1_count, team2_count, total)
+                SELECT venue_id, booking_date, time_slot, court_number,
+                       COUNT(*) FILTER (WHERE team_number = 1),
+                       COUNT(*) FILTER (WHERE team_number = 2),
+                       COUNT(*)
+                FROM core.court_bookings
+                WHERE status = 'confirmed'
+                  AND court_number IS NOT NULL
+                  AND booking_date BETWEEN ?1 AND ?2
+                GROUP BY venue_id, booking_date, time_slot, court_number
+                """)
+                .setParameter(1, startDate)
+                .setParameter(2, endDate)
+                .executeUpdate();
+    }
+
+    /**
+     * Compare the counters of a date range with the confirmed bookings and return every court
+     * where they differ. A court without a counter row counts as empty.
+     */
+    public List<OccupancyMismatch> check(LocalDate startDate, LocalDate endDate) {
+        List<?> rows = entityManager.createNativeQuery("""
+                SELECT venue_id, booking_date, time_slot, court_number,
+                       COALESCE(o.team1_count, 0), COALESCE(o.team2_count, 0), COALESCE(o.total, 0),
+                       COALESCE(b.team1_count, 0), COALESCE(b.team2_count, 0), COALESCE(b.total, 0)
+                FROM (
+                    SELECT venue_id, booking_date, time_slot, court_number, team1_count, team2_count, total
+                    FROM core.court_slot_occupancy
+                    WHERE booking_date BETWEEN ?1 AND ?2 AND total > 0
+                ) o
+                FULL OUTER JOIN (
+                    SELECT venue_id, booking_date, time_slot, court_number,
+                           COUNT(*) FILTER (WHERE team_number = 1) AS team1_count,
+                           COUNT(*) FILTER (WHERE team_number = 2) AS team2_count,
+                           COUNT(*) AS total
+                    FROM core.court_bookings
+                    WHERE status = 'confirmed'
+                      AND court_number IS NOT NULL
+                      AND booking_date BETWEEN ?1 AND ?2
+                    GROUP BY venue_id, booking_date, time_slot, court_number
+                ) b USING (venue_id, booking_date, time_slot, court_number)
+                WHERE COALESCE(o.team1_count, 0) <> COALESCE(b.team1_count, 0)
+                   OR COALESCE(o.team2_count, 0) <> COALESCE(b.team2_count, 0)
+                   OR COALESCE(o.total, 0) <> COALESCE(b.total, 0)
+                ORDER BY booking_date, venue_id, time_slot, court_number
+                """)
+                .setParameter(1, startDate)
+                .setParameter(2, endDate)
+                .getResultList();
+        var mismatches = new ArrayList<OccupancyMismatch>(rows.size());
+        for (Object result : rows) {
+            Object[] row = (Object[]) result;
+            var mismatch = new OccupancyMismatch();
+            mismatch.venueId = (UUID) row[0];
+            mismatch.bookingDate = toLocalDate(row[1]);
+            mismatch.timeSlot = toLocalTime(row[2]);
+            mismatch.courtNumber = ((Number) row[3]).intValue();
+            mismatch.team1Count = ((Number) row[4]).intValue();
+            mismatch.team2Count = ((Number) row[5]).intValue();
+            mismatch.total = ((Number) row[6]).intValue();
+            mismatch.bookedTeam1 = ((Number) row[7]).intValue();
+            mismatch.bookedTeam2 = ((Number) row[8]).intValue();
+            mismatch.bookedTotal = ((Number) row[9]).intValue();
+            mismatches.add(mismatch);
+        }
+        return mismatches;
+    }
+
+    private static CourtOccupancy toOccupancy(Object[] row) {
+        return new CourtOccupancy((UUID) row[0], toLocalDate(row[1]), toLocalTime(row[2]),
+                ((Number) row[3]).intValue(), ((Number) row[4]).intValue(),
+                ((Number) row[5]).intValue(), ((Number) row[6]).intValue());
+    }
+
+    // Native queries may hand back java.sql types depending on the driver settings
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static LocalTime toLocalTime(Object value) {
+        return value instanceof Time time ? time.toLocalTime() : (LocalTime) value;
+    }
+}
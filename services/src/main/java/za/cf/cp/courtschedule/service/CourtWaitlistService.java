@@ -0,0 +1,287 @@
+package za.cf.cp.courtschedule.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import za.cf.cp.courtschedule.AvailableSlot;
+import za.cf.cp.courtschedule.CourtBooking;
+import za.cf.cp.courtschedule.CourtSchedule;
+import za.cf.cp.courtschedule.CourtScheduleDay;
+import za.cf.cp.courtschedule.CourtWaitlistEntry;
+import za.cf.cp.courtschedule.dto.CourtBookingRequest;
+import za.cf.cp.courtschedule.dto.WaitlistStatus;
+import za.cf.cp.live.LiveEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FIFO waitlist for full court time slots.
+ *
+ * When a confirmed booking is cancelled, {@link #promoteNext} books the first compatible waiting
+ * player onto the freed seat in the same transaction. Clients wait for their promotion with
+ * {@link #awaitStatus}, a long poll that is completed as soon as the promoting transaction
+ * commits on this instance (and otherwise times out, after which the client polls again).
+ */
+@ApplicationScoped
+public class CourtWaitlistService {
+
+    private static final String ONE_WAIT_PER_SLOT_INDEX = "unique_user_waiting_per_slot";
+
+    // Waiting players skipped at most per promotion (e.g. because they booked another court meanwhile)
+    private static final int PROMOTION_CANDIDATES = 10;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    CourtSlotOccupancyService occupancyService;
+
+    @Inject
+    Event<WaitlistPromoted> promotions;
+
+    @Inject
+    Event<LiveEvent> liveEvents;
+
+    private final Map<UUID, Set<CompletableFuture<WaitlistStatus>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Fired when a waiting player has been booked; observed once the transaction has committed.
+     */
+    public record WaitlistPromoted(WaitlistStatus status) {
+    }
+
+    /**
+     * Put a player on the waitlist of a time slot (or of one court in it, when a court is given).
+     * Only full courts can be waited for: without a court, every court of the slot must be full.
+     */
+    @Transactional
+    public CourtWaitlistEntry join(CourtBookingRequest request) {
+        long bookingsOnDay = CourtBooking.count("firebaseUid = ?1 AND bookingDate = ?2 AND status = 'confirmed'",
+                request.userId, request.bookingDate);
+        if (bookingsOnDay > 0) {
+            throw new RuntimeException("You already have a confirmed booking on this day.");
+        }
+        if (request.courtNumber != null) {
+            var occupancy = occupancyService.getOccupancy(request.venueId, request.bookingDate, request.timeSlot,
+                    request.courtNumber);
+            if (occupancy.total() < AvailableSlot.PLAYERS_PER_COURT) {
+                throw new RuntimeException("Court " + request.courtNumber + " still has a free seat. Please book it directly.");
+            }
+        } else {
+            int courtCount = scheduledCourts(request);
+            if (courtCount == 0) {
+                throw new RuntimeException("No courts are scheduled for this time slot.");
+            }
+            if (occupancyService.countFullCourts(request.venueId, request.bookingDate, request.timeSlot, courtCount) < courtCount) {
+                throw new RuntimeException("This time slot still has a free seat. Please book it directly.");
+            }
+        }
+
+        CourtWaitlistEntry entry = new CourtWaitlistEntry();
+        entry.scheduleId = UUID.fromString(request.scheduleId);
+        entry.firebaseUid = request.userId;
+        entry.venueId = request.venueId;
+        entry.bookingDate = request.bookingDate;
+        entry.timeSlot = request.timeSlot;
+        entry.gameDuration = request.gameDuration;
+        entry.courtNumber = request.courtNumber;
+        try {
+            entry.persist();
+            entityManager.flush();
+        } catch (ConstraintViolationException e) {
+            if (ONE_WAIT_PER_SLOT_INDEX.equals(e.getConstraintName())) {
+                throw new RuntimeException("You are already on the waitlist for this time slot.", e);
+            }
+            throw e;
+        }
+        return entry;
+    }
+
+    /**
+     * Number of courts the schedule offers in the requested slot (0 if it has none).
+     */
+    private int scheduledCourts(CourtBookingRequest request) {
+        int dayOfWeek = request.bookingDate.getDayOfWeek().getValue() % 7; // Sunday=0
+        return CourtScheduleDay.<CourtScheduleDay>find(
+                        "schedule.scheduleId = ?1 and venueId = ?2 and timeSlot = ?3 and dayOfWeek = ?4",
+                        UUID.fromString(request.scheduleId), request.venueId, request.timeSlot, dayOfWeek)
+                .firstResultOptional()
+                .map(day -> day.courtCount)
+                .orElse(0);
+    }
+
+    /**
+     * Get the status of a waitlist entry, or null if it doesn't exist.
+     */
+    public WaitlistStatus getStatus(UUID waitlistId) {
+        CourtWaitlistEntry entry = CourtWaitlistEntry.findById(waitlistId);
+        if (entry == null) {
+            return null;
+        }
+        return new WaitlistStatus(entry, "waiting".equals(entry.status) ? getPosition(waitlistId) : 0);
+    }
+
+    /**
+     * Get a waiting entry's place in its slot's queue (1 = next in line).
+     */
+    public long getPosition(UUID waitlistId) {
+        return ((Number) entityManager.createNativeQuery("""
+                SELECT COUNT(*)
+                FROM core.court_waitlist me
+                JOIN core.court_waitlist w
+                  ON w.venue_id = me.venue_id AND w.booking_date = me.booking_date AND w.time_slot = me.time_slot
+                WHERE me.waitlist_id = ?1
+                  AND w.status = 'waiting'
+                  AND w.queue_seq <= me.queue_seq
+                """)
+                .setParameter(1, waitlistId)
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * Take a player off the waitlist.
+     * @return false if the entry doesn't exist, isn't theirs, or is no longer waiting
+     */
+    @Transactional
+    public boolean leave(UUID waitlistId, String userId) {
+        CourtWaitlistEntry entry = CourtWaitlistEntry.findById(waitlistId);
+        if (entry == null || !entry.firebaseUid.equals(userId) || !"waiting".equals(entry.status)) {
+            return false;
+        }
+        entry.status = "left";
+        return true;
+    }
+
+    /**
+     * Book the first compatible waiting player onto a seat that has just been freed on a court.
+     * Runs in the caller's transaction, so the promotion commits or rolls back with the
+     * cancellation that freed the seat. Waiting rows locked by a concurrent promotion are skipped.
+     * @return the new booking's id, or null if nobody could be promoted
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public UUID promoteNext(UUID venueId, LocalDate bookingDate, LocalTime timeSlot, int courtNumber) {
+        @SuppressWarnings("unchecked")
+        List<UUID> candidates = entityManager.createNativeQuery("""
+                SELECT waitlist_id
+                FROM core.court_waitlist
+                WHERE venue_id = ?1 AND booking_date = ?2 AND time_slot = ?3
+                  AND status = 'waiting'
+                  AND (court_number IS NULL OR court_number = ?4)
+                ORDER BY queue_seq
+                LIMIT ?5
+                FOR UPDATE SKIP LOCKED
+                """)
+                .setParameter(1, venueId)
+                .setParameter(2, bookingDate)
+                .setParameter(3, timeSlot)
+                .setParameter(4, courtNumber)
+                .setParameter(5, PROMOTION_CANDIDATES)
+                .getResultList();
+
+        for (UUID waitlistId : candidates) {
+            CourtWaitlistEntry entry = CourtWaitlistEntry.findById(waitlistId);
+            Integer team = occupancyService.admit(venueId, bookingDate, timeSlot, courtNumber, null);
+            if (team == null) {
+                // The seat was taken by someone else in the meantime
+                return null;
+            }
+
+            UUID bookingId = insertBooking(entry, courtNumber, team);
+            if (bookingId == null) {
+                // The player booked something else on this day while waiting
+                occupancyService.release(venueId, bookingDate, timeSlot, courtNumber, team);
+                entry.status = "left";
+                continue;
+            }
+
+            entry.status = "promoted";
+            entry.bookingId = bookingId;
+            entry.courtNumber = courtNumber;
+            entry.promotedAt = LocalDateTime.now();
+            promotions.fire(new WaitlistPromoted(new WaitlistStatus(entry, 0)));
+            CourtSchedule schedule = CourtSchedule.findById(entry.scheduleId);
+            liveEvents.fire(LiveEvent.courtSlot(schedule.clubId, "court-booking.promoted", venueId, bookingDate,
+                    timeSlot, courtNumber));
+            return bookingId;
+        }
+        return null;
+    }
+
+    /**
+     * Insert the booking of a promoted player. A conflict with the one-booking-per-user-per-day
+     * index is absorbed rather than raised, so it can't abort the cancellation's transaction.
+     */
+    private UUID insertBooking(CourtWaitlistEntry entry, int courtNumber, int team) {
+        List<?> inserted = entityManager.createNativeQuery("""
+                INSERT INTO core.court_bookings
+                    (schedule_id, firebase_uid, venue_id, booking_date, time_slot, game_duration, court_number, team_number, status)
+                VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, 'confirmed')
+                ON CONFLICT DO NOTHING
+                RETURNING booking_id
+                """)
+                .setParameter(1, entry.scheduleId)
+                .setParameter(2, entry.firebaseUid)
+                .setParameter(3, entry.venueId)
+                .setParameter(4, entry.bookingDate)
+                .setParameter(5, entry.timeSlot)
+                .setParameter(6, entry.gameDuration)
+                .setParameter(7, courtNumber)
+                .setParameter(8, team)
+                .getResultList();
+        return inserted.isEmpty() ? null : (UUID) inserted.get(0);
+    }
+
+    /**
+     * Wait up to {@code timeout} for a waiting entry to be promoted. Completes right away if the
+     * entry is no longer waiting, and with the entry's current status on timeout. Completes with
+     * null if the entry doesn't exist.
+     * The status read is blocking; the wait itself holds no thread.
+     */
+    public Uni<WaitlistStatus> awaitStatus(UUID waitlistId, Duration timeout) {
+        // One future per poll, so one poll ending doesn't take the others' notification with it
+        CompletableFuture<WaitlistStatus> promoted = new CompletableFuture<>();
+        waiters.compute(waitlistId, (key, polls) -> {
+            Set<CompletableFuture<WaitlistStatus>> registered = polls != null ? polls : ConcurrentHashMap.newKeySet();
+            registered.add(promoted);
+            return registered;
+        });
+        // Read after registering, so a promotion committed in between is not missed
+        WaitlistStatus current = getStatus(waitlistId);
+        if (current == null || !"waiting".equals(current.status)) {
+            removeWaiter(waitlistId, promoted);
+            return Uni.createFrom().item(current);
+        }
+        return Uni.createFrom().completionStage(promoted)
+                .ifNoItem().after(timeout).recoverWithItem(current)
+                .onTermination().invoke(() -> removeWaiter(waitlistId, promoted));
+    }
+
+    private void removeWaiter(UUID waitlistId, CompletableFuture<WaitlistStatus> promoted) {
+        waiters.computeIfPresent(waitlistId, (key, polls) -> {
+            polls.remove(promoted);
+            return polls.isEmpty() ? null : polls;
+        });
+    }
+
+    void onPromoted(@Observes(during = TransactionPhase.AFTER_SUCCESS) WaitlistPromoted promotion) {
+        Set<CompletableFuture<WaitlistStatus>> polls = waiters.remove(promotion.status().waitlistId);
+        if (polls != null) {
+            polls.forEach(poll -> poll.complete(promotion.status()));
+        }
+    }
+}
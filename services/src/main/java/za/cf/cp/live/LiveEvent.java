@@ -0,0 +1,82 @@
+package za.cf.cp.live;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A change pushed to live subscribers of a topic (a club's court slots, a month of runs, or a
+ * tournament's scoreboard).
+ *
+ * Booking events only say what changed and clients re-fetch the affected data; tournament events
+ * carry the changed values. Events of a topic with the same key that arrive in a burst are
+ * coalesced into the last one.
+ */
+public record LiveEvent(
+        @JsonIgnore String topic,
+        @JsonProperty("type") String type,
+        @JsonProperty("key") String key,
+        @JsonProperty("data") Map<String, Object> data) {
+
+    public static final String SUBSCRIBED = "subscribed";
+    public static final String HEARTBEAT = "heartbeat";
+
+    /** Topic of the court slots on a club's schedules */
+    public static String clubTopic(UUID clubId) {
+        return "club:" + clubId;
+    }
+
+    /** Topic of the run bookings in a month */
+    public static String runMonthTopic(YearMonth month) {
+        return "run-month:" + month;
+    }
+
+    /** Topic of a tournament's matches and standings */
+    public static String tournamentTopic(UUID tournamentId) {
+        return "tournament:" + tournamentId;
+    }
+
+    /** First event of every stream, so clients know the subscription is live */
+    public static LiveEvent subscribed(String topic) {
+        return new LiveEvent(topic, SUBSCRIBED, null, Map.of());
+    }
+
+    /** Keeps idle connections open through proxies */
+    public static LiveEvent heartbeat() {
+        return new LiveEvent(null, HEARTBEAT, null, Map.of());
+    }
+
+    /**
+     * A booking on a court slot of a club changed (type e.g. "court-booking.created").
+     */
+    public static LiveEvent courtSlot(UUID clubId, String type, UUID venueId, LocalDate date, LocalTime timeSlot,
+                                      Integer courtNumber) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("venueId", venueId);
+        data.put("date", date);
+        data.put("timeSlot", timeSlot);
+        data.put("courtNumber", courtNumber);
+        return new LiveEvent(clubTopic(clubId), type, venueId + "|" + date + "|" + timeSlot, data);
+    }
+
+    /**
+     * A match or standing of a tournament changed. Unlike the booking events these carry the new
+     * values, so viewers can apply them without re-fetching.
+     */
+    public static LiveEvent tournament(UUID tournamentId, String type, String key, Map<String, Object> data) {
+        return new LiveEvent(tournamentTopic(tournamentId), type, key, data);
+    }
+
+    /**
+     * A run booking on a day changed (type e.g. "run-booking.created").
+     */
+    public static LiveEvent runDay(String type, LocalDate date) {
+        return new LiveEvent(runMonthTopic(YearMonth.from(date)), type, date.toString(), Map.of("date", date));
+    }
+}
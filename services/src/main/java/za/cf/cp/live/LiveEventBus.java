@@ -0,0 +1,150 @@
+package za.cf.cp.live;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process bus behind the live (Server-Sent Events) streams.
+ *
+ * Services fire {@link LiveEvent}s as CDI events; they are published here once the transaction
+ * that caused them has committed, so subscribers never see a change that was rolled back.
+ *
+ * Each topic has one upstream pipeline shared by all its subscribers: events are collected over
+ * a short window and only the last event per key is passed on, so a burst of bookings for one
+ * slot reaches clients as a single change. Subscribers consume at their own pace from a bounded
+ * buffer; a subscriber that falls too far behind has its stream failed, and the client reconnects
+ * and re-fetches. Nothing here blocks, so streams are served on the event loop.
+ */
+@ApplicationScoped
+public class LiveEventBus {
+
+    @ConfigProperty(name = "live.coalesce-window", defaultValue = "PT0.25S")
+    Duration coalesceWindow;
+
+    @ConfigProperty(name = "live.heartbeat-interval", defaultValue = "PT25S")
+    Duration heartbeatInterval;
+
+    @ConfigProperty(name = "live.subscriber-buffer", defaultValue = "64")
+    int subscriberBuffer;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    private Multi<LiveEvent> heartbeats;
+
+    @PostConstruct
+    void init() {
+        // One timer for all connections
+        heartbeats = Multi.createFrom().ticks().every(heartbeatInterval)
+                .map(tick -> LiveEvent.heartbeat())
+                .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers();
+    }
+
+    void onEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) LiveEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Publish an event to the current subscribers of its topic. Dropped if there are none.
+     */
+    public void publish(LiveEvent event) {
+        Topic topic = topics.get(event.topic());
+        if (topic != null) {
+            topic.publish(event);
+        }
+    }
+
+    /**
+     * Subscribe to a topic. The stream starts with a {@link LiveEvent#SUBSCRIBED} event and carries
+     * periodic {@link LiveEvent#HEARTBEAT}s.
+     */
+    public Multi<LiveEvent> subscribe(String topicName) {
+        return Multi.createFrom().deferred(() -> {
+            Topic topic = topics.compute(topicName, (name, existing) -> {
+                Topic joined = existing != null ? existing : new Topic(coalesceWindow);
+                joined.subscribers++;
+                return joined;
+            });
+            Multi<LiveEvent> events = Multi.createBy().merging().streams(topic.coalesced, heartbeats);
+            return Multi.createBy().concatenating().streams(Multi.createFrom().item(LiveEvent.subscribed(topicName)), events)
+                    .onOverflow().buffer(subscriberBuffer)
+                    .onTermination().invoke(() -> leave(topicName, topic));
+        });
+    }
+
+    /**
+     * Number of subscribers of a topic (for monitoring and tests).
+     */
+    public int subscriberCount(String topicName) {
+        Topic topic = topics.get(topicName);
+        return topic == null ? 0 : topic.subscribers;
+    }
+
+    private void leave(String topicName, Topic topic) {
+        topics.computeIfPresent(topicName, (name, existing) -> {
+            if (existing != topic) {
+                return existing;
+            }
+            if (--existing.subscribers > 0) {
+                return existing;
+            }
+            existing.close();
+            return null;
+        });
+    }
+
+    /**
+     * One topic: the raw events and the coalesced stream every subscriber shares.
+     * The subscriber count is only changed inside the map's compute functions.
+     */
+    private static final class Topic {
+        private final BroadcastProcessor<LiveEvent> source = BroadcastProcessor.create();
+        private final Multi<LiveEvent> coalesced;
+        private volatile int subscribers;
+
+        Topic(Duration window) {
+            coalesced = source
+                    .group().intoLists().every(window)
+                    .filter(burst -> !burst.isEmpty())
+                    .onItem().transformToMultiAndConcatenate(burst -> Multi.createFrom().iterable(lastPerKey(burst)))
+                    .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers();
+        }
+
+        // Reactive Streams signals must not overlap; publishers can be on any thread
+        synchronized void publish(LiveEvent event) {
+            source.onNext(event);
+        }
+
+        synchronized void close() {
+            source.onComplete();
+        }
+
+        private static List<LiveEvent> lastPerKey(List<LiveEvent> burst) {
+            Map<String, LiveEvent> latest = new LinkedHashMap<>();
+            List<LiveEvent> unkeyed = new ArrayList<>();
+            for (LiveEvent event : burst) {
+                if (event.key() == null) {
+                    unkeyed.add(event);
+                } else {
+                    // Re-insert so the event keeps the position of its latest occurrence
+                    latest.remove(event.key());
+                    latest.put(event.key(), event);
+                }
+            }
+            List<LiveEvent> coalesced = new ArrayList<>(unkeyed);
+            coalesced.addAll(latest.values());
+            return coalesced;
+        }
+    }
+}
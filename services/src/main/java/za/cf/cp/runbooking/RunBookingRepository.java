@@ -3,7 +3,9 @@ package za.cf.cp.runbooking;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -86,12 +88,25 @@ public class RunBookingRepository implements PanacheRepository<RunBooking> {
     }
     
     /**
-     * Count bookings for a specific date
-     * @param bookingDate Date to count bookings for
-     * @return Number of bookings for that date
+     * Count bookings per day of a month, as one aggregate query
+     * @param year Year
+     * @param month Month (1-12)
+     * @return Number of bookings per date (dates without bookings are absent)
      */
-    public long countByBookingDate(LocalDate bookingDate) {
-        return count("bookingDate", bookingDate);
+    public Map<LocalDate, Long> countByMonth(int year, int month) {
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
+        List<Object[]> rows = getEntityManager().createQuery(
+                "select bookingDate, count(*) from RunBooking where bookingDate between ?1 and ?2 group by bookingDate",
+                Object[].class)
+            .setParameter(1, startDate)
+            .setParameter(2, endDate)
+            .getResultList();
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((LocalDate) row[0], (Long) row[1]);
+        }
+        return counts;
     }
     
     /**
@@ -1,14 +1,25 @@
 package za.cf.cp.runbooking;
 
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import za.cf.cp.auth.AuthenticatedUser;
+import za.cf.cp.live.LiveEvent;
+import za.cf.cp.live.LiveEventBus;
 import za.cf.cp.runbooking.dto.RunBookingDto;
 import za.cf.cp.runbooking.dto.RunSlotDto;
 import za.cf.cp.runbooking.service.RunBookingService;
+import za.cf.cp.user.service.UserService;
 
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,18 +39,34 @@ public class RunBookingResource {
     @Inject
     RunBookingService runBookingService;
     
+    @Inject
+    AuthenticatedUser authenticatedUser;
+    
+    @Inject
+    LiveEventBus liveEvents;
+    
+    @Inject
+    UserService userService;
+    
+    @Context
+    Request request;
+    
     /**
      * Get all run bookings for a specific month
-     * GET /api/run-bookings/month/{year}/{month}?userId={userId}
+     * GET /api/run-bookings/month/{year}/{month}?userId={userId}&includeBookings={true|false}
+     * Supports If-None-Match with a weak ETag (304 when the month hasn't changed).
+     * With includeBookings=false only the spots per day are returned, read from the capacity counters.
      */
     @GET
     @Path("/month/{year}/{month}")
     public Response getBookingsForMonth(
             @PathParam("year") int year,
             @PathParam("month") int month,
-            @QueryParam("userId") String userId) {
+            @QueryParam("userId") String userId,
+            @QueryParam("includeBookings") @DefaultValue("true") boolean includeBookings) {
         
         try {
+            userId = authenticatedUser.resolveUid(userId);
             LOG.info("Getting bookings for month: " + year + "/" + month + " for user: " + userId);
             
             if (userId == null || userId.trim().isEmpty()) {
@@ -62,9 +89,25 @@ public class RunBookingResource {
                     .build();
             }
             
-            List<RunSlotDto> slots = runBookingService.getBookingsForMonth(year, month, userId);
+            if (!includeBookings) {
+                return Response.ok(runBookingService.getSpotsForMonth(year, month, userId)).build();
+            }
+            
+            // Revalidate against the cached month view before building the user's response
+            var snapshot = runBookingService.getMonthSnapshot(year, month);
+            EntityTag tag = new EntityTag(runBookingService.monthETag(snapshot, userId), true);
+            CacheControl cacheControl = new CacheControl();
+            cacheControl.setPrivate(true);
+            cacheControl.setNoCache(true);
+            
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified.cacheControl(cacheControl).build();
+            }
             
-            return Response.ok(slots).build();
+            List<RunSlotDto> slots = runBookingService.toSlots(snapshot, userId);
+            
+            return Response.ok(slots).tag(tag).cacheControl(cacheControl).build();
             
         } catch (Exception e) {
             LOG.error("Error getting bookings for month: " + year + "/" + month, e);
@@ -74,6 +117,23 @@ public class RunBookingResource {
         }
     }
     
+    /**
+     * Live changes to the run bookings of a month, as Server-Sent Events
+     * GET /api/run-bookings/month/{year}/{month}/events
+     */
+    @GET
+    @Path("/month/{year}/{month}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<LiveEvent> streamMonthEvents(
+            @PathParam("year") int year,
+            @PathParam("month") int month) {
+        if (month < 1 || month > 12) {
+            return Multi.createFrom().failure(new BadRequestException("Month must be between 1 and 12"));
+        }
+        return liveEvents.subscribe(LiveEvent.runMonthTopic(YearMonth.of(year, month)));
+    }
+    
     /**
      * Create a new run booking
      * POST /api/run-bookings
@@ -81,6 +141,7 @@ public class RunBookingResource {
     @POST
     public Response createBooking(RunBookingDto bookingDto) {
         try {
+            bookingDto.setUserId(authenticatedUser.resolveUid(bookingDto.getUserId()));
             LOG.info("Creating booking for user: " + bookingDto.getUserId() + " on date: " + bookingDto.getBookingDate());
             
             var booking = runBookingService.createBooking(bookingDto);
@@ -118,6 +179,7 @@ public class RunBookingResource {
             @QueryParam("userId") String userId) {
         
         try {
+            userId = authenticatedUser.resolveUid(userId);
             LOG.info("Cancelling booking: " + bookingIdStr + " for user: " + userId);
             
             if (userId == null || userId.trim().isEmpty()) {
@@ -162,6 +224,90 @@ public class RunBookingResource {
         }
     }
     
+    /**
+     * Override the capacity of a run day (a null capacity restores the default); admins only
+     * PUT /api/run-bookings/capacity/{date}
+     */
+    @PUT
+    @Path("/capacity/{date}")
+    public Response setCapacity(
+            @PathParam("date") String date,
+            Map<String, Integer> body) {
+        
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                .entity(createErrorResponse("Admin role required"))
+                .build();
+        }
+        
+        try {
+            Integer capacity = body != null ? body.get("capacity") : null;
+            LOG.info("Setting run capacity for " + date + " to " + (capacity != null ? capacity : "default"));
+            
+            var count = runBookingService.setCapacity(date, capacity);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("date", date);
+            response.put("capacity", count.capacity());
+            response.put("booked", count.booked());
+            response.put("spots_remaining", count.remaining());
+            
+            return Response.ok(response).build();
+            
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid capacity request: " + e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity(createErrorResponse(e.getMessage()))
+                .build();
+        } catch (Exception e) {
+            LOG.error("Error setting run capacity for: " + date, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(createErrorResponse("Failed to set capacity: " + e.getMessage()))
+                .build();
+        }
+    }
+    
+    /**
+     * Recount the bookings of a month into the capacity counters; admins only
+     * POST /api/run-bookings/capacity/{year}/{month}/rebuild
+     */
+    @POST
+    @Path("/capacity/{year}/{month}/rebuild")
+    public Response rebuildCapacity(
+            @PathParam("year") int year,
+            @PathParam("month") int month) {
+        
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                .entity(createErrorResponse("Admin role required"))
+                .build();
+        }
+        
+        try {
+            if (month < 1 || month > 12) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(createErrorResponse("Month must be between 1 and 12"))
+                    .build();
+            }
+            
+            int days = runBookingService.rebuildCapacity(year, month);
+            LOG.info("Rebuilt run capacity counters for " + year + "/" + month + ": " + days + " days with bookings");
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("days", days);
+            
+            return Response.ok(response).build();
+            
+        } catch (Exception e) {
+            LOG.error("Error rebuilding run capacity for: " + year + "/" + month, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(createErrorResponse("Failed to rebuild capacity: " + e.getMessage()))
+                .build();
+        }
+    }
+    
     /**
      * Get user's bookings within a date range
      * GET /api/run-bookings/user/{userId}?startDate={start}&endDate={end}
@@ -24,6 +24,12 @@ public class RunSlotDto {
     @JsonProperty("user_booking_id")
     private String userBookingId;
     
+    @JsonProperty("capacity")
+    private int capacity;
+    
+    @JsonProperty("spots_remaining")
+    private int spotsRemaining;
+    
     // Default constructor
     public RunSlotDto() {}
     
@@ -37,6 +43,14 @@ public class RunSlotDto {
         this.userBookingId = userBookingId;
     }
     
+    // Constructor with capacity
+    public RunSlotDto(String date, String time, List<RunBookingDto> bookings,
+                     boolean isBookedByUser, String userBookingId, int capacity, int spotsRemaining) {
+        this(date, time, bookings, isBookedByUser, userBookingId);
+        this.capacity = capacity;
+        this.spotsRemaining = spotsRemaining;
+    }
+    
     // Getters and setters
     public String getDate() {
         return date;
@@ -78,6 +92,22 @@ public class RunSlotDto {
         this.userBookingId = userBookingId;
     }
     
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+    
+    public int getSpotsRemaining() {
+        return spotsRemaining;
+    }
+    
+    public void setSpotsRemaining(int spotsRemaining) {
+        this.spotsRemaining = spotsRemaining;
+    }
+    
     @Override
     public String toString() {
         return "RunSlotDto{" +
@@ -86,6 +116,8 @@ public class RunSlotDto {
                 ", bookings=" + (bookings != null ? bookings.size() : 0) + " bookings" +
                 ", isBookedByUser=" + isBookedByUser +
                 ", userBookingId='" + userBookingId + '\'' +
+                ", capacity=" + capacity +
+                ", spotsRemaining=" + spotsRemaining +
                 '}';
     }
 }
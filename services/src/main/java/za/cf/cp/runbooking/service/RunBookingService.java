@@ -1,15 +1,18 @@
 package za.cf.cp.runbooking.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import za.cf.cp.runbooking.RunBooking;
 import za.cf.cp.runbooking.RunBookingRepository;
 import za.cf.cp.runbooking.dto.RunBookingDto;
 import za.cf.cp.runbooking.dto.RunSlotDto;
+import za.cf.cp.live.LiveEvent;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,14 +27,27 @@ public class RunBookingService {
     @Inject
     RunBookingRepository runBookingRepository;
     
-    private static final LocalTime RUN_TIME = LocalTime.of(5, 0); // Always 5:00 AM
+    @Inject
+    Event<LiveEvent> liveEvents;
+    
+    @Inject
+    Event<RunMonthSnapshotCache.RunBookingChanged> bookingChanges;
+    
+    @Inject
+    RunMonthSnapshotCache monthSnapshots;
+    
+    @Inject
+    RunDayCapacityService capacityService;
+    
+    static final LocalTime RUN_TIME = LocalTime.of(5, 0); // Always 5:00 AM
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     
     /**
      * Create a new run booking
      * @param bookingDto Booking data
      * @return Created booking
-     * @throws IllegalArgumentException if booking already exists or date is invalid
+     * @throws IllegalArgumentException if booking already exists, the run is full or date is invalid
      */
     @Transactional
     public RunBooking createBooking(RunBookingDto bookingDto) {
@@ -64,6 +80,11 @@ public class RunBookingService {
             throw new IllegalArgumentException("User already has a booking for this date");
         }
         
+        // Take a spot; the day's counter row stays locked until commit, so the run can't be overbooked
+        if (!capacityService.admit(bookingDate)) {
+            throw new IllegalArgumentException("This run is fully booked");
+        }
+        
         // Create new booking
         RunBooking booking = new RunBooking(
             bookingDto.getUserId(),
@@ -74,6 +95,10 @@ public class RunBookingService {
         // Save to database
         runBookingRepository.persist(booking);
         
+        // Refresh the month view and tell live subscribers (both after commit)
+        bookingChanges.fire(new RunMonthSnapshotCache.RunBookingChanged(bookingDate));
+        liveEvents.fire(LiveEvent.runDay("run-booking.created", bookingDate));
+        
         return booking;
     }
     
@@ -100,7 +125,13 @@ public class RunBookingService {
         }
         
         // Delete the booking
-        return runBookingRepository.deleteByBookingId(bookingId);
+        boolean deleted = runBookingRepository.deleteByBookingId(bookingId);
+        if (deleted) {
+            capacityService.release(booking.getBookingDate());
+            bookingChanges.fire(new RunMonthSnapshotCache.RunBookingChanged(booking.getBookingDate()));
+            liveEvents.fire(LiveEvent.runDay("run-booking.cancelled", booking.getBookingDate()));
+        }
+        return deleted;
     }
     
     /**
@@ -111,45 +142,117 @@ public class RunBookingService {
      * @return List of run slots for the month
      */
     public List<RunSlotDto> getBookingsForMonth(int year, int month, String userId) {
-        // Get all bookings for the month
-        List<RunBooking> bookings = runBookingRepository.findByMonth(year, month);
-        
-        // Group bookings by date
-        Map<LocalDate, List<RunBooking>> bookingsByDate = bookings.stream()
-            .collect(Collectors.groupingBy(RunBooking::getBookingDate));
-        
-        // Generate all weekdays for the month
-        List<LocalDate> weekdays = generateWeekdaysForMonth(year, month);
-        
-        // Create RunSlotDto for each weekday
-        return weekdays.stream()
-            .map(date -> {
-                List<RunBooking> dateBookings = bookingsByDate.getOrDefault(date, new ArrayList<>());
-                
-                // Check if current user has a booking for this date
-                boolean isBookedByUser = dateBookings.stream()
-                    .anyMatch(booking -> booking.getFirebaseUid().equals(userId));
-                
-                // Get user's booking ID if they have one
-                Optional<String> userBookingId = dateBookings.stream()
-                    .filter(booking -> booking.getFirebaseUid().equals(userId))
-                    .map(booking -> booking.getBookingId().toString())
-                    .findFirst();
-                
-                // Convert bookings to DTOs
-                List<RunBookingDto> bookingDtos = dateBookings.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-                
-                return new RunSlotDto(
-                    date.format(DATE_FORMATTER),
-                    RUN_TIME.format(DateTimeFormatter.ofPattern("HH:mm")),
-                    bookingDtos,
-                    isBookedByUser,
-                    userBookingId.orElse(null)
-                );
-            })
-            .collect(Collectors.toList());
+        return toSlots(getMonthSnapshot(year, month), userId);
+    }
+    
+    /**
+     * Get the capacity of every weekday of a month, without loading the bookings
+     * @param year Year
+     * @param month Month (1-12)
+     * @param userId Current user ID (to check if they have bookings)
+     * @return List of run slots for the month, with empty booking lists
+     */
+    public List<RunSlotDto> getSpotsForMonth(int year, int month, String userId) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        Map<LocalDate, RunDayCapacityService.DayCount> counts = capacityService.getMonth(yearMonth);
+        Map<LocalDate, UUID> userBookings = new HashMap<>();
+        for (RunBooking booking : runBookingRepository.findByFirebaseUidAndBookingDateBetween(
+                userId, yearMonth.atDay(1), yearMonth.atEndOfMonth())) {
+            userBookings.put(booking.getBookingDate(), booking.getBookingId());
+        }
+        
+        String time = RUN_TIME.format(TIME_FORMATTER);
+        List<RunSlotDto> slots = new ArrayList<>();
+        for (LocalDate date = yearMonth.atDay(1); !date.isAfter(yearMonth.atEndOfMonth()); date = date.plusDays(1)) {
+            if (isWeekday(date)) {
+                RunDayCapacityService.DayCount count = counts.get(date);
+                UUID userBookingId = userBookings.get(date);
+                slots.add(new RunSlotDto(date.format(DATE_FORMATTER), time, List.of(), userBookingId != null,
+                        userBookingId != null ? userBookingId.toString() : null, count.capacity(), count.remaining()));
+            }
+        }
+        return slots;
+    }
+    
+    /**
+     * Override the capacity of a run day
+     * @param date Run date (yyyy-MM-dd)
+     * @param capacity New capacity, or null to go back to the default
+     * @return The day's capacity and bookings
+     * @throws IllegalArgumentException if the date or capacity is invalid
+     */
+    @Transactional
+    public RunDayCapacityService.DayCount setCapacity(String date, Integer capacity) {
+        LocalDate bookingDate;
+        try {
+            bookingDate = LocalDate.parse(date, DATE_FORMATTER);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid date format. Expected yyyy-MM-dd");
+        }
+        if (!isWeekday(bookingDate)) {
+            throw new IllegalArgumentException("Runs are only held on weekdays");
+        }
+        
+        RunDayCapacityService.DayCount count = capacityService.setCapacity(bookingDate, capacity);
+        bookingChanges.fire(new RunMonthSnapshotCache.RunBookingChanged(bookingDate));
+        liveEvents.fire(LiveEvent.runDay("run-day.capacity-changed", bookingDate));
+        return count;
+    }
+    
+    /**
+     * Recount the bookings of a month into the capacity counters
+     * @param year Year
+     * @param month Month (1-12)
+     * @return Number of days with bookings
+     */
+    @Transactional
+    public int rebuildCapacity(int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        int days = capacityService.rebuild(yearMonth);
+        bookingChanges.fire(new RunMonthSnapshotCache.RunBookingChanged(yearMonth.atDay(1)));
+        return days;
+    }
+    
+    /**
+     * Get the shared view of a month (cached)
+     * @param year Year
+     * @param month Month (1-12)
+     * @return All weekdays of the month with their bookings
+     */
+    public RunMonthSnapshotCache.MonthSnapshot getMonthSnapshot(int year, int month) {
+        return monthSnapshots.get(YearMonth.of(year, month));
+    }
+    
+    /**
+     * Overlay a user's own bookings on the shared month view, in a single pass over the bookings
+     * @param snapshot Month view
+     * @param userId Current user ID
+     * @return List of run slots for the month
+     */
+    public List<RunSlotDto> toSlots(RunMonthSnapshotCache.MonthSnapshot snapshot, String userId) {
+        List<RunSlotDto> slots = new ArrayList<>(snapshot.days().size());
+        for (RunMonthSnapshotCache.Day day : snapshot.days()) {
+            String userBookingId = null;
+            for (RunBookingDto booking : day.bookings()) {
+                if (booking.getUserId().equals(userId)) {
+                    userBookingId = booking.getBookingId();
+                    break;
+                }
+            }
+            slots.add(new RunSlotDto(day.date(), day.time(), day.bookings(), userBookingId != null, userBookingId,
+                    day.count().capacity(), day.count().remaining()));
+        }
+        return slots;
+    }
+    
+    /**
+     * Weak validator for a user's view of a month: changes whenever the month's bookings change
+     * @param snapshot Month view
+     * @param userId Current user ID
+     * @return ETag value (without quotes)
+     */
+    public String monthETag(RunMonthSnapshotCache.MonthSnapshot snapshot, String userId) {
+        return snapshot.contentHash() + "-" + RunMonthSnapshotCache.hash(String.valueOf(userId)).substring(0, 8);
     }
     
     /**
@@ -175,43 +278,17 @@ public class RunBookingService {
      * @param date Date to check
      * @return true if it's a weekday (Monday-Friday)
      */
-    private boolean isWeekday(LocalDate date) {
+    static boolean isWeekday(LocalDate date) {
         int dayOfWeek = date.getDayOfWeek().getValue();
         return dayOfWeek >= 1 && dayOfWeek <= 5; // Monday = 1, Friday = 5
     }
     
-    /**
-     * Generate all weekdays for a given month
-     * @param year Year
-     * @param month Month (1-12)
-     * @return List of weekdays in the month
-     */
-    private List<LocalDate> generateWeekdaysForMonth(int year, int month) {
-        List<LocalDate> weekdays = new ArrayList<>();
-        LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
-        
-        for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
-            if (isWeekday(date)) {
-                weekdays.add(date);
-            }
-        }
-        
-        return weekdays;
-    }
-    
     /**
      * Convert RunBooking entity to DTO
      * @param booking Entity to convert
      * @return DTO representation
      */
     private RunBookingDto convertToDto(RunBooking booking) {
-        return new RunBookingDto(
-            booking.getBookingId().toString(),
-            booking.getFirebaseUid(),
-            booking.getUserName(),
-            booking.getBookingDate().format(DATE_FORMATTER),
-            booking.getBookingTime().format(DateTimeFormatter.ofPattern("HH:mm"))
-        );
+        return RunMonthSnapshotCache.toDto(booking);
     }
 }
@@ -0,0 +1,158 @@
+package za.cf.cp.runbooking.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import za.cf.cp.runbooking.RunBookingRepository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-day capacity counters of the 5AM run ({@code core.run_day_capacity}).
+ *
+ * The booked count is changed in the same transaction as the booking it accounts for, so it
+ * always matches {@code core.run_booking}. A day without a counter row has no bookings and the
+ * default capacity; a day's capacity can be overridden with {@link #setCapacity}.
+ */
+@ApplicationScoped
+public class RunDayCapacityService {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    RunBookingRepository runBookingRepository;
+
+    @ConfigProperty(name = "run-booking.default-capacity", defaultValue = "30")
+    int defaultCapacity;
+
+    /**
+     * Capacity and bookings of one run day.
+     */
+    public record DayCount(LocalDate date, int capacity, int booked) {
+        public int remaining() {
+            return Math.max(capacity - booked, 0);
+        }
+    }
+
+    /**
+     * Take a spot on a run day: one conditional UPDATE that only succeeds while the day is below
+     * its capacity. The row stays locked until the transaction ends, which serializes competing
+     * bookings for the same day.
+     * @return false if the day is full
+     */
+    public boolean admit(LocalDate bookingDate) {
+        ensureRow(bookingDate);
+        int updated = entityManager.createNativeQuery("""
+                UPDATE core.run_day_capacity
+                SET booked = booked + 1
+                WHERE booking_date = ?1 AND booked < COALESCE(capacity, ?2)
+                """)
+                .setParameter(1, bookingDate)
+                .setParameter(2, defaultCapacity)
+                .executeUpdate();
+        return updated > 0;
+    }
+
+    /**
+     * Give back the spot of a booking that is being cancelled.
+     */
+    public void release(LocalDate bookingDate) {
+        entityManager.createNativeQuery("""
+                UPDATE core.run_day_capacity
+                SET booked = GREATEST(booked - 1, 0)
+                WHERE booking_date = ?1
+                """)
+                .setParameter(1, bookingDate)
+                .executeUpdate();
+    }
+
+    /**
+     * Override the capacity of a run day, or go back to the default when {@code capacity} is null.
+     * Lowering it below the current bookings keeps them but admits nobody new.
+     */
+    public DayCount setCapacity(LocalDate bookingDate, Integer capacity) {
+        if (capacity != null && capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        ensureRow(bookingDate);
+        entityManager.createNativeQuery("UPDATE core.run_day_capacity SET capacity = ?2 WHERE booking_date = ?1")
+                .setParameter(1, bookingDate)
+                .setParameter(2, capacity)
+                .executeUpdate();
+        return getMonth(YearMonth.from(bookingDate)).get(bookingDate);
+    }
+
+    /**
+     * Get the capacity and bookings of every day of a month, as one range scan over the counters.
+     */
+    public Map<LocalDate, DayCount> getMonth(YearMonth month) {
+        List<?> rows = entityManager.createNativeQuery("""
+                SELECT booking_date, COALESCE(capacity, ?3), booked
+                FROM core.run_day_capacity
+                WHERE booking_date BETWEEN ?1 AND ?2
+                """)
+                .setParameter(1, month.atDay(1))
+                .setParameter(2, month.atEndOfMonth())
+                .setParameter(3, defaultCapacity)
+                .getResultList();
+        Map<LocalDate, DayCount> days = new HashMap<>();
+        for (LocalDate date = month.atDay(1); !date.isAfter(month.atEndOfMonth()); date = date.plusDays(1)) {
+            days.put(date, new DayCount(date, defaultCapacity, 0));
+        }
+        for (Object result : rows) {
+            Object[] row = (Object[]) result;
+            LocalDate date = toLocalDate(row[0]);
+            days.put(date, new DayCount(date, ((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+        }
+        return days;
+    }
+
+    /**
+     * Reset the booked counts of a month to the bookings on record (for bookings changed outside
+     * the booking service, e.g. cascading user deletes). Capacity overrides are kept.
+     * The table is locked against concurrent bookings for the duration.
+     * @return the number of days with bookings
+     */
+    public int rebuild(YearMonth month) {
+        entityManager.createNativeQuery("LOCK TABLE core.run_day_capacity IN SHARE ROW EXCLUSIVE MODE")
+                .executeUpdate();
+        entityManager.createNativeQuery("UPDATE core.run_day_capacity SET booked = 0 WHERE booking_date BETWEEN ?1 AND ?2")
+                .setParameter(1, month.atDay(1))
+                .setParameter(2, month.atEndOfMonth())
+                .executeUpdate();
+        Map<LocalDate, Long> counts = runBookingRepository.countByMonth(month.getYear(), month.getMonthValue());
+        for (Map.Entry<LocalDate, Long> count : counts.entrySet()) {
+            entityManager.createNativeQuery("""
+                    INSERT INTO core.run_day_capacity (booking_date, booked)
+                    VALUES (?1, ?2)
+                    ON CONFLICT (booking_date) DO UPDATE SET booked = EXCLUDED.booked
+                    """)
+                    .setParameter(1, count.getKey())
+                    .setParameter(2, count.getValue().intValue())
+                    .executeUpdate();
+        }
+        return counts.size();
+    }
+
+    private void ensureRow(LocalDate bookingDate) {
+        entityManager.createNativeQuery("""
+                INSERT INTO core.run_day_capacity (booking_date)
+                VALUES (?1)
+                ON CONFLICT (booking_date) DO NOTHING
+                """)
+                .setParameter(1, bookingDate)
+                .executeUpdate();
+    }
+
+    // Native queries may hand back java.sql types depending on the driver settings
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
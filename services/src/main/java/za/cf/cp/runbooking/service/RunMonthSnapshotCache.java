@@ -0,0 +1,152 @@
+package za.cf.cp.runbooking.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import za.cf.cp.runbooking.RunBooking;
+import za.cf.cp.runbooking.RunBookingRepository;
+import za.cf.cp.runbooking.dto.RunBookingDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared, user-independent view of a month of 5AM runs: every weekday with its bookings and capacity.
+ *
+ * Every runner asks for the same month, so the view is built once per month and kept in memory.
+ * It is dropped as soon as a booking of the month commits on this instance; other instances
+ * pick the change up when their copy expires (run-month-cache.expire-after-write).
+ * A load that overlaps a commit can't leave a stale view behind: the invalidation waits for the
+ * in-flight load and then removes its result.
+ */
+@ApplicationScoped
+public class RunMonthSnapshotCache {
+
+    static final String CACHE_NAME = "run-month";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Inject
+    RunBookingRepository runBookingRepository;
+
+    @Inject
+    RunDayCapacityService capacityService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "run-month-cache.maximum-size", defaultValue = "24")
+    long maximumSize;
+
+    @ConfigProperty(name = "run-month-cache.expire-after-write", defaultValue = "PT30S")
+    Duration expireAfterWrite;
+
+    private LoadingCache<YearMonth, MonthSnapshot> monthCache;
+
+    /**
+     * Fired by {@link RunBookingService} when a booking on the given date is created or cancelled,
+     * or the day's capacity changes.
+     */
+    public record RunBookingChanged(LocalDate date) {
+    }
+
+    /**
+     * One weekday of the month. The bookings list is shared between responses and must not be modified.
+     */
+    public record Day(String date, String time, List<RunBookingDto> bookings, RunDayCapacityService.DayCount count) {
+    }
+
+    /**
+     * All weekdays of a month, with a hash of the bookings for use in ETags.
+     */
+    public record MonthSnapshot(YearMonth month, List<Day> days, String contentHash) {
+    }
+
+    @PostConstruct
+    void init() {
+        monthCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(month -> QuarkusTransaction.requiringNew().call(() -> load(month)));
+        CaffeineCacheMetrics.monitor(meterRegistry, monthCache, CACHE_NAME);
+    }
+
+    /**
+     * Get the view of a month, building it on a miss (concurrent misses share one load).
+     */
+    public MonthSnapshot get(YearMonth month) {
+        return monthCache.get(month);
+    }
+
+    void onRunBookingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) RunBookingChanged change) {
+        monthCache.invalidate(YearMonth.from(change.date()));
+    }
+
+    private MonthSnapshot load(YearMonth month) {
+        List<RunBooking> bookings = runBookingRepository.findByMonth(month.getYear(), month.getMonthValue());
+        Map<LocalDate, RunDayCapacityService.DayCount> counts = capacityService.getMonth(month);
+
+        Map<LocalDate, List<RunBookingDto>> bookingsByDate = new HashMap<>();
+        List<String> hashed = new ArrayList<>(bookings.size());
+        for (RunBooking booking : bookings) {
+            RunBookingDto dto = toDto(booking);
+            bookingsByDate.computeIfAbsent(booking.getBookingDate(), date -> new ArrayList<>()).add(dto);
+            hashed.add(dto.getBookingId() + '|' + dto.getUserId() + '|' + dto.getUserName() + '|'
+                    + dto.getBookingDate() + '|' + dto.getBookingTime());
+        }
+
+        List<Day> days = new ArrayList<>();
+        for (LocalDate date = month.atDay(1); !date.isAfter(month.atEndOfMonth()); date = date.plusDays(1)) {
+            if (RunBookingService.isWeekday(date)) {
+                RunDayCapacityService.DayCount count = counts.get(date);
+                days.add(new Day(date.format(DATE_FORMATTER), RunBookingService.RUN_TIME.format(TIME_FORMATTER),
+                        List.copyOf(bookingsByDate.getOrDefault(date, List.of())), count));
+                hashed.add(date + "|capacity|" + count.capacity() + '|' + count.booked());
+            }
+        }
+
+        // Sorted so the hash depends on the bookings and capacities only, not on the order the
+        // database returned them in
+        hashed.sort(null);
+        return new MonthSnapshot(month, List.copyOf(days), hash(month + "\n" + String.join("\n", hashed)));
+    }
+
+    static RunBookingDto toDto(RunBooking booking) {
+        return new RunBookingDto(
+            booking.getBookingId().toString(),
+            booking.getFirebaseUid(),
+            booking.getUserName(),
+            booking.getBookingDate().format(DATE_FORMATTER),
+            booking.getBookingTime().format(TIME_FORMATTER)
+        );
+    }
+
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash run month", e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package za.cf.cp.tournament;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * AmericanoMatch entity representing one game of an Americano or Mexicano tournament.
+ * Partners change every round, so the four players are stored directly (by Firebase UID)
+ * instead of as tournament teams.
+ * Maps to the 'americano_match' table in the database.
+ */
+@Entity
+@Table(name = "americano_match", schema = "core")
+public class AmericanoMatch extends PanacheEntityBase {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "match_id")
+    @JsonProperty("match_id")
+    public UUID matchId;
+
+    @Column(name = "tournament_id", nullable = false)
+    @JsonProperty("tournament_id")
+    public UUID tournamentId;
+
+    @Column(name = "round", nullable = false)
+    public Integer round;
+
+    @Column(name = "court", nullable = false)
+    public Integer court;
+
+    @Column(name = "team1_player1", nullable = false)
+    @JsonProperty("team1_player1")
+    public String team1Player1;
+
+    @Column(name = "team1_player2", nullable = false)
+    @JsonProperty("team1_player2")
+    public String team1Player2;
+
+    @Column(name = "team2_player1", nullable = false)
+    @JsonProperty("team2_player1")
+    public String team2Player1;
+
+    @Column(name = "team2_player2", nullable = false)
+    @JsonProperty("team2_player2")
+    public String team2Player2;
+
+    @Column(name = "team1_points")
+    @JsonProperty("team1_points")
+    public Integer team1Points;
+
+    @Column(name = "team2_points")
+    @JsonProperty("team2_points")
+    public Integer team2Points;
+
+    @Column(name = "status", nullable = false)
+    public String status = "scheduled"; // 'scheduled', 'completed'
+
+    @Column(name = "scheduled_time")
+    @JsonProperty("scheduled_time")
+    public LocalDateTime scheduledTime;
+
+    // Default constructor required by JPA
+    public AmericanoMatch() {}
+
+    /**
+     * Games of a tournament in round and court order.
+     */
+    public static List<AmericanoMatch> findByTournament(UUID tournamentId) {
+        return list("tournamentId = ?1 order by round, court", tournamentId);
+    }
+
+    @Override
+    public String toString() {
+        return "AmericanoMatch{" +
+                "matchId=" + matchId +
+                ", tournamentId=" + tournamentId +
+                ", round=" + round +
+                ", court=" + court +
+                ", team1=[" + team1Player1 + ", " + team1Player2 + "]" +
+                ", team2=[" + team2Player1 + ", " + team2Player2 + "]" +
+                ", team1Points=" + team1Points +
+                ", team2Points=" + team2Points +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -10,6 +10,7 @@ import java.util.UUID;
  * Maps to the 'category' table in the database.
  */
 @Entity
+@Cacheable
 @Table(name = "category", schema = "core")
 public class Category extends PanacheEntityBase {
     
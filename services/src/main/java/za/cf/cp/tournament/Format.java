@@ -11,6 +11,7 @@ import java.util.UUID;
  * Maps to the 'format' table in the database.
  */
 @Entity
+@Cacheable
 @Table(name = "format", schema = "core")
 public class Format extends PanacheEntityBase {
     
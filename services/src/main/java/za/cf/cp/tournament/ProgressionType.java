@@ -10,6 +10,7 @@ import java.util.UUID;
  * Maps to the 'progression_type' table in the database.
  */
 @Entity
+@Cacheable
 @Table(name = "progression_type", schema = "core")
 public class ProgressionType extends PanacheEntityBase {
     
@@ -10,6 +10,7 @@ import java.util.UUID;
  * Maps to the 'registration_type' table in the database.
  */
 @Entity
+@Cacheable
 @Table(name = "registration_type", schema = "core")
 public class RegistrationType extends PanacheEntityBase {
     
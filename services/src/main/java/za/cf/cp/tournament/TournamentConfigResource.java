@@ -2,11 +2,17 @@ package za.cf.cp.tournament;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import za.cf.cp.tournament.dto.TournamentConfigDto;
-import za.cf.cp.tournament.dto.RoundRobinConfigDto;
-import za.cf.cp.tournament.service.TournamentConfigService;
+import za.cf.cp.auth.AuthenticatedUser;
+import za.cf.cp.tournament.service.ReferenceDataRegistry;
+import za.cf.cp.user.service.UserService;
+
+import java.util.Map;
 
 /**
  * REST resource for tournament configuration endpoints.
@@ -18,17 +24,26 @@ import za.cf.cp.tournament.service.TournamentConfigService;
 public class TournamentConfigResource {
     
     @Inject
-    TournamentConfigService tournamentConfigService;
+    ReferenceDataRegistry referenceData;
+    
+    @Inject
+    AuthenticatedUser authenticatedUser;
+    
+    @Inject
+    UserService userService;
+    
+    @Context
+    Request request;
     
     /**
      * Get complete tournament configuration.
      * Returns all configuration data in the format expected by the frontend.
+     * Responds 304 when the client's If-None-Match still matches the current data.
      */
     @GET
     public Response getTournamentConfig() {
         try {
-            TournamentConfigDto config = tournamentConfigService.getTournamentConfig();
-            return Response.ok(config).build();
+            return conditional(referenceData.getTournamentConfigETag(), referenceData.getTournamentConfig());
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Error retrieving tournament configuration: " + e.getMessage())
@@ -44,8 +59,7 @@ public class TournamentConfigResource {
     @Path("/round-robin")
     public Response getRoundRobinConfig() {
         try {
-            RoundRobinConfigDto config = tournamentConfigService.getRoundRobinConfig();
-            return Response.ok(config).build();
+            return conditional(referenceData.getRoundRobinConfigETag(), referenceData.getRoundRobinConfig());
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Error retrieving round-robin configuration: " + e.getMessage())
@@ -53,6 +67,27 @@ public class TournamentConfigResource {
         }
     }
     
+    /**
+     * Reload the reference data from the database, e.g. after a migration changed it. Admins only.
+     */
+    @POST
+    @Path("/reload")
+    public Response reload() {
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity("Admin role required")
+                    .build();
+        }
+        try {
+            referenceData.reload();
+            return Response.ok(Map.of("etag", referenceData.getTournamentConfigETag())).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error reloading tournament configuration: " + e.getMessage())
+                    .build();
+        }
+    }
+    
     /**
      * Health check endpoint for tournament configuration.
      */
@@ -61,4 +96,19 @@ public class TournamentConfigResource {
     public Response health() {
         return Response.ok("Tournament configuration service is running").build();
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Build a response that the client must revalidate, short-circuiting to 304 on a matching ETag.
+     */
+    private Response conditional(String etag, Object entity) {
+        EntityTag tag = new EntityTag(etag);
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(entity).tag(tag).cacheControl(cacheControl).build();
+    }
+}
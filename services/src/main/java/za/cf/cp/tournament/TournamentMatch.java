@@ -1,5 +1,6 @@
 package za.cf.cp.tournament;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
@@ -34,13 +35,18 @@ public class TournamentMatch extends PanacheEntityBase {
     @Column(name = "round", nullable = false)
     public Integer round;
     
+    @Column(name = "bracket_position")
+    @JsonProperty("bracket_position")
+    public Integer bracketPosition; // 0-based position within a knockout round
+    
+    // Knockout placeholders have no teams until the feeder matches are decided
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "team1_id", nullable = false)
+    @JoinColumn(name = "team1_id")
     @JsonProperty("team1_id")
     public TournamentTeam team1;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "team2_id", nullable = false)
+    @JoinColumn(name = "team2_id")
     @JsonProperty("team2_id")
     public TournamentTeam team2;
     
@@ -92,6 +98,24 @@ public class TournamentMatch extends PanacheEntityBase {
     @JsonProperty("venue_id")
     public String venueId;
     
+    @Column(name = "court")
+    public Integer court;
+    
+    // Knockout bracket: the match the winner moves on to, and as which team (1 or 2)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_match_id")
+    @JsonIgnore
+    public TournamentMatch nextMatch;
+    
+    @Column(name = "next_slot")
+    @JsonProperty("next_slot")
+    public Integer nextSlot;
+    
+    // Bumped on every update; a stale version means another referee's update came first
+    @Version
+    @Column(name = "version", nullable = false)
+    public Long version;
+    
 
     
     // Default constructor required by JPA
@@ -148,6 +172,14 @@ public class TournamentMatch extends PanacheEntityBase {
         this.round = round;
     }
     
+    public Integer getBracketPosition() {
+        return bracketPosition;
+    }
+    
+    public void setBracketPosition(Integer bracketPosition) {
+        this.bracketPosition = bracketPosition;
+    }
+    
     public TournamentTeam getTeam1() {
         return team1;
     }
@@ -260,6 +292,34 @@ public class TournamentMatch extends PanacheEntityBase {
         this.venueId = venueId;
     }
     
+    public Integer getCourt() {
+        return court;
+    }
+    
+    public void setCourt(Integer court) {
+        this.court = court;
+    }
+    
+    public TournamentMatch getNextMatch() {
+        return nextMatch;
+    }
+    
+    public void setNextMatch(TournamentMatch nextMatch) {
+        this.nextMatch = nextMatch;
+    }
+    
+    public Integer getNextSlot() {
+        return nextSlot;
+    }
+    
+    public void setNextSlot(Integer nextSlot) {
+        this.nextSlot = nextSlot;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
 
     
     @Override
@@ -270,6 +330,7 @@ public class TournamentMatch extends PanacheEntityBase {
                 ", groupId=" + (group != null ? group.getGroupId() : null) +
                 ", phase='" + phase + '\'' +
                 ", round=" + round +
+                ", bracketPosition=" + bracketPosition +
                 ", team1Id=" + (team1 != null ? team1.getTeamId() : null) +
                 ", team2Id=" + (team2 != null ? team2.getTeamId() : null) +
                 ", status='" + status + '\'' +
@@ -1,12 +1,21 @@
 package za.cf.cp.tournament;
 
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import za.cf.cp.auth.AuthenticatedUser;
+import za.cf.cp.live.LiveEvent;
+import za.cf.cp.live.LiveEventBus;
+import za.cf.cp.tournament.dto.MatchScoreUpdate;
 import za.cf.cp.tournament.dto.TournamentDto;
+import za.cf.cp.tournament.dto.TournamentFilter;
+import za.cf.cp.tournament.dto.TournamentPageDto;
 import za.cf.cp.tournament.dto.RoundRobinTournamentDto;
 import za.cf.cp.tournament.dto.AmericanoTournamentDto;
 import za.cf.cp.tournament.dto.TournamentFormatDto;
@@ -15,7 +24,10 @@ import za.cf.cp.tournament.dto.TournamentRegistrationTypeDto;
 import za.cf.cp.tournament.dto.TournamentVenueTypeDto;
 import za.cf.cp.tournament.dto.TournamentStatusDto;
 import za.cf.cp.tournament.dto.TournamentProgressionOptionDto;
+import za.cf.cp.tournament.service.AmericanoService;
+import za.cf.cp.tournament.service.FixtureScheduler;
 import za.cf.cp.tournament.service.TournamentService;
+import za.cf.cp.user.service.UserService;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Map;
@@ -23,6 +35,7 @@ import java.time.LocalDateTime;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * REST resource for tournament endpoints.
@@ -33,17 +46,52 @@ import java.util.Optional;
 @Consumes(MediaType.APPLICATION_JSON)
 public class TournamentResource {
     
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    
     @Inject
     TournamentService tournamentService;
     
+    @Inject
+    LiveEventBus liveEvents;
+    
+    @Inject
+    AmericanoService americanoService;
+
+    @Inject
+    AuthenticatedUser authenticatedUser;
+
+    @Inject
+    UserService userService;
+    
     /**
-     * Get all tournaments.
+     * Get all tournaments, optionally filtered. Passing limit (or cursor) switches to keyset
+     * pagination and returns a page object with items and nextCursor instead of a plain list.
+     * view=summary returns the lightweight projection.
      */
     @GET
-    public Response getAllTournaments() {
+    public Response getAllTournaments(@QueryParam("status") String statusId,
+                                      @QueryParam("category") String categoryId,
+                                      @QueryParam("format") String formatId,
+                                      @QueryParam("clubId") String clubId,
+                                      @QueryParam("from") String from,
+                                      @QueryParam("to") String to,
+                                      @QueryParam("cursor") String cursor,
+                                      @QueryParam("limit") Integer limit,
+                                      @QueryParam("view") String view) {
         try {
-            List<TournamentDto> tournaments = tournamentService.getAllTournaments();
-            return Response.ok(tournaments).build();
+            TournamentFilter filter = new TournamentFilter();
+            filter.statusId = parseUuid(statusId);
+            filter.categoryId = parseUuid(categoryId);
+            filter.formatId = parseUuid(formatId);
+            filter.clubId = parseUuid(clubId);
+            filter.startDateFrom = from != null ? LocalDate.parse(from) : null;
+            filter.startDateTo = to != null ? LocalDate.parse(to) : null;
+            return listTournaments(filter, cursor, limit, view);
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid tournament query: " + e.getMessage())
+                    .build();
         } catch (Exception e) {
             System.err.println("=== GET ALL TOURNAMENTS API ERROR ===");
             System.err.println("Error in getAllTournaments: " + e.getMessage());
@@ -177,14 +225,22 @@ public class TournamentResource {
     }
     
     /**
-     * Get tournaments by club ID.
+     * Get tournaments by club ID. Supports the same cursor, limit and view parameters as the full listing.
      */
     @GET
     @Path("/club/{clubId}")
-    public Response getTournamentsByClubId(@PathParam("clubId") String clubId) {
+    public Response getTournamentsByClubId(@PathParam("clubId") String clubId,
+                                           @QueryParam("cursor") String cursor,
+                                           @QueryParam("limit") Integer limit,
+                                           @QueryParam("view") String view) {
         try {
-            List<TournamentDto> tournaments = tournamentService.getTournamentsByClubId(clubId);
-            return Response.ok(tournaments).build();
+            TournamentFilter filter = new TournamentFilter();
+            filter.clubId = UUID.fromString(clubId);
+            return listTournaments(filter, cursor, limit, view);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid tournament query: " + e.getMessage())
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Error retrieving tournaments for club: " + e.getMessage())
@@ -193,14 +249,22 @@ public class TournamentResource {
     }
     
     /**
-     * Get tournaments by user ID.
+     * Get tournaments by user ID. Supports the same cursor, limit and view parameters as the full listing.
      */
     @GET
     @Path("/user/{userId}")
-    public Response getTournamentsByUserId(@PathParam("userId") String userId) {
+    public Response getTournamentsByUserId(@PathParam("userId") String userId,
+                                           @QueryParam("cursor") String cursor,
+                                           @QueryParam("limit") Integer limit,
+                                           @QueryParam("view") String view) {
         try {
-            List<TournamentDto> tournaments = tournamentService.getTournamentsByUserId(userId);
-            return Response.ok(tournaments).build();
+            TournamentFilter filter = new TournamentFilter();
+            filter.firebaseUid = userId;
+            return listTournaments(filter, cursor, limit, view);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid tournament query: " + e.getMessage())
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Error retrieving tournaments for user: " + e.getMessage())
@@ -208,6 +272,24 @@ public class TournamentResource {
         }
     }
     
+    /**
+     * Run a tournament listing. Without limit or cursor the response stays a plain list, as before.
+     */
+    private Response listTournaments(TournamentFilter filter, String cursor, Integer limit, String view) {
+        boolean paged = limit != null || cursor != null;
+        Integer pageSize = paged ? Math.min(Math.max(limit != null ? limit : DEFAULT_PAGE_SIZE, 1), MAX_PAGE_SIZE) : null;
+        
+        TournamentPageDto<?> page = "summary".equalsIgnoreCase(view)
+                ? tournamentService.findTournamentSummaries(filter, cursor, pageSize)
+                : tournamentService.findTournaments(filter, cursor, pageSize);
+        
+        return Response.ok(paged ? page : page.getItems()).build();
+    }
+    
+    private static UUID parseUuid(String value) {
+        return value != null && !value.isBlank() ? UUID.fromString(value) : null;
+    }
+    
     /**
      * Health check endpoint for tournaments.
      */
@@ -291,6 +373,27 @@ public class TournamentResource {
         }
     }
 
+    /**
+     * Prime the authentication cache for all tournament participants ahead of the event. Admins only.
+     */
+    @POST
+    @Path("/{tournamentId}/participants/auth-cache")
+    public Response warmParticipantAuthCache(@PathParam("tournamentId") String tournamentId) {
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity("Admin role required")
+                    .build();
+        }
+        try {
+            int cached = tournamentService.warmParticipantAuthCache(tournamentId);
+            return Response.ok(Map.of("cachedUsers", cached)).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error warming participant cache: " + e.getMessage())
+                    .build();
+        }
+    }
+
     // ==================== TOURNAMENT GROUPS ====================
 
     /**
@@ -325,6 +428,32 @@ public class TournamentResource {
         }
     }
 
+    /**
+     * Spread all teams of the tournament over its existing groups by rating, keeping teams of the
+     * same club apart unless separateClubs=false. Refused (409) once group matches or standings exist.
+     */
+    @POST
+    @Path("/{tournamentId}/groups/seed")
+    public Response seedTournamentGroups(@PathParam("tournamentId") String tournamentId,
+                                         @QueryParam("separateClubs") @DefaultValue("true") boolean separateClubs) {
+        try {
+            List<Object> groups = tournamentService.seedTournamentGroups(tournamentId, separateClubs);
+            return Response.ok(groups).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Invalid seeding request: " + e.getMessage())
+                    .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error seeding groups: " + e.getMessage())
+                    .build();
+        }
+    }
+
     /**
      * Delete all tournament groups.
      */
@@ -460,14 +589,58 @@ public class TournamentResource {
     }
 
     /**
-     * Update match score.
+     * Live scoreboard of a tournament, as Server-Sent Events: match score and status changes,
+     * changed standing rows, and newly generated knockout matches. Viewers load the matches and
+     * standings once and apply these deltas, so watching adds no database load.
+     */
+    @GET
+    @Path("/{tournamentId}/live")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<LiveEvent> streamTournamentEvents(@PathParam("tournamentId") String tournamentId) {
+        UUID id;
+        try {
+            id = UUID.fromString(tournamentId);
+        } catch (IllegalArgumentException e) {
+            return Multi.createFrom().failure(new BadRequestException("Invalid tournament ID format"));
+        }
+        return liveEvents.subscribe(LiveEvent.tournamentTopic(id));
+    }
+    
+    /**
+     * Update a match's scores and details. Same as PATCH; kept for existing clients.
      */
     @PUT
     @Path("/matches/{matchId}")
-    public Response updateMatchScore(@PathParam("matchId") String matchId, Object matchData) {
+    public Response updateMatchScore(@PathParam("matchId") String matchId, MatchScoreUpdate update) {
+        return patchMatchScore(matchId, update);
+    }
+
+    /**
+     * Update the supplied fields of a match, e.g. {"team1Set1": 6, "team2Set1": 4, "version": 3}.
+     * Returns the updated match with its new version; 404 if there is no such match, 409 if the
+     * match has moved past the given version or another update to it committed first.
+     */
+    @PATCH
+    @Path("/matches/{matchId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response patchMatchScore(@PathParam("matchId") String matchId, MatchScoreUpdate update) {
         try {
-            tournamentService.updateMatchScore(matchId, matchData);
-            return Response.ok().build();
+            Optional<Map<String, Object>> match = tournamentService.updateMatchScore(matchId, update);
+            if (match.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Match not found with ID: " + matchId)
+                        .build();
+            }
+            return Response.ok(match.get()).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (OptimisticLockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Match was updated by someone else, reload it and try again")
+                    .build();
         } catch (Exception e) {
             System.err.println("=== MATCH UPDATE API ERROR ===");
             System.err.println("Error updating match: " + e.getMessage());
@@ -480,12 +653,28 @@ public class TournamentResource {
 
     /**
      * Generate all group matches for a tournament.
+     * algorithm: circle (default), balanced or court-rotation; courts is required for court-rotation.
      */
     @POST
     @Path("/{tournamentId}/matches/generate")
-    public Response generateAllGroupMatches(@PathParam("tournamentId") String tournamentId) {
+    public Response generateAllGroupMatches(@PathParam("tournamentId") String tournamentId,
+                                            @QueryParam("algorithm") String algorithm,
+                                            @QueryParam("courts") @DefaultValue("0") int courts) {
+        FixtureScheduler.Algorithm schedulingAlgorithm;
+        try {
+            schedulingAlgorithm = FixtureScheduler.Algorithm.parse(algorithm);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Unknown scheduling algorithm: " + algorithm)
+                    .build();
+        }
+        if (schedulingAlgorithm == FixtureScheduler.Algorithm.COURT_ROTATION && courts < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Court rotation requires courts >= 1")
+                    .build();
+        }
         try {
-            List<Object> generatedMatches = tournamentService.generateAllGroupMatches(tournamentId);
+            List<Object> generatedMatches = tournamentService.generateAllGroupMatches(tournamentId, schedulingAlgorithm, courts);
             return Response.status(Response.Status.CREATED).entity(generatedMatches).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -794,6 +983,128 @@ public class TournamentResource {
         }
     }
 
+    // ==================== AMERICANO ENDPOINTS ====================
+
+    /**
+     * Schedule all rounds of an Americano with rotating partners.
+     * rounds defaults to one fewer than the number of participants.
+     */
+    @POST
+    @Path("/{tournamentId}/americano/schedule")
+    public Response scheduleAmericano(@PathParam("tournamentId") String tournamentId,
+                                      @QueryParam("courts") @DefaultValue("0") int courts,
+                                      @QueryParam("rounds") Integer rounds) {
+        if (courts < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("courts must be at least 1")
+                    .build();
+        }
+        try {
+            return Response.status(Response.Status.CREATED)
+                    .entity(americanoService.scheduleAmericano(tournamentId, courts, rounds))
+                    .build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error scheduling Americano: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Pair the next Mexicano round from the current points.
+     */
+    @POST
+    @Path("/{tournamentId}/americano/rounds/next")
+    public Response nextMexicanoRound(@PathParam("tournamentId") String tournamentId,
+                                      @QueryParam("courts") @DefaultValue("0") int courts) {
+        if (courts < 1) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("courts must be at least 1")
+                    .build();
+        }
+        try {
+            return Response.status(Response.Status.CREATED)
+                    .entity(americanoService.nextMexicanoRound(tournamentId, courts))
+                    .build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error pairing next round: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Get the games of an Americano in round and court order.
+     */
+    @GET
+    @Path("/{tournamentId}/americano/matches")
+    public Response getAmericanoMatches(@PathParam("tournamentId") String tournamentId) {
+        try {
+            return Response.ok(americanoService.getMatches(tournamentId)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error retrieving Americano matches: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Record the points of an Americano game: {"team1_points": 13, "team2_points": 11}
+     */
+    @PUT
+    @Path("/americano/matches/{matchId}")
+    public Response recordAmericanoScore(@PathParam("matchId") String matchId, Map<String, Integer> points) {
+        Integer team1Points = points != null ? points.get("team1_points") : null;
+        Integer team2Points = points != null ? points.get("team2_points") : null;
+        if (team1Points == null || team2Points == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("team1_points and team2_points are required")
+                    .build();
+        }
+        try {
+            return Response.ok(americanoService.recordScore(matchId, team1Points, team2Points)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error updating Americano match: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Get the Americano leaderboard: players by points scored.
+     */
+    @GET
+    @Path("/{tournamentId}/americano/leaderboard")
+    public Response getAmericanoLeaderboard(@PathParam("tournamentId") String tournamentId) {
+        try {
+            return Response.ok(americanoService.getLeaderboard(tournamentId)).build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error retrieving Americano leaderboard: " + e.getMessage())
+                    .build();
+        }
+    }
+
     // ==================== KNOCKOUT BRACKET ENDPOINTS ====================
 
     /**
@@ -817,7 +1128,7 @@ public class TournamentResource {
     }
 
     /**
-     * Get knockout bracket matches for a tournament
+     * Get knockout bracket matches for a tournament, each linked to the match its winner moves on to
      */
     @GET
     @Path("/{tournamentId}/knockout/matches")
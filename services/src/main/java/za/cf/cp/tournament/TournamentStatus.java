@@ -10,6 +10,7 @@ import java.util.UUID;
  * Maps to the 'tournament_status' table in the database.
  */
 @Entity
+@Cacheable
 @Table(name = "tournament_status", schema = "core")
 public class TournamentStatus extends PanacheEntityBase {
     
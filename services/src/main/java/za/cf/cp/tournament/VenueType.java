@@ -10,6 +10,7 @@ import java.util.UUID;
  * Maps to the 'venue_type' table in the database.
  */
 @Entity
+@Cacheable
 @Table(name = "venue_type", schema = "core")
 public class VenueType extends PanacheEntityBase {
     
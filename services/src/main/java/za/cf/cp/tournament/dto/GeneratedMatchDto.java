@@ -0,0 +1,71 @@
+package za.cf.cp.tournament.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import za.cf.cp.tournament.TournamentMatch;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO returned for freshly generated group fixtures (no scores yet).
+ */
+public class GeneratedMatchDto {
+
+    @JsonProperty("id")
+    public String id;
+
+    @JsonProperty("tournamentId")
+    public String tournamentId;
+
+    @JsonProperty("groupId")
+    public String groupId;
+
+    @JsonProperty("phase")
+    public String phase;
+
+    @JsonProperty("round")
+    public Integer round;
+
+    @JsonProperty("team1Id")
+    public String team1Id;
+
+    @JsonProperty("team2Id")
+    public String team2Id;
+
+    @JsonProperty("team1Score")
+    public Integer team1Score;
+
+    @JsonProperty("team2Score")
+    public Integer team2Score;
+
+    @JsonProperty("status")
+    public String status;
+
+    @JsonProperty("scheduledTime")
+    public LocalDateTime scheduledTime;
+
+    @JsonProperty("venueId")
+    public String venueId;
+
+    @JsonProperty("court")
+    public Integer court;
+
+    // Default constructor
+    public GeneratedMatchDto() {}
+
+    // Constructor from a generated match; the ids are passed in to avoid touching lazy associations
+    public GeneratedMatchDto(TournamentMatch match, String tournamentId, String groupId, String team1Id, String team2Id) {
+        this.id = match.matchId.toString();
+        this.tournamentId = tournamentId;
+        this.groupId = groupId;
+        this.phase = match.phase;
+        this.round = match.round;
+        this.team1Id = team1Id;
+        this.team2Id = team2Id;
+        this.team1Score = match.team1Score;
+        this.team2Score = match.team2Score;
+        this.status = match.status;
+        this.scheduledTime = match.scheduledTime;
+        this.venueId = match.venueId;
+        this.court = match.court;
+    }
+}
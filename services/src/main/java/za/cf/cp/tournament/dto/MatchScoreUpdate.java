@@ -0,0 +1,40 @@
+package za.cf.cp.tournament.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Score update for a tournament match, as sent by referees.
+ *
+ * Only the fields present in the request change the match; absent or null fields are left
+ * alone. An empty string clears winnerId, scheduledTime or venueId. When {@code version} is
+ * given the update only applies if the match is still at that version, so two referees scoring
+ * the same match cannot overwrite each other unnoticed.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MatchScoreUpdate(
+        @JsonProperty("team1Score") Integer team1Score,
+        @JsonProperty("team2Score") Integer team2Score,
+        @JsonProperty("team1Set1") Integer team1Set1,
+        @JsonProperty("team2Set1") Integer team2Set1,
+        @JsonProperty("team1Set2") Integer team1Set2,
+        @JsonProperty("team2Set2") Integer team2Set2,
+        @JsonProperty("team1Set3") Integer team1Set3,
+        @JsonProperty("team2Set3") Integer team2Set3,
+        @JsonProperty("winnerId") String winnerId,
+        @JsonProperty("status") String status,
+        // ISO date-time; an offset or 'Z' suffix is accepted and dropped
+        @JsonProperty("scheduledTime") String scheduledTime,
+        @JsonProperty("venueId") String venueId,
+        @JsonProperty("version") Long version) {
+
+    /**
+     * Whether any score or set score is part of the update.
+     */
+    public boolean hasScores() {
+        return team1Score != null || team2Score != null
+                || team1Set1 != null || team2Set1 != null
+                || team1Set2 != null || team2Set2 != null
+                || team1Set3 != null || team2Set3 != null;
+    }
+}
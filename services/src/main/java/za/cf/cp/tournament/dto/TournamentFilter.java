@@ -0,0 +1,25 @@
+package za.cf.cp.tournament.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Server-side filters for tournament listings. Null fields are not applied.
+ */
+public class TournamentFilter {
+
+    public UUID statusId;
+
+    public UUID categoryId;
+
+    public UUID formatId;
+
+    public UUID clubId;
+
+    public String firebaseUid;
+
+    // Inclusive window on the tournament start date
+    public LocalDate startDateFrom;
+
+    public LocalDate startDateTo;
+}
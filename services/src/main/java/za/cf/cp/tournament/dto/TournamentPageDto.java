@@ -0,0 +1,43 @@
+package za.cf.cp.tournament.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * One page of a tournament listing. nextCursor is null on the last page.
+ */
+public class TournamentPageDto<T> {
+
+    @JsonProperty("items")
+    public List<T> items;
+
+    @JsonProperty("nextCursor")
+    public String nextCursor;
+
+    // Default constructor
+    public TournamentPageDto() {}
+
+    // Constructor with fields
+    public TournamentPageDto(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
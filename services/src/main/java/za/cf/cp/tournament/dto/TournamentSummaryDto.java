@@ -0,0 +1,101 @@
+package za.cf.cp.tournament.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lightweight tournament projection for list views.
+ */
+public class TournamentSummaryDto {
+
+    @JsonProperty("id")
+    public String id;
+
+    @JsonProperty("name")
+    public String name;
+
+    @JsonProperty("startDate")
+    public LocalDateTime startDate;
+
+    @JsonProperty("endDate")
+    public LocalDateTime endDate;
+
+    @JsonProperty("clubId")
+    public String clubId;
+
+    @JsonProperty("clubName")
+    public String clubName;
+
+    @JsonProperty("status")
+    public String status;
+
+    @JsonProperty("maxParticipants")
+    public Integer maxParticipants;
+
+    @JsonProperty("currentParticipants")
+    public Integer currentParticipants;
+
+    @JsonProperty("accessType")
+    public String accessType;
+
+    // Default constructor
+    public TournamentSummaryDto() {}
+
+    // Constructor used by the JPQL projection
+    public TournamentSummaryDto(UUID id, String name, LocalDateTime startDate, LocalDateTime endDate,
+                                UUID clubId, String clubName, String status,
+                                Integer maxParticipants, Integer currentParticipants, String accessType) {
+        this.id = id.toString();
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.clubId = clubId != null ? clubId.toString() : null;
+        this.clubName = clubName;
+        this.status = status;
+        this.maxParticipants = maxParticipants;
+        this.currentParticipants = currentParticipants;
+        this.accessType = accessType;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public String getClubId() {
+        return clubId;
+    }
+
+    public String getClubName() {
+        return clubName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getMaxParticipants() {
+        return maxParticipants;
+    }
+
+    public Integer getCurrentParticipants() {
+        return currentParticipants;
+    }
+
+    public String getAccessType() {
+        return accessType;
+    }
+}
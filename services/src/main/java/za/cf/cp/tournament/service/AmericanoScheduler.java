@@ -0,0 +1,305 @@
+package za.cf.cp.tournament.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * In-memory Americano and Mexicano pairing.
+ *
+ * Every round puts four players on each court, two against two, and partners change from round
+ * to round. Americano rounds are chosen to avoid repeating partnerships (and, with less weight,
+ * opponents); Mexicano rounds group players by their current ranking so players of similar
+ * strength meet. Sit-outs, when there are more players than seats, go to the players who have
+ * sat out least.
+ *
+ * Players are referred to by their index in the caller's list, so rounds can be turned into
+ * entities in one pass and inserted as a single batch.
+ */
+public final class AmericanoScheduler {
+
+    public static final int PLAYERS_PER_COURT = 4;
+
+    // A repeated partnership costs this many repeated opponents
+    private static final int PARTNER_WEIGHT = 4;
+    private static final int OPPONENT_WEIGHT = 1;
+    private static final int MAX_IMPROVEMENT_PASSES = 25;
+
+    /**
+     * One game: 1-based court and the indexes of the four players (team 1 against team 2).
+     */
+    public record Match(int court, int team1Player1, int team1Player2, int team2Player1, int team2Player2) {
+    }
+
+    /**
+     * One round: its 1-based number, a match per court in use, and the players sitting it out.
+     */
+    public record Round(int round, List<Match> matches, List<Integer> sittingOut) {
+    }
+
+    /**
+     * How often each pair of players has partnered and faced each other, and how often each
+     * player has sat out, over the rounds added so far.
+     */
+    public static final class History {
+        private final int players;
+        private final int[] partners;
+        private final int[] opponents;
+        private final int[] sitOuts;
+        private final int[] lastSatOut;
+
+        public History(int players) {
+            this.players = players;
+            this.partners = new int[players * players];
+            this.opponents = new int[players * players];
+            this.sitOuts = new int[players];
+            this.lastSatOut = new int[players];
+        }
+
+        /**
+         * Build the history of the given rounds.
+         */
+        public static History of(int players, Collection<Round> rounds) {
+            History history = new History(players);
+            for (Round round : rounds) {
+                history.add(round);
+            }
+            return history;
+        }
+
+        public void add(Round round) {
+            for (Match match : round.matches()) {
+                addMatch(match.team1Player1(), match.team1Player2(), match.team2Player1(), match.team2Player2());
+            }
+            for (int player : round.sittingOut()) {
+                sitOuts[player]++;
+                lastSatOut[player] = round.round();
+            }
+        }
+
+        /**
+         * Count one game; players outside this history (e.g. since removed) are ignored.
+         */
+        public void addMatch(int a, int b, int c, int d) {
+            pair(partners, a, b);
+            pair(partners, c, d);
+            pair(opponents, a, c);
+            pair(opponents, a, d);
+            pair(opponents, b, c);
+            pair(opponents, b, d);
+        }
+
+        public int partnerCount(int a, int b) {
+            return partners[a * players + b];
+        }
+
+        public int opponentCount(int a, int b) {
+            return opponents[a * players + b];
+        }
+
+        public int sitOuts(int player) {
+            return sitOuts[player];
+        }
+
+        private void pair(int[] counts, int a, int b) {
+            if (a < 0 || b < 0 || a >= players || b >= players) {
+                return;
+            }
+            counts[a * players + b]++;
+            counts[b * players + a]++;
+        }
+
+        /** Cost of a game given the counts so far: repeats are squared so they are spread out. */
+        int matchCost(int a, int b, int c, int d) {
+            return PARTNER_WEIGHT * (square(partnerCount(a, b)) + square(partnerCount(c, d)))
+                    + OPPONENT_WEIGHT * (square(opponentCount(a, c)) + square(opponentCount(a, d))
+                    + square(opponentCount(b, c)) + square(opponentCount(b, d)));
+        }
+
+        private static int square(int value) {
+            return value * value;
+        }
+    }
+
+    private AmericanoScheduler() {
+    }
+
+    /**
+     * Schedule {@code rounds} Americano rounds for {@code players} players on up to {@code courts}
+     * courts. The same seed gives the same schedule.
+     */
+    public static List<Round> americano(int players, int courts, int rounds, long seed) {
+        History history = new History(players);
+        Random random = new Random(seed);
+        List<Round> schedule = new ArrayList<>(rounds);
+        for (int round = 1; round <= rounds; round++) {
+            Round next = americanoRound(round, history, courts, random);
+            if (next.matches().isEmpty()) {
+                break;
+            }
+            history.add(next);
+            schedule.add(next);
+        }
+        return schedule;
+    }
+
+    /**
+     * Pair one Americano round: start from a random seating of the playing players and swap
+     * players between seats while that lowers the round's repeat cost.
+     */
+    public static Round americanoRound(int round, History history, int courts, Random random) {
+        int players = history.players;
+        Integer[] order = new Integer[players];
+        for (int player = 0; player < players; player++) {
+            order[player] = player;
+        }
+        // Shuffle first so ties in the sit-out order are broken differently every round
+        shuffle(order, random);
+        List<Integer> sittingOut = chooseSittingOut(order, history, courts);
+
+        int[] seats = playingPlayers(order, sittingOut);
+        shuffle(seats, random);
+        improve(seats, history);
+
+        List<Match> matches = new ArrayList<>(seats.length / PLAYERS_PER_COURT);
+        for (int court = 0; court < seats.length / PLAYERS_PER_COURT; court++) {
+            int base = court * PLAYERS_PER_COURT;
+            matches.add(new Match(court + 1, seats[base], seats[base + 1], seats[base + 2], seats[base + 3]));
+        }
+        return new Round(round, matches, sittingOut);
+    }
+
+    /**
+     * Pair one Mexicano round from the current ranking (best first): each group of four
+     * consecutive players shares a court, the top group on court 1, and within a group the
+     * partnering with the fewest repeats is used, preferring 1st and 4th against 2nd and 3rd.
+     */
+    public static Round mexicanoRound(int round, int[] ranking, History history, int courts) {
+        // Ties in the sit-out order go to the lowest ranked players
+        Integer[] order = new Integer[ranking.length];
+        for (int i = 0; i < ranking.length; i++) {
+            order[i] = ranking[ranking.length - 1 - i];
+        }
+        List<Integer> sittingOut = chooseSittingOut(order, history, courts);
+
+        boolean[] sitting = new boolean[history.players];
+        for (int player : sittingOut) {
+            sitting[player] = true;
+        }
+        int[] playing = new int[ranking.length - sittingOut.size()];
+        int count = 0;
+        for (int player : ranking) {
+            if (!sitting[player]) {
+                playing[count++] = player;
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(playing.length / PLAYERS_PER_COURT);
+        for (int court = 0; court < playing.length / PLAYERS_PER_COURT; court++) {
+            int base = court * PLAYERS_PER_COURT;
+            int first = playing[base];
+            int second = playing[base + 1];
+            int third = playing[base + 2];
+            int fourth = playing[base + 3];
+            int[][] options = {
+                    {first, fourth, second, third},
+                    {first, third, second, fourth},
+                    {first, second, third, fourth}
+            };
+            int[] best = options[0];
+            int bestCost = Integer.MAX_VALUE;
+            for (int[] option : options) {
+                int cost = history.matchCost(option[0], option[1], option[2], option[3]);
+                if (cost < bestCost) {
+                    best = option;
+                    bestCost = cost;
+                }
+            }
+            matches.add(new Match(court + 1, best[0], best[1], best[2], best[3]));
+        }
+        return new Round(round, matches, sittingOut);
+    }
+
+    /**
+     * Fill the courts with as many groups of four as possible; the rest sit out, taken from the
+     * players who have sat out least and longest ago ({@code order} breaks remaining ties).
+     */
+    private static List<Integer> chooseSittingOut(Integer[] order, History history, int courts) {
+        int playing = Math.min(Math.max(courts, 0), order.length / PLAYERS_PER_COURT) * PLAYERS_PER_COURT;
+        int sitting = order.length - playing;
+        Integer[] candidates = order.clone();
+        Arrays.sort(candidates, Comparator
+                .comparingInt((Integer player) -> history.sitOuts[player])
+                .thenComparingInt(player -> history.lastSatOut[player]));
+        List<Integer> sittingOut = new ArrayList<>(sitting);
+        for (int i = 0; i < sitting; i++) {
+            sittingOut.add(candidates[i]);
+        }
+        sittingOut.sort(null);
+        return sittingOut;
+    }
+
+    private static int[] playingPlayers(Integer[] order, List<Integer> sittingOut) {
+        boolean[] sitting = new boolean[order.length];
+        for (int player : sittingOut) {
+            sitting[player] = true;
+        }
+        return Arrays.stream(order).mapToInt(Integer::intValue).filter(player -> !sitting[player]).toArray();
+    }
+
+    /**
+     * Local search over the seating: seats 4k..4k+3 are court k+1, the first two seats of a court
+     * are team 1. Two players swap seats whenever that lowers the total cost, until no swap helps.
+     */
+    private static void improve(int[] seats, History history) {
+        for (int pass = 0; pass < MAX_IMPROVEMENT_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 0; i < seats.length; i++) {
+                for (int j = i + 1; j < seats.length; j++) {
+                    int courtI = i / PLAYERS_PER_COURT;
+                    int courtJ = j / PLAYERS_PER_COURT;
+                    int before = courtCost(seats, history, courtI) + (courtI != courtJ ? courtCost(seats, history, courtJ) : 0);
+                    swap(seats, i, j);
+                    int after = courtCost(seats, history, courtI) + (courtI != courtJ ? courtCost(seats, history, courtJ) : 0);
+                    if (after < before) {
+                        improved = true;
+                    } else {
+                        swap(seats, i, j);
+                    }
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    private static int courtCost(int[] seats, History history, int court) {
+        int base = court * PLAYERS_PER_COURT;
+        return history.matchCost(seats[base], seats[base + 1], seats[base + 2], seats[base + 3]);
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            swap(values, i, random.nextInt(i + 1));
+        }
+    }
+
+    private static void shuffle(Integer[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+}
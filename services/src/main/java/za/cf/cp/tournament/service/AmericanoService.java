@@ -0,0 +1,315 @@
+package za.cf.cp.tournament.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import za.cf.cp.live.LiveEvent;
+import za.cf.cp.tournament.AmericanoMatch;
+import za.cf.cp.tournament.AmericanoTournament;
+import za.cf.cp.tournament.Tournament;
+import za.cf.cp.tournament.TournamentParticipant;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Rounds and results of Americano tournaments.
+ *
+ * Pairing happens in memory ({@link AmericanoScheduler}); the games of all generated rounds are
+ * then inserted as one JDBC batch. A tournament is either scheduled up front (Americano) or
+ * paired one round at a time from the current points (Mexicano).
+ */
+@ApplicationScoped
+public class AmericanoService {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<LiveEvent> liveEvents;
+
+    /**
+     * Points of one player over the completed games, for the leaderboard.
+     */
+    public record PlayerScore(
+            @JsonProperty("firebase_uid") String firebaseUid,
+            @JsonProperty("points") int points,
+            @JsonProperty("games_played") int gamesPlayed,
+            @JsonProperty("games_won") int gamesWon) {
+    }
+
+    /**
+     * Schedule all rounds of an Americano up front, partners rotating so partnerships repeat as
+     * little as possible. Defaults to one round fewer than there are players (enough for everyone
+     * to partner everyone once, where the player count allows it).
+     */
+    @Transactional
+    public List<AmericanoMatch> scheduleAmericano(String tournamentId, int courts, Integer rounds) {
+        AmericanoTournament tournament = findAmericano(tournamentId);
+        if (AmericanoMatch.count("tournamentId", tournament.tournamentId) > 0) {
+            throw new IllegalStateException("Rounds have already been generated for this tournament");
+        }
+        List<String> players = participants(tournament.tournamentId);
+        int roundCount = rounds != null ? rounds : players.size() - 1;
+        if (roundCount < 1) {
+            throw new IllegalArgumentException("Rounds must be at least 1");
+        }
+
+        List<AmericanoScheduler.Round> schedule = AmericanoScheduler.americano(players.size(), courts, roundCount,
+                tournament.tournamentId.getMostSignificantBits());
+        List<AmericanoMatch> matches = new ArrayList<>();
+        for (AmericanoScheduler.Round round : schedule) {
+            matches.addAll(toMatches(tournament, round, players));
+        }
+        persistInOneBatch(matches);
+        publishRound(tournament.tournamentId, 1, matches.size());
+        return matches;
+    }
+
+    /**
+     * Pair the next Mexicano round from the points so far: players of similar standing share a
+     * court. Every game of the previous round must have a result.
+     */
+    @Transactional
+    public List<AmericanoMatch> nextMexicanoRound(String tournamentId, int courts) {
+        AmericanoTournament tournament = findAmericano(tournamentId);
+        List<String> players = participants(tournament.tournamentId);
+        List<AmericanoMatch> played = AmericanoMatch.findByTournament(tournament.tournamentId);
+        if (played.stream().anyMatch(match -> !"completed".equals(match.status))) {
+            throw new IllegalStateException("All games of the current round need a result first");
+        }
+
+        Map<String, Integer> index = indexOf(players);
+        AmericanoScheduler.History history = history(players, played, index);
+        int[] ranking = leaderboard(players, played).stream()
+                .mapToInt(score -> index.get(score.firebaseUid()))
+                .toArray();
+        int round = played.stream().mapToInt(match -> match.round).max().orElse(0) + 1;
+
+        List<AmericanoMatch> matches = toMatches(tournament,
+                AmericanoScheduler.mexicanoRound(round, ranking, history, courts), players);
+        persistInOneBatch(matches);
+        publishRound(tournament.tournamentId, round, matches.size());
+        return matches;
+    }
+
+    /**
+     * Record the points of a game.
+     */
+    @Transactional
+    public AmericanoMatch recordScore(String matchId, int team1Points, int team2Points) {
+        if (team1Points < 0 || team2Points < 0) {
+            throw new IllegalArgumentException("Points cannot be negative");
+        }
+        AmericanoMatch match = AmericanoMatch.findById(parseId(matchId, "match"));
+        if (match == null) {
+            throw new IllegalArgumentException("Match not found: " + matchId);
+        }
+        match.team1Points = team1Points;
+        match.team2Points = team2Points;
+        match.status = "completed";
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", match.matchId.toString());
+        data.put("round", match.round);
+        data.put("court", match.court);
+        data.put("team1Points", team1Points);
+        data.put("team2Points", team2Points);
+        data.put("status", match.status);
+        liveEvents.fire(LiveEvent.tournament(match.tournamentId, "americano.match.updated",
+                "americano:" + match.matchId, data));
+        return match;
+    }
+
+    /**
+     * Get the games of a tournament in round and court order.
+     */
+    public List<AmericanoMatch> getMatches(String tournamentId) {
+        return AmericanoMatch.findByTournament(parseId(tournamentId, "tournament"));
+    }
+
+    /**
+     * Get the players of a tournament ranked by points, then games won, then fewest games played.
+     */
+    public List<PlayerScore> getLeaderboard(String tournamentId) {
+        UUID id = parseId(tournamentId, "tournament");
+        return leaderboard(participants(id), AmericanoMatch.findByTournament(id));
+    }
+
+    private List<PlayerScore> leaderboard(List<String> players, List<AmericanoMatch> matches) {
+        Map<String, int[]> totals = new LinkedHashMap<>();
+        for (String player : players) {
+            totals.put(player, new int[3]);
+        }
+        for (AmericanoMatch match : matches) {
+            if (!"completed".equals(match.status) || match.team1Points == null || match.team2Points == null) {
+                continue;
+            }
+            boolean team1Won = match.team1Points > match.team2Points;
+            boolean team2Won = match.team2Points > match.team1Points;
+            credit(totals, match.team1Player1, match.team1Points, team1Won);
+            credit(totals, match.team1Player2, match.team1Points, team1Won);
+            credit(totals, match.team2Player1, match.team2Points, team2Won);
+            credit(totals, match.team2Player2, match.team2Points, team2Won);
+        }
+        List<PlayerScore> scores = new ArrayList<>(totals.size());
+        totals.forEach((player, total) -> scores.add(new PlayerScore(player, total[0], total[1], total[2])));
+        scores.sort(Comparator.comparingInt(PlayerScore::points).reversed()
+                .thenComparing(Comparator.comparingInt(PlayerScore::gamesWon).reversed())
+                .thenComparingInt(PlayerScore::gamesPlayed)
+                .thenComparing(PlayerScore::firebaseUid));
+        return scores;
+    }
+
+    private static void credit(Map<String, int[]> totals, String player, int points, boolean won) {
+        int[] total = totals.get(player);
+        if (total == null) {
+            // No longer a participant
+            return;
+        }
+        total[0] += points;
+        total[1]++;
+        if (won) {
+            total[2]++;
+        }
+    }
+
+    private AmericanoTournament findAmericano(String tournamentId) {
+        Tournament tournament = Tournament.findById(parseId(tournamentId, "tournament"));
+        if (tournament == null) {
+            throw new IllegalArgumentException("Tournament not found: " + tournamentId);
+        }
+        if (!(tournament instanceof AmericanoTournament americano)) {
+            throw new IllegalArgumentException("Tournament is not an Americano tournament: " + tournamentId);
+        }
+        return americano;
+    }
+
+    /**
+     * Participants in a stable order, so player indexes mean the same in every round.
+     */
+    private List<String> participants(UUID tournamentId) {
+        List<String> players = entityManager.createQuery(
+                        "select distinct p.firebaseUid from TournamentParticipant p where p.tournament.tournamentId = ?1 order by p.firebaseUid",
+                        String.class)
+                .setParameter(1, tournamentId)
+                .getResultList();
+        if (players.size() < AmericanoScheduler.PLAYERS_PER_COURT) {
+            throw new IllegalStateException("An Americano needs at least " + AmericanoScheduler.PLAYERS_PER_COURT
+                    + " participants");
+        }
+        return players;
+    }
+
+    private static Map<String, Integer> indexOf(List<String> players) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < players.size(); i++) {
+            index.put(players.get(i), i);
+        }
+        return index;
+    }
+
+    /**
+     * Rebuild the pairing history from the stored games. Players that sat a round out are the
+     * participants without a game in it.
+     */
+    private static AmericanoScheduler.History history(List<String> players, List<AmericanoMatch> matches,
+                                                      Map<String, Integer> index) {
+        Map<Integer, List<AmericanoScheduler.Match>> byRound = new TreeMap<>();
+        for (AmericanoMatch match : matches) {
+            byRound.computeIfAbsent(match.round, round -> new ArrayList<>()).add(new AmericanoScheduler.Match(
+                    match.court, index.getOrDefault(match.team1Player1, -1), index.getOrDefault(match.team1Player2, -1),
+                    index.getOrDefault(match.team2Player1, -1), index.getOrDefault(match.team2Player2, -1)));
+        }
+        List<AmericanoScheduler.Round> rounds = new ArrayList<>(byRound.size());
+        byRound.forEach((round, games) -> {
+            boolean[] playing = new boolean[players.size()];
+            for (AmericanoScheduler.Match game : games) {
+                for (int player : new int[]{game.team1Player1(), game.team1Player2(), game.team2Player1(), game.team2Player2()}) {
+                    if (player >= 0) {
+                        playing[player] = true;
+                    }
+                }
+            }
+            List<Integer> sittingOut = new ArrayList<>();
+            for (int player = 0; player < playing.length; player++) {
+                if (!playing[player]) {
+                    sittingOut.add(player);
+                }
+            }
+            rounds.add(new AmericanoScheduler.Round(round, games, sittingOut));
+        });
+        return AmericanoScheduler.History.of(players.size(), rounds);
+    }
+
+    /**
+     * Create (but don't persist) the games of a round. Rounds start rotation_interval minutes
+     * apart from the tournament start.
+     */
+    private static List<AmericanoMatch> toMatches(AmericanoTournament tournament, AmericanoScheduler.Round round,
+                                                  List<String> players) {
+        LocalDateTime start = tournament.startDate;
+        int interval = tournament.rotationInterval != null ? tournament.rotationInterval : 0;
+        List<AmericanoMatch> matches = new ArrayList<>(round.matches().size());
+        for (AmericanoScheduler.Match game : round.matches()) {
+            AmericanoMatch match = new AmericanoMatch();
+            match.tournamentId = tournament.tournamentId;
+            match.round = round.round();
+            match.court = game.court();
+            match.team1Player1 = players.get(game.team1Player1());
+            match.team1Player2 = players.get(game.team1Player2());
+            match.team2Player1 = players.get(game.team2Player1());
+            match.team2Player2 = players.get(game.team2Player2());
+            match.scheduledTime = start != null ? start.plusMinutes((long) interval * (round.round() - 1)) : null;
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    /**
+     * Persist new games and flush them as a single JDBC batch.
+     */
+    private void persistInOneBatch(List<AmericanoMatch> matches) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Integer configuredBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(matches.size(), configuredBatchSize != null ? configuredBatchSize : 0));
+        try {
+            for (AmericanoMatch match : matches) {
+                entityManager.persist(match);
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(configuredBatchSize);
+        }
+    }
+
+    private void publishRound(UUID tournamentId, int firstRound, int games) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("firstRound", firstRound);
+        data.put("games", games);
+        liveEvents.fire(LiveEvent.tournament(tournamentId, "americano.round.created", null, data));
+    }
+
+    private static UUID parseId(String id, String what) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid " + what + " ID format: " + id);
+        }
+    }
+}
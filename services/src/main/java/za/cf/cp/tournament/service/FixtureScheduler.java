@@ -0,0 +1,112 @@
+package za.cf.cp.tournament.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-memory round-robin fixture scheduling (circle method).
+ *
+ * Teams are referred to by their index in the caller's list, so the result can be turned into
+ * entities in one pass and inserted as a single batch.
+ */
+public final class FixtureScheduler {
+
+    private static final int BYE = -1;
+
+    /**
+     * Available scheduling variants.
+     */
+    public enum Algorithm {
+        /** Plain circle method: the first listed team is home in every pairing. */
+        CIRCLE,
+        /** Circle method with home/away alternated so every team's home and away counts differ by at most one. */
+        BALANCED,
+        /** Balanced, and each round's matches are spread over the courts so teams rotate between courts. */
+        COURT_ROTATION;
+
+        public static Algorithm parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CIRCLE;
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    /**
+     * One fixture: 1-based round, indexes of the home (team1) and away (team2) teams, and the
+     * 1-based court or null when courts are not assigned.
+     */
+    public record Fixture(int round, int home, int away, Integer court) {
+    }
+
+    private FixtureScheduler() {
+    }
+
+    /**
+     * Schedule a full round robin for {@code teamCount} teams. With an odd number of teams one team
+     * sits out each round. {@code courts} is only used by {@link Algorithm#COURT_ROTATION}.
+     */
+    public static List<Fixture> schedule(int teamCount, Algorithm algorithm, int courts) {
+        if (teamCount < 2) {
+            return List.of();
+        }
+        boolean balanced = algorithm != Algorithm.CIRCLE;
+        boolean rotateCourts = algorithm == Algorithm.COURT_ROTATION && courts > 0;
+
+        int[] slots = initialSlots(teamCount, balanced);
+        int n = slots.length;
+        int rounds = n - 1;
+        int matchesPerRound = n / 2;
+
+        List<Fixture> fixtures = new ArrayList<>(teamCount * (teamCount - 1) / 2);
+        for (int round = 1; round <= rounds; round++) {
+            int matchInRound = 0;
+            for (int i = 0; i < matchesPerRound; i++) {
+                int home = slots[i];
+                int away = slots[n - 1 - i];
+                if (home == BYE || away == BYE) {
+                    continue;
+                }
+                // Fixed pairing alternates by round, the rotating pairings by position
+                if (balanced && (i == 0 ? round % 2 == 0 : i % 2 == 1)) {
+                    int swap = home;
+                    home = away;
+                    away = swap;
+                }
+                Integer court = rotateCourts ? (matchInRound + round - 1) % courts + 1 : null;
+                fixtures.add(new Fixture(round, home, away, court));
+                matchInRound++;
+            }
+            rotate(slots);
+        }
+        return fixtures;
+    }
+
+    /**
+     * Initial circle positions. Slot 0 stays fixed while the others rotate. For an odd count the bye
+     * goes last for the plain circle (as fixtures were always generated), and first for the balanced
+     * variants, which keeps every real team in the rotating part of the circle.
+     */
+    private static int[] initialSlots(int teamCount, boolean balanced) {
+        int n = teamCount % 2 == 0 ? teamCount : teamCount + 1;
+        int[] slots = new int[n];
+        int offset = teamCount % 2 != 0 && balanced ? 1 : 0;
+        for (int i = 0; i < n; i++) {
+            slots[i] = BYE;
+        }
+        for (int team = 0; team < teamCount; team++) {
+            slots[team + offset] = team;
+        }
+        return slots;
+    }
+
+    /**
+     * Keep the first slot fixed and move the last slot to position 1.
+     */
+    private static void rotate(int[] slots) {
+        int last = slots[slots.length - 1];
+        System.arraycopy(slots, 1, slots, 2, slots.length - 2);
+        slots[1] = last;
+    }
+}
@@ -0,0 +1,287 @@
+package za.cf.cp.tournament.service;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * In-memory rating-balanced group seeding.
+ *
+ * Teams are first dealt out by a snake draft (best team to group 1, second best to group 2, ...,
+ * then back again), which already gives groups of near-equal size and strength. Simulated
+ * annealing over swaps of two teams in different groups then evens out the group rating sums
+ * and separates teams of the same club.
+ *
+ * The cost of an assignment is the squared deviation of every group's rating sum from its fair
+ * share (its size times the mean rating) plus a penalty per pair of same-club teams in a group.
+ * The club penalty outweighs the rating imbalance of a single swap, so clubs are kept apart
+ * wherever the numbers allow it; when a club has more teams than there are groups, its teams
+ * are spread as evenly as possible.
+ *
+ * Teams are referred to by their index in the caller's arrays; the inner loop only touches
+ * primitive arrays, so seeding a few hundred teams takes well under a second.
+ */
+public final class GroupSeeder {
+
+    /** Club index of a team that has no club. */
+    public static final int NO_CLUB = -1;
+
+    private static final int SWAPS_PER_TEAM = 2000;
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-4;
+
+    private GroupSeeder() {
+    }
+
+    /**
+     * Assign each team to one of {@code groups} groups. Group sizes differ by at most one.
+     *
+     * @param ratings team ratings, higher is stronger
+     * @param clubs   club index per team (0-based), or {@link #NO_CLUB}; null to ignore clubs
+     * @param groups  number of groups
+     * @param seed    the same seed gives the same assignment
+     * @return the 0-based group of each team
+     */
+    public static int[] seed(int[] ratings, int[] clubs, int groups, long seed) {
+        if (groups < 1) {
+            throw new IllegalArgumentException("Number of groups must be at least 1");
+        }
+        int teams = ratings.length;
+        if (clubs != null && clubs.length != teams) {
+            throw new IllegalArgumentException("Expected a club for each of the " + teams + " teams");
+        }
+        int[] groupOf = snakeDraft(ratings, groups);
+        if (teams <= groups || groups == 1) {
+            return groupOf;
+        }
+        new Annealing(ratings, clubs, groups, groupOf, new Random(seed)).run();
+        return groupOf;
+    }
+
+    /**
+     * Deal the teams out best first, in rows across the groups, reversing direction every row.
+     */
+    static int[] snakeDraft(int[] ratings, int groups) {
+        int teams = ratings.length;
+        Integer[] order = new Integer[teams];
+        for (int team = 0; team < teams; team++) {
+            order[team] = team;
+        }
+        Arrays.sort(order, (a, b) -> ratings[a] != ratings[b] ? Integer.compare(ratings[b], ratings[a]) : Integer.compare(a, b));
+
+        int[] groupOf = new int[teams];
+        for (int pick = 0; pick < teams; pick++) {
+            int row = pick / groups;
+            int column = pick % groups;
+            groupOf[order[pick]] = row % 2 == 0 ? column : groups - 1 - column;
+        }
+        return groupOf;
+    }
+
+    /**
+     * Squared deviation of every group's rating sum from its fair share, for reporting and tests.
+     */
+    public static double imbalance(int[] ratings, int[] groupOf, int groups) {
+        long[] sums = new long[groups];
+        int[] sizes = new int[groups];
+        long total = 0;
+        for (int team = 0; team < ratings.length; team++) {
+            sums[groupOf[team]] += ratings[team];
+            sizes[groupOf[team]]++;
+            total += ratings[team];
+        }
+        double mean = ratings.length == 0 ? 0 : (double) total / ratings.length;
+        double imbalance = 0;
+        for (int group = 0; group < groups; group++) {
+            double deviation = sums[group] - sizes[group] * mean;
+            imbalance += deviation * deviation;
+        }
+        return imbalance;
+    }
+
+    /**
+     * Number of pairs of teams of the same club that share a group.
+     */
+    public static int clubClashes(int[] clubs, int[] groupOf, int groups) {
+        int clubCount = Arrays.stream(clubs).max().orElse(NO_CLUB) + 1;
+        int[] counts = new int[groups * Math.max(clubCount, 1)];
+        int clashes = 0;
+        for (int team = 0; team < clubs.length; team++) {
+            if (clubs[team] != NO_CLUB) {
+                clashes += counts[groupOf[team] * clubCount + clubs[team]]++;
+            }
+        }
+        return clashes;
+    }
+
+    /**
+     * Simulated annealing over team swaps. Group sums and per-group club counts are kept up to
+     * date so a swap is priced in constant time.
+     */
+    private static final class Annealing {
+        private final int[] ratings;
+        private final int[] clubs;
+        private final int groups;
+        private final int[] groupOf;
+        private final Random random;
+
+        private final int clubCount;
+        private final double[] target;
+        private final long[] sums;
+        private final int[] clubCounts;
+        private final double clubPenalty;
+
+        Annealing(int[] ratings, int[] clubs, int groups, int[] groupOf, Random random) {
+            this.ratings = ratings;
+            this.clubs = clubs;
+            this.groups = groups;
+            this.groupOf = groupOf;
+            this.random = random;
+
+            int teams = ratings.length;
+            int maxClub = NO_CLUB;
+            int minRating = Integer.MAX_VALUE;
+            int maxRating = Integer.MIN_VALUE;
+            long total = 0;
+            for (int team = 0; team < teams; team++) {
+                if (clubs != null) {
+                    maxClub = Math.max(maxClub, clubs[team]);
+                }
+                minRating = Math.min(minRating, ratings[team]);
+                maxRating = Math.max(maxRating, ratings[team]);
+                total += ratings[team];
+            }
+            this.clubCount = maxClub + 1;
+
+            this.sums = new long[groups];
+            int[] sizes = new int[groups];
+            this.clubCounts = new int[groups * Math.max(clubCount, 1)];
+            for (int team = 0; team < teams; team++) {
+                sums[groupOf[team]] += ratings[team];
+                sizes[groupOf[team]]++;
+                if (clubCount > 0 && clubs[team] != NO_CLUB) {
+                    clubCounts[groupOf[team] * clubCount + clubs[team]]++;
+                }
+            }
+            double mean = (double) total / teams;
+            this.target = new double[groups];
+            for (int group = 0; group < groups; group++) {
+                target[group] = sizes[group] * mean;
+            }
+
+            // Swapping two teams between balanced groups changes the rating cost by at most about
+            // 4 * spread^2; pricing a clash above that keeps clubs apart before evening out sums
+            double spread = Math.max(maxRating - minRating, 1);
+            this.clubPenalty = 4 * spread * spread + 1;
+        }
+
+        void run() {
+            int teams = ratings.length;
+            double cost = cost();
+            double bestCost = cost;
+            int[] best = groupOf.clone();
+
+            long steps = (long) SWAPS_PER_TEAM * teams;
+            double temperature = initialTemperature();
+            double cooling = Math.pow(FINAL_TEMPERATURE_RATIO, 1.0 / steps);
+            for (long step = 0; step < steps && bestCost > 0; step++) {
+                int a = random.nextInt(teams);
+                int b = random.nextInt(teams);
+                if (groupOf[a] != groupOf[b]) {
+                    double delta = swapDelta(a, b);
+                    if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                        swap(a, b);
+                        cost += delta;
+                        if (cost < bestCost - 1e-9) {
+                            bestCost = cost;
+                            System.arraycopy(groupOf, 0, best, 0, teams);
+                        }
+                    }
+                }
+                temperature *= cooling;
+            }
+            System.arraycopy(best, 0, groupOf, 0, teams);
+        }
+
+        private double cost() {
+            double cost = 0;
+            for (int group = 0; group < groups; group++) {
+                double deviation = sums[group] - target[group];
+                cost += deviation * deviation;
+                for (int club = 0; club < clubCount; club++) {
+                    int count = clubCounts[group * clubCount + club];
+                    cost += clubPenalty * count * (count - 1) / 2;
+                }
+            }
+            return cost;
+        }
+
+        /**
+         * Start hot enough to accept an average uphill swap about half the time.
+         */
+        private double initialTemperature() {
+            int teams = ratings.length;
+            double uphill = 0;
+            int samples = 0;
+            for (int i = 0; i < 200; i++) {
+                int a = random.nextInt(teams);
+                int b = random.nextInt(teams);
+                if (groupOf[a] != groupOf[b]) {
+                    double delta = swapDelta(a, b);
+                    if (delta > 0) {
+                        uphill += delta;
+                        samples++;
+                    }
+                }
+            }
+            return samples == 0 ? 1 : uphill / samples / Math.log(2);
+        }
+
+        /**
+         * Change in cost if teams {@code a} and {@code b} (in different groups) swapped groups.
+         */
+        private double swapDelta(int a, int b) {
+            int groupA = groupOf[a];
+            int groupB = groupOf[b];
+            int moved = ratings[b] - ratings[a];
+            double deviationA = sums[groupA] - target[groupA];
+            double deviationB = sums[groupB] - target[groupB];
+            // (d + m)^2 - d^2 for group A, (d - m)^2 - d^2 for group B
+            double delta = 2.0 * moved * (deviationA - deviationB) + 2.0 * moved * moved;
+
+            if (clubCount > 0) {
+                int clubA = clubs[a];
+                int clubB = clubs[b];
+                if (clubA != clubB) {
+                    // Leaving a group removes (count - 1) pairs, joining one adds count pairs
+                    int clashes = 0;
+                    if (clubA != NO_CLUB) {
+                        clashes += clubCounts[groupB * clubCount + clubA] - (clubCounts[groupA * clubCount + clubA] - 1);
+                    }
+                    if (clubB != NO_CLUB) {
+                        clashes += clubCounts[groupA * clubCount + clubB] - (clubCounts[groupB * clubCount + clubB] - 1);
+                    }
+                    delta += clubPenalty * clashes;
+                }
+            }
+            return delta;
+        }
+
+        private void swap(int a, int b) {
+            int groupA = groupOf[a];
+            int groupB = groupOf[b];
+            sums[groupA] += ratings[b] - ratings[a];
+            sums[groupB] += ratings[a] - ratings[b];
+            if (clubCount > 0) {
+                if (clubs[a] != NO_CLUB) {
+                    clubCounts[groupA * clubCount + clubs[a]]--;
+                    clubCounts[groupB * clubCount + clubs[a]]++;
+                }
+                if (clubs[b] != NO_CLUB) {
+                    clubCounts[groupB * clubCount + clubs[b]]--;
+                    clubCounts[groupA * clubCount + clubs[b]]++;
+                }
+            }
+            groupOf[a] = groupB;
+            groupOf[b] = groupA;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package za.cf.cp.tournament.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory knockout bracket builder.
+ *
+ * Teams are given in seed order (index 0 is the top seed) and placed on a bracket of the next
+ * power of two using the standard seeding order, so the top two seeds can only meet in the
+ * final, the top four not before the semifinals, and so on. When the field is not a power of
+ * two the missing places are byes, which go to the top seeds: they skip the first round and
+ * start in round 2.
+ *
+ * Every match of every round is produced up front. Matches whose teams are not known yet are
+ * placeholders ({@link #TBD}) filled by the winners of the two matches feeding them: the winner
+ * of position {@code p} in round {@code r} plays in position {@link #nextPosition} of round
+ * {@code r + 1}, in slot {@link #nextSlot} (team 1 when {@code p} is even, team 2 when it is odd).
+ */
+public final class KnockoutBracket {
+
+    /** Team slot that is filled by the winner of a feeder match. */
+    public static final int TBD = -1;
+
+    /**
+     * One bracket match: its round (1 is the first round), 0-based position within the round and
+     * the teams (indexes into the seed order) or {@link #TBD}.
+     */
+    public record Match(int round, int position, int team1, int team2) {
+    }
+
+    private KnockoutBracket() {
+    }
+
+    /**
+     * Build every match of the bracket for {@code teams} teams in seed order.
+     *
+     * @param groups group of each team (any int, negative for none), or null. First round
+     *               pairings of teams from the same group are swapped away where possible,
+     *               keeping the swapped teams as close in seed as possible.
+     */
+    public static List<Match> build(int teams, int[] groups) {
+        if (teams < 2) {
+            throw new IllegalArgumentException("A knockout bracket needs at least 2 teams");
+        }
+        if (groups != null && groups.length != teams) {
+            throw new IllegalArgumentException("Expected a group for each of the " + teams + " teams");
+        }
+        int size = bracketSize(teams);
+        int[] lines = seedOrder(size);
+        for (int line = 0; line < size; line++) {
+            if (lines[line] >= teams) {
+                lines[line] = TBD;
+            }
+        }
+        if (groups != null) {
+            separateGroups(lines, groups);
+        }
+
+        List<Match> matches = new ArrayList<>(size - 1);
+        int firstRoundMatches = size / 2;
+        // Team each first round position sends on: a team with a bye, or TBD for a real match
+        int[] advancing = new int[firstRoundMatches];
+        for (int position = 0; position < firstRoundMatches; position++) {
+            int team1 = lines[2 * position];
+            int team2 = lines[2 * position + 1];
+            if (team1 != TBD && team2 != TBD) {
+                matches.add(new Match(1, position, team1, team2));
+                advancing[position] = TBD;
+            } else {
+                advancing[position] = team1 != TBD ? team1 : team2;
+            }
+        }
+
+        int rounds = Integer.numberOfTrailingZeros(size);
+        for (int round = 2; round <= rounds; round++) {
+            int roundMatches = size >> round;
+            for (int position = 0; position < roundMatches; position++) {
+                if (round == 2) {
+                    matches.add(new Match(round, position, advancing[2 * position], advancing[2 * position + 1]));
+                } else {
+                    matches.add(new Match(round, position, TBD, TBD));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Smallest power of two that fits all teams.
+     */
+    public static int bracketSize(int teams) {
+        return Math.max(2, Integer.highestOneBit(Math.max(teams - 1, 1)) << 1);
+    }
+
+    /**
+     * Seeds (0-based) in bracket line order: lines 2p and 2p+1 meet in the first round. Every
+     * pairing adds up to {@code size - 1}, and each half of the bracket holds alternate seeds so
+     * the better seeds meet as late as possible.
+     */
+    public static int[] seedOrder(int size) {
+        int[] order = {0};
+        while (order.length < size) {
+            int length = order.length * 2;
+            int[] next = new int[length];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = length - 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    /**
+     * Position in the next round that the winner of {@code position} plays in.
+     */
+    public static int nextPosition(int position) {
+        return position / 2;
+    }
+
+    /**
+     * Slot (1 for team 1, 2 for team 2) the winner of {@code position} fills in the next round.
+     */
+    public static int nextSlot(int position) {
+        return position % 2 + 1;
+    }
+
+    /**
+     * Name of a knockout round by the number of matches in it.
+     */
+    public static String phase(int round, int roundMatches) {
+        if (roundMatches <= 1) {
+            return "final";
+        } else if (roundMatches == 2) {
+            return "semifinal";
+        } else if (roundMatches == 4) {
+            return "quarterfinal";
+        }
+        return "round_" + round;
+    }
+
+    /**
+     * Swap the lower seeds of first round pairings that would put two teams of the same group
+     * against each other. Only the second line of a pairing (the lower seed) moves, so the
+     * higher seeds keep their places and byes stay with the top seeds.
+     */
+    private static void separateGroups(int[] lines, int[] groups) {
+        int pairs = lines.length / 2;
+        for (int pair = 0; pair < pairs; pair++) {
+            int top = lines[2 * pair];
+            int bottom = lines[2 * pair + 1];
+            if (!sameGroup(top, bottom, groups)) {
+                continue;
+            }
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int other = 0; other < pairs; other++) {
+                int otherTop = lines[2 * other];
+                int otherBottom = lines[2 * other + 1];
+                if (other == pair || otherBottom == TBD
+                        || sameGroup(top, otherBottom, groups) || sameGroup(otherTop, bottom, groups)) {
+                    continue;
+                }
+                int distance = Math.abs(otherBottom - bottom);
+                if (distance < bestDistance) {
+                    best = other;
+                    bestDistance = distance;
+                }
+            }
+            if (best >= 0) {
+                lines[2 * pair + 1] = lines[2 * best + 1];
+                lines[2 * best + 1] = bottom;
+            }
+        }
+    }
+
+    private static boolean sameGroup(int a, int b, int[] groups) {
+        return a != TBD && b != TBD && groups[a] >= 0 && groups[a] == groups[b];
+    }
+}
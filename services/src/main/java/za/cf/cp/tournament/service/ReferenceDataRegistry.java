@@ -0,0 +1,153 @@
+package za.cf.cp.tournament.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+import za.cf.cp.tournament.*;
+import za.cf.cp.tournament.dto.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory registry of the tournament reference data (formats, categories, registration types,
+ * statuses, venue types and progression types).
+ *
+ * These tables only change through migrations, so they are loaded once at startup into an immutable
+ * snapshot and swapped atomically by {@link #reload()}. Configuration responses and id validation
+ * during DTO conversion are served from the snapshot without touching the database.
+ */
+@ApplicationScoped
+public class ReferenceDataRegistry {
+
+    private static final Logger LOG = Logger.getLogger(ReferenceDataRegistry.class);
+
+    @Inject
+    TournamentConfigService tournamentConfigService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    void onStart(@Observes StartupEvent event) {
+        reload();
+    }
+
+    /**
+     * Reload all reference data from the database and replace the current snapshot.
+     */
+    public synchronized void reload() {
+        TournamentConfigDto tournamentConfig = tournamentConfigService.getTournamentConfig();
+        RoundRobinConfigDto roundRobinConfig = tournamentConfigService.getRoundRobinConfig();
+
+        Map<Class<?>, Set<UUID>> ids = Map.of(
+                Format.class, idsOf(tournamentConfig.formats, TournamentFormatDto::getId),
+                Category.class, idsOf(tournamentConfig.categories, TournamentCategoryDto::getId),
+                RegistrationType.class, idsOf(tournamentConfig.registrationTypes, TournamentRegistrationTypeDto::getId),
+                TournamentStatus.class, idsOf(tournamentConfig.statuses, TournamentStatusDto::getId),
+                VenueType.class, idsOf(tournamentConfig.venueTypes, TournamentVenueTypeDto::getId),
+                ProgressionType.class, idsOf(roundRobinConfig.progressionTypes, TournamentProgressionOptionDto::getId));
+
+        Map<UUID, TournamentProgressionOptionDto> progressionOptions = roundRobinConfig.progressionTypes.stream()
+                .collect(Collectors.toUnmodifiableMap(option -> UUID.fromString(option.getId()), Function.identity()));
+
+        // The ETag covers the content only, so every instance (and every restart) serving the same
+        // data hands out the same tag
+        String tournamentConfigETag = hash(List.of(tournamentConfig.formats, tournamentConfig.statuses,
+                tournamentConfig.categories, tournamentConfig.registrationTypes, tournamentConfig.venueTypes));
+        String roundRobinConfigETag = hash(List.of(roundRobinConfig.progressionTypes,
+                roundRobinConfig.groupAdvancementSettings, roundRobinConfig.combinedAdvancementSettings));
+
+        snapshot = new Snapshot(tournamentConfig, tournamentConfigETag, roundRobinConfig, roundRobinConfigETag,
+                ids, progressionOptions);
+        LOG.infof("Loaded tournament reference data: %d formats, %d categories, %d registration types, "
+                        + "%d statuses, %d venue types, %d progression types",
+                tournamentConfig.formats.size(), tournamentConfig.categories.size(),
+                tournamentConfig.registrationTypes.size(), tournamentConfig.statuses.size(),
+                tournamentConfig.venueTypes.size(), roundRobinConfig.progressionTypes.size());
+    }
+
+    /**
+     * Get the tournament configuration as loaded at startup (or the last reload).
+     */
+    public TournamentConfigDto getTournamentConfig() {
+        return snapshot.tournamentConfig();
+    }
+
+    public String getTournamentConfigETag() {
+        return snapshot.tournamentConfigETag();
+    }
+
+    /**
+     * Get the round-robin configuration as loaded at startup (or the last reload).
+     */
+    public RoundRobinConfigDto getRoundRobinConfig() {
+        return snapshot.roundRobinConfig();
+    }
+
+    public String getRoundRobinConfigETag() {
+        return snapshot.roundRobinConfigETag();
+    }
+
+    /**
+     * Get the progression option DTO for a progression type id, or null if unknown.
+     */
+    public TournamentProgressionOptionDto getProgressionOption(UUID progressionTypeId) {
+        return progressionTypeId != null ? snapshot.progressionOptions().get(progressionTypeId) : null;
+    }
+
+    /**
+     * Resolve a reference data id to an entity reference without querying the database.
+     * The id is validated against the registry; the returned reference is initialized lazily
+     * (from the second-level cache) only if its fields are read.
+     */
+    public <T> T getReference(Class<T> type, String id) {
+        UUID uuid = UUID.fromString(id);
+        Set<UUID> known = snapshot.ids().get(type);
+        if (known == null || !known.contains(uuid)) {
+            throw new RuntimeException(type.getSimpleName() + " not found with ID: " + id);
+        }
+        return entityManager.getReference(type, uuid);
+    }
+
+    private static <D> Set<UUID> idsOf(List<D> dtos, Function<D, String> id) {
+        return dtos.stream()
+                .map(dto -> UUID.fromString(id.apply(dto)))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private String hash(Object content) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(content).getBytes(StandardCharsets.UTF_8);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to compute reference data ETag", e);
+        }
+    }
+
+    private record Snapshot(TournamentConfigDto tournamentConfig,
+                            String tournamentConfigETag,
+                            RoundRobinConfigDto roundRobinConfig,
+                            String roundRobinConfigETag,
+                            Map<Class<?>, Set<UUID>> ids,
+                            Map<UUID, TournamentProgressionOptionDto> progressionOptions) {
+    }
+}
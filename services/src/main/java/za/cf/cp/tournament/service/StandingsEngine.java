@@ -0,0 +1,190 @@
+package za.cf.cp.tournament.service;
+
+import za.cf.cp.tournament.TournamentStanding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Group standings arithmetic, free of persistence so it can be applied incrementally.
+ *
+ * A completed match contributes a fixed amount to the two standings involved, so changing a
+ * score only requires subtracting the old outcome and adding the new one. {@link #recompute}
+ * rebuilds the same numbers from scratch and is kept for repairs.
+ */
+public final class StandingsEngine {
+
+    /**
+     * Ranking order: points, goal difference and goals for (all descending), then team name
+     * (case-insensitive) and team id so fully tied teams still get a stable position.
+     */
+    static final Comparator<RankKey> RANKING = Comparator
+            .comparingInt(RankKey::points).reversed()
+            .thenComparing(Comparator.comparingInt(RankKey::goalDifference).reversed())
+            .thenComparing(Comparator.comparingInt(RankKey::goalsFor).reversed())
+            .thenComparing(RankKey::teamName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(RankKey::teamId);
+
+    private StandingsEngine() {
+    }
+
+    /**
+     * The contribution of one completed match to the standings.
+     */
+    public record MatchOutcome(String team1Id, String team2Id, int team1Total, int team2Total, String winnerId) {
+    }
+
+    /**
+     * Tiebreak key computed once per standing before sorting.
+     */
+    record RankKey(int points, int goalDifference, int goalsFor, String teamName, String teamId) {
+    }
+
+    /**
+     * Work out the outcome of a match from its set scores, or null when the match does not count
+     * yet (first set missing, or no team has won two sets). Sets scored 0-0 are ignored.
+     */
+    public static MatchOutcome outcome(String team1Id, String team2Id,
+                                       Integer team1Set1, Integer team2Set1,
+                                       Integer team1Set2, Integer team2Set2,
+                                       Integer team1Set3, Integer team2Set3) {
+        if (team1Set1 == null || team2Set1 == null) {
+            return null;
+        }
+
+        int[] team1 = {0, 0};
+        int[] team2 = {0, 0};
+        addSet(team1, team2, team1Set1, team2Set1);
+        addSet(team1, team2, team1Set2, team2Set2);
+        addSet(team1, team2, team1Set3, team2Set3);
+
+        // [0] = sets won, [1] = total games
+        if (team1[0] > team2[0] && team1[0] >= 2) {
+            return new MatchOutcome(team1Id, team2Id, team1[1], team2[1], team1Id);
+        }
+        if (team2[0] > team1[0] && team2[0] >= 2) {
+            return new MatchOutcome(team1Id, team2Id, team1[1], team2[1], team2Id);
+        }
+        return null;
+    }
+
+    private static void addSet(int[] team1, int[] team2, Integer team1Score, Integer team2Score) {
+        if (team1Score == null || team2Score == null || (team1Score == 0 && team2Score == 0)) {
+            return;
+        }
+        if (team1Score > team2Score) {
+            team1[0]++;
+        } else if (team2Score > team1Score) {
+            team2[0]++;
+        }
+        team1[1] += team1Score;
+        team2[1] += team2Score;
+    }
+
+    /**
+     * Replace the contribution of {@code before} with that of {@code after} on the standings of the
+     * two teams involved. Either outcome may be null (match not counted). Returns false, leaving the
+     * standings untouched, when a team of either outcome has no standing.
+     */
+    public static boolean applyDelta(Map<String, TournamentStanding> standingsByTeam,
+                                     MatchOutcome before, MatchOutcome after) {
+        if (Objects.equals(before, after)) {
+            return true;
+        }
+        if (!hasStandings(standingsByTeam, before) || !hasStandings(standingsByTeam, after)) {
+            return false;
+        }
+        apply(standingsByTeam, before, -1);
+        apply(standingsByTeam, after, 1);
+        return true;
+    }
+
+    /**
+     * Rebuild the given standings from all match outcomes of the group. The standings are reset
+     * first; outcomes involving a team without a standing are ignored.
+     */
+    public static Map<String, TournamentStanding> recompute(Map<String, TournamentStanding> standingsByTeam,
+                                                            Collection<MatchOutcome> outcomes) {
+        for (TournamentStanding standing : standingsByTeam.values()) {
+            standing.matchesWon = 0;
+            standing.matchesLost = 0;
+            standing.matchesDrawn = 0;
+            standing.goalsFor = 0;
+            standing.goalsAgainst = 0;
+            derive(standing);
+        }
+        for (MatchOutcome outcome : outcomes) {
+            if (hasStandings(standingsByTeam, outcome)) {
+                apply(standingsByTeam, outcome, 1);
+            }
+        }
+        return standingsByTeam;
+    }
+
+    /**
+     * Assign positions (1-based) to the standings by {@link #RANKING}. Team names are looked up
+     * once per standing rather than inside the comparator.
+     */
+    public static List<TournamentStanding> rank(Collection<TournamentStanding> standings, Map<String, String> teamNames) {
+        List<Ranked> ranked = new ArrayList<>(standings.size());
+        for (TournamentStanding standing : standings) {
+            String name = teamNames.get(standing.teamId);
+            ranked.add(new Ranked(new RankKey(standing.points, standing.goalDifference, standing.goalsFor,
+                    name != null ? name : "", standing.teamId), standing));
+        }
+        ranked.sort((a, b) -> RANKING.compare(a.key(), b.key()));
+
+        List<TournamentStanding> result = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            TournamentStanding standing = ranked.get(i).standing();
+            standing.position = i + 1;
+            result.add(standing);
+        }
+        return result;
+    }
+
+    private record Ranked(RankKey key, TournamentStanding standing) {
+    }
+
+    private static boolean hasStandings(Map<String, TournamentStanding> standingsByTeam, MatchOutcome outcome) {
+        return outcome == null
+                || (standingsByTeam.containsKey(outcome.team1Id()) && standingsByTeam.containsKey(outcome.team2Id()));
+    }
+
+    private static void apply(Map<String, TournamentStanding> standingsByTeam, MatchOutcome outcome, int sign) {
+        if (outcome == null) {
+            return;
+        }
+        TournamentStanding team1 = standingsByTeam.get(outcome.team1Id());
+        TournamentStanding team2 = standingsByTeam.get(outcome.team2Id());
+
+        team1.goalsFor += sign * outcome.team1Total();
+        team1.goalsAgainst += sign * outcome.team2Total();
+        team2.goalsFor += sign * outcome.team2Total();
+        team2.goalsAgainst += sign * outcome.team1Total();
+
+        if (outcome.team1Id().equals(outcome.winnerId())) {
+            team1.matchesWon += sign;
+            team2.matchesLost += sign;
+        } else if (outcome.team2Id().equals(outcome.winnerId())) {
+            team2.matchesWon += sign;
+            team1.matchesLost += sign;
+        } else {
+            team1.matchesDrawn += sign;
+            team2.matchesDrawn += sign;
+        }
+
+        derive(team1);
+        derive(team2);
+    }
+
+    private static void derive(TournamentStanding standing) {
+        standing.calculateMatchesPlayed();
+        standing.calculateGoalDifference();
+        standing.calculatePoints();
+    }
+}
@@ -1,23 +1,35 @@
 package za.cf.cp.tournament.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import za.cf.cp.tournament.*;
 import za.cf.cp.tournament.dto.*;
 import za.cf.cp.tournament.TournamentParticipant;
+import za.cf.cp.live.LiveEvent;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.Arrays;
 
@@ -28,38 +40,56 @@ import java.util.Arrays;
 @ApplicationScoped
 public class TournamentService {
     
+    @Inject
+    Event<LiveEvent> liveEvents;
+    
     @Inject
     EntityManager entityManager;
     
+    @Inject
+    ObjectMapper objectMapper;
+    
     @Inject
     TournamentConfigService tournamentConfigService;
     
     @Inject
-    za.cf.cp.club.service.ClubService clubService;
+    ReferenceDataRegistry referenceData;
     
     @Inject
     za.cf.cp.user.service.UserService userService;
     
+    /**
+     * Tournaments together with every to-one association convertToDto reads, in one statement.
+     */
+    private static final String TOURNAMENT_READ_QUERY = """
+            select t from Tournament t
+            left join fetch t.club c
+            left join fetch c.address
+            left join fetch t.venueClub v
+            left join fetch v.address
+            left join fetch t.format
+            left join fetch t.category
+            left join fetch t.registrationType
+            left join fetch t.status
+            left join fetch t.venueType
+            """;
+    
+    private static final String TOURNAMENT_SUMMARY_QUERY = """
+            select new za.cf.cp.tournament.dto.TournamentSummaryDto(
+                t.tournamentId, t.name, t.startDate, t.endDate, c.clubId, c.name, s.name,
+                t.maxParticipants, t.currentParticipants, t.accessType)
+            from Tournament t
+            left join t.club c
+            left join t.status s
+            """;
+    
     /**
      * Get all tournaments ordered by creation date (newest first).
      */
     @Transactional
     public List<TournamentDto> getAllTournaments() {
         try {
-            List<Tournament> tournaments = Tournament.listAll();
-            
-            List<TournamentDto> dtos = new ArrayList<>();
-            for (Tournament tournament : tournaments) {
-                try {
-                    TournamentDto dto = convertToDto(tournament);
-                    dtos.add(dto);
-                } catch (Exception e) {
-                    System.err.println("Error converting tournament " + tournament.getTournamentId() + " to DTO: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-            
-            return dtos;
+            return findTournaments(new TournamentFilter(), null, null).getItems();
         } catch (Exception e) {
             System.err.println("Error in getAllTournaments: " + e.getMessage());
             e.printStackTrace();
@@ -67,6 +97,109 @@ public class TournamentService {
         }
     }
     
+    /**
+     * Find tournaments matching the filter, latest start date first. Pages are addressed by an opaque
+     * keyset cursor on (startDate, tournamentId); a null limit returns every match in one page.
+     */
+    @Transactional
+    public TournamentPageDto<TournamentDto> findTournaments(TournamentFilter filter, String cursor, Integer limit) {
+        List<Tournament> tournaments = createListQuery(TOURNAMENT_READ_QUERY, Tournament.class, filter, cursor, limit)
+                .getResultList();
+        
+        String nextCursor = null;
+        if (limit != null && tournaments.size() > limit) {
+            tournaments = tournaments.subList(0, limit);
+            Tournament last = tournaments.get(limit - 1);
+            nextCursor = encodeCursor(last.getStartDate(), last.getTournamentId());
+        }
+        return new TournamentPageDto<>(convertAllToDto(tournaments), nextCursor);
+    }
+    
+    /**
+     * Same as findTournaments, returning the lightweight summary projection.
+     */
+    @Transactional
+    public TournamentPageDto<TournamentSummaryDto> findTournamentSummaries(TournamentFilter filter, String cursor, Integer limit) {
+        List<TournamentSummaryDto> summaries = createListQuery(TOURNAMENT_SUMMARY_QUERY, TournamentSummaryDto.class, filter, cursor, limit)
+                .getResultList();
+        
+        String nextCursor = null;
+        if (limit != null && summaries.size() > limit) {
+            summaries = summaries.subList(0, limit);
+            TournamentSummaryDto last = summaries.get(limit - 1);
+            nextCursor = encodeCursor(last.getStartDate(), UUID.fromString(last.getId()));
+        }
+        return new TournamentPageDto<>(summaries, nextCursor);
+    }
+    
+    /**
+     * Build a listing query: filters, keyset condition and the (startDate, tournamentId) ordering
+     * backed by the composite indexes from migration 22. Fetches one extra row to detect a next page.
+     */
+    private <T> TypedQuery<T> createListQuery(String select, Class<T> resultType, TournamentFilter filter, String cursor, Integer limit) {
+        StringBuilder jpql = new StringBuilder(select).append(" where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        
+        if (filter.statusId != null) {
+            jpql.append(" and t.status.statusId = :statusId");
+            params.put("statusId", filter.statusId);
+        }
+        if (filter.categoryId != null) {
+            jpql.append(" and t.category.categoryId = :categoryId");
+            params.put("categoryId", filter.categoryId);
+        }
+        if (filter.formatId != null) {
+            jpql.append(" and t.format.formatId = :formatId");
+            params.put("formatId", filter.formatId);
+        }
+        if (filter.clubId != null) {
+            jpql.append(" and t.club.clubId = :clubId");
+            params.put("clubId", filter.clubId);
+        }
+        if (filter.firebaseUid != null) {
+            jpql.append(" and t.firebaseUid = :firebaseUid");
+            params.put("firebaseUid", filter.firebaseUid);
+        }
+        if (filter.startDateFrom != null) {
+            jpql.append(" and t.startDate >= :startDateFrom");
+            params.put("startDateFrom", filter.startDateFrom.atStartOfDay());
+        }
+        if (filter.startDateTo != null) {
+            jpql.append(" and t.startDate < :startDateBefore");
+            params.put("startDateBefore", filter.startDateTo.plusDays(1).atStartOfDay());
+        }
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            jpql.append(" and (t.startDate < :cursorDate or (t.startDate = :cursorDate and t.tournamentId < :cursorId))");
+            params.put("cursorDate", LocalDateTime.parse(position[0]));
+            params.put("cursorId", UUID.fromString(position[1]));
+        }
+        jpql.append(" order by t.startDate desc, t.tournamentId desc");
+        
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        params.forEach(query::setParameter);
+        if (limit != null) {
+            query.setMaxResults(limit + 1);
+        }
+        return query;
+    }
+    
+    private static String encodeCursor(LocalDateTime startDate, UUID tournamentId) {
+        String position = startDate + "|" + tournamentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(position[0]);
+            UUID.fromString(position[1]);
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
     /**
      * Get tournament by ID.
      */
@@ -136,10 +269,9 @@ public class TournamentService {
      */
     @Transactional
     public List<TournamentDto> getTournamentsByClubId(String clubId) {
-        List<Tournament> tournaments = Tournament.find("clubId", clubId).list();
-        return tournaments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        TournamentFilter filter = new TournamentFilter();
+        filter.clubId = UUID.fromString(clubId);
+        return findTournaments(filter, null, null).getItems();
     }
     
     /**
@@ -147,10 +279,26 @@ public class TournamentService {
      */
     @Transactional
     public List<TournamentDto> getTournamentsByUserId(String userId) {
-        List<Tournament> tournaments = Tournament.find("userId", userId).list();
-        return tournaments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        TournamentFilter filter = new TournamentFilter();
+        filter.firebaseUid = userId;
+        return findTournaments(filter, null, null).getItems();
+    }
+    
+    /**
+     * Convert tournaments loaded with TOURNAMENT_READ_QUERY to DTOs without further per-row queries.
+     */
+    private List<TournamentDto> convertAllToDto(List<Tournament> tournaments) {
+        List<TournamentDto> dtos = new ArrayList<>();
+        for (Tournament tournament : tournaments) {
+            try {
+                TournamentDto dto = convertToDto(tournament);
+                dtos.add(dto);
+            } catch (Exception e) {
+                System.err.println("Error converting tournament " + tournament.getTournamentId() + " to DTO: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return dtos;
     }
     
     /**
@@ -223,10 +371,9 @@ public class TournamentService {
             }
         
             // Add club information
-            if (tournament.getClubId() != null) {
-                clubService.getClubById(tournament.getClubId()).ifPresent(club -> {
-                    dto.setClub(new za.cf.cp.tournament.dto.ClubDto(club.getClubId().toString(), club.getName(), club.getWebsite()));
-                });
+            za.cf.cp.club.Club club = tournament.getClub();
+            if (club != null) {
+                dto.setClub(new za.cf.cp.tournament.dto.ClubDto(club.getClubId().toString(), club.getName(), club.getWebsite()));
             }
             
             // Convert related entities to DTOs
@@ -262,8 +409,10 @@ public class TournamentService {
         dto.setNoOfGroups(tournament.getNoOfGroups());
         
         // Convert Round Robin specific entities to DTOs
+        // Progression type lives on the round robin subtype and can't be fetch-joined from Tournament;
+        // resolve it from the registry by id so the lazy reference is never initialized
         if (tournament.getProgressionType() != null) {
-            dto.setProgressionOption(tournamentConfigService.convertProgressionTypeToDto(tournament.getProgressionType()));
+            dto.setProgressionOption(referenceData.getProgressionOption(referenceId(tournament.getProgressionType())));
         }
         if (tournament.getTeamsToAdvance() != null) {
             dto.setTeamsToAdvance(tournament.getTeamsToAdvance());
@@ -272,6 +421,13 @@ public class TournamentService {
         return dto;
     }
     
+    /**
+     * Read the id of a (possibly uninitialized) entity reference without loading it.
+     */
+    private UUID referenceId(Object entity) {
+        return (UUID) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+    
     /**
      * Convert AmericanoTournament entity to DTO.
      */
@@ -372,77 +528,21 @@ public class TournamentService {
                 }
             }
             
-            // Set related entities if IDs are provided
-            if (dto.getFormat() != null && dto.getFormat().getId() != null) {
-                Format format = Format.findById(UUID.fromString(dto.getFormat().getId()));
-                if (format == null) {
-                    throw new RuntimeException("Format not found with ID: " + dto.getFormat().getId());
-                }
-                tournament.setFormat(format);
-            }
-            if (dto.getCategory() != null && dto.getCategory().getId() != null) {
-                Category category = Category.findById(UUID.fromString(dto.getCategory().getId()));
-                if (category == null) {
-                    throw new RuntimeException("Category not found with ID: " + dto.getCategory().getId());
-                }
-                tournament.setCategory(category);
-            }
-            if (dto.getRegistrationType() != null && dto.getRegistrationType().getId() != null) {
-                RegistrationType registrationType = RegistrationType.findById(UUID.fromString(dto.getRegistrationType().getId()));
-                if (registrationType == null) {
-                    throw new RuntimeException("RegistrationType not found with ID: " + dto.getRegistrationType().getId());
-                }
-                tournament.setRegistrationType(registrationType);
-            }
-            if (dto.getStatus() != null && dto.getStatus().getId() != null) {
-                TournamentStatus status = TournamentStatus.findById(UUID.fromString(dto.getStatus().getId()));
-                if (status == null) {
-                    throw new RuntimeException("TournamentStatus not found with ID: " + dto.getStatus().getId());
-                }
-                tournament.setStatus(status);
-            }
-            if (dto.getVenueType() != null && dto.getVenueType().getId() != null) {
-                VenueType venueType = VenueType.findById(UUID.fromString(dto.getVenueType().getId()));
-                if (venueType == null) {
-                    throw new RuntimeException("VenueType not found with ID: " + dto.getVenueType().getId());
-                }
-                tournament.setVenueType(venueType);
-            }
-            // Set related entities if IDs are provided
+            // Set related entities if IDs are provided (validated against the reference data registry)
             if (dto.getFormat() != null && dto.getFormat().getId() != null) {
-                Format format = Format.findById(UUID.fromString(dto.getFormat().getId()));
-                if (format == null) {
-                    throw new RuntimeException("Format not found with ID: " + dto.getFormat().getId());
-                }
-                tournament.setFormat(format);
+                tournament.setFormat(referenceData.getReference(Format.class, dto.getFormat().getId()));
             }
             if (dto.getCategory() != null && dto.getCategory().getId() != null) {
-                Category category = Category.findById(UUID.fromString(dto.getCategory().getId()));
-                if (category == null) {
-                    throw new RuntimeException("Category not found with ID: " + dto.getCategory().getId());
-                }
-                tournament.setCategory(category);
+                tournament.setCategory(referenceData.getReference(Category.class, dto.getCategory().getId()));
             }
             if (dto.getRegistrationType() != null && dto.getRegistrationType().getId() != null) {
-                RegistrationType registrationType = RegistrationType.findById(UUID.fromString(dto.getRegistrationType().getId()));
-                if (registrationType == null) {
-                    throw new RuntimeException("RegistrationType not found with ID: " + dto.getRegistrationType().getId());
-                }
-                tournament.setRegistrationType(registrationType);
+                tournament.setRegistrationType(referenceData.getReference(RegistrationType.class, dto.getRegistrationType().getId()));
             }
             if (dto.getStatus() != null && dto.getStatus().getId() != null) {
-                TournamentStatus status = TournamentStatus.findById(UUID.fromString(dto.getStatus().getId()));
-                if (status == null) {
-                    throw new RuntimeException("TournamentStatus not found with ID: " + dto.getStatus().getId());
-                }
-                tournament.setStatus(status);
+                tournament.setStatus(referenceData.getReference(TournamentStatus.class, dto.getStatus().getId()));
             }
             if (dto.getVenueType() != null && dto.getVenueType().getId() != null) {
-                VenueType venueType = VenueType.findById(UUID.fromString(dto.getVenueType().getId()));
-                if (venueType == null) {
-                    throw new RuntimeException("VenueType not found with ID: " + dto.getVenueType().getId());
-                }
-                tournament.setVenueType(venueType);
+                tournament.setVenueType(referenceData.getReference(VenueType.class, dto.getVenueType().getId()));
             }
             
             return tournament;
@@ -466,11 +566,7 @@ public class TournamentService {
         
         // Set Round Robin specific entities
         if (dto.getProgressionOption() != null && dto.getProgressionOption().getId() != null) {
-            ProgressionType progressionType = ProgressionType.findById(UUID.fromString(dto.getProgressionOption().getId()));
-            if (progressionType == null) {
-                throw new RuntimeException("ProgressionType not found with ID: " + dto.getProgressionOption().getId());
-            }
-            tournament.setProgressionType(progressionType);
+            tournament.setProgressionType(referenceData.getReference(ProgressionType.class, dto.getProgressionOption().getId()));
         }
         
         // Set teams to advance
@@ -546,24 +642,19 @@ public class TournamentService {
         
         // Update related entities if provided
         if (dto.getFormat() != null && dto.getFormat().getId() != null) {
-            Format format = Format.findById(UUID.fromString(dto.getFormat().getId()));
-            tournament.setFormat(format);
+            tournament.setFormat(referenceData.getReference(Format.class, dto.getFormat().getId()));
         }
         if (dto.getCategory() != null && dto.getCategory().getId() != null) {
-            Category category = Category.findById(UUID.fromString(dto.getCategory().getId()));
-            tournament.setCategory(category);
+            tournament.setCategory(referenceData.getReference(Category.class, dto.getCategory().getId()));
         }
         if (dto.getRegistrationType() != null && dto.getRegistrationType().getId() != null) {
-            RegistrationType registrationType = RegistrationType.findById(UUID.fromString(dto.getRegistrationType().getId()));
-            tournament.setRegistrationType(registrationType);
+            tournament.setRegistrationType(referenceData.getReference(RegistrationType.class, dto.getRegistrationType().getId()));
         }
         if (dto.getStatus() != null && dto.getStatus().getId() != null) {
-            TournamentStatus status = TournamentStatus.findById(UUID.fromString(dto.getStatus().getId()));
-            tournament.setStatus(status);
+            tournament.setStatus(referenceData.getReference(TournamentStatus.class, dto.getStatus().getId()));
         }
         if (dto.getVenueType() != null && dto.getVenueType().getId() != null) {
-            VenueType venueType = VenueType.findById(UUID.fromString(dto.getVenueType().getId()));
-            tournament.setVenueType(venueType);
+            tournament.setVenueType(referenceData.getReference(VenueType.class, dto.getVenueType().getId()));
         }
         
         // Update tournament-specific fields based on type
@@ -582,8 +673,7 @@ public class TournamentService {
             tournament.setNoOfGroups(dto.getNoOfGroups());
         }
         if (dto.getProgressionOption() != null && dto.getProgressionOption().getId() != null) {
-            ProgressionType progressionType = ProgressionType.findById(UUID.fromString(dto.getProgressionOption().getId()));
-            tournament.setProgressionType(progressionType);
+            tournament.setProgressionType(referenceData.getReference(ProgressionType.class, dto.getProgressionOption().getId()));
         }
 
         if (dto.getTeamsToAdvance() != null) {
@@ -697,8 +787,7 @@ public class TournamentService {
             }
 
             // Parse participant data from JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.valueToTree(participantData);
+            JsonNode jsonNode = objectMapper.valueToTree(participantData);
             
             // Check if participant already exists
             String uid = jsonNode.get("uid").asText();
@@ -777,6 +866,21 @@ public class TournamentService {
         }
     }
 
+    /**
+     * Prime the user authentication cache for every participant of a tournament.
+     * Returns the number of participants whose authorization data is now cached.
+     */
+    @Transactional
+    public int warmParticipantAuthCache(String tournamentId) {
+        UUID id = UUID.fromString(tournamentId);
+        @SuppressWarnings("unchecked")
+        List<String> firebaseUids = (List<String>) entityManager.createNativeQuery(
+                        "SELECT DISTINCT firebase_uid FROM core.tournament_participant WHERE tournament_id = ?")
+                .setParameter(1, id)
+                .getResultList();
+        return userService.warmUserCache(firebaseUids);
+    }
+
     // ==================== TOURNAMENT GROUPS ====================
 
     /**
@@ -805,7 +909,9 @@ public class TournamentService {
     }
 
     /**
-     * Create tournament groups.
+     * Create tournament groups. With {@code "seeding": "rating"} the tournament's teams are
+     * spread over the new groups so that group strengths are as even as possible (see
+     * {@link #seedTournamentGroups}).
      */
     @Transactional
     public List<Object> createTournamentGroups(String tournamentId, Object groupData) {
@@ -817,8 +923,7 @@ public class TournamentService {
             }
 
             // Parse group data from JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.valueToTree(groupData);
+            JsonNode jsonNode = objectMapper.valueToTree(groupData);
             
             int maxParticipants = jsonNode.get("maxParticipants").asInt();
             int noOfGroups = jsonNode.get("noOfGroups").asInt();
@@ -827,6 +932,7 @@ public class TournamentService {
             int teamsPerGroup = maxParticipants / 2 / noOfGroups;
             
             List<Object> createdGroups = new ArrayList<>();
+            List<TournamentGroup> groups = new ArrayList<>();
             
             // Create groups
             for (int i = 1; i <= noOfGroups; i++) {
@@ -846,7 +952,16 @@ public class TournamentService {
                 }
                 
                 group.persist();
-                
+                groups.add(group);
+            }
+
+            // Optionally spread the tournament's teams over the new groups by rating
+            if (jsonNode.has("seeding") && "rating".equals(jsonNode.get("seeding").asText())) {
+                boolean separateClubs = !jsonNode.has("separateClubs") || jsonNode.get("separateClubs").asBoolean();
+                seedTeams(tournament.tournamentId, groups, separateClubs);
+            }
+
+            for (TournamentGroup group : groups) {
                 // Convert to DTO for response
                 Map<String, Object> groupDto = new HashMap<>();
                 groupDto.put("id", group.groupId.toString());
@@ -856,7 +971,6 @@ public class TournamentService {
                 groupDto.put("currentTeams", group.currentTeams);
                 groupDto.put("venueId", group.venueId);
 
-                
                 createdGroups.add(groupDto);
             }
             
@@ -866,6 +980,102 @@ public class TournamentService {
         }
     }
 
+    /**
+     * Reassign all teams of a tournament to its existing groups, balancing the groups' combined
+     * ratings and, unless {@code separateClubs} is false, keeping teams of the same club apart.
+     * Group sizes end up within one of each other.
+     *
+     * @throws IllegalStateException if group matches or standings already exist
+     * @throws IllegalArgumentException if the teams don't fit in the groups' maxTeams
+     */
+    @Transactional
+    public List<Object> seedTournamentGroups(String tournamentId, boolean separateClubs) {
+        UUID id;
+        try {
+            id = UUID.fromString(tournamentId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid tournament ID format: " + tournamentId);
+        }
+        List<TournamentGroup> groups = TournamentGroup.list(
+                "tournament.tournamentId = ?1 order by length(name), name", id);
+        if (groups.isEmpty()) {
+            throw new IllegalArgumentException("Tournament has no groups to seed: " + tournamentId);
+        }
+        seedTeams(id, groups, separateClubs);
+        return getTournamentGroups(tournamentId);
+    }
+
+    /**
+     * Seed the tournament's teams into {@code groups} (best team into the first group) and
+     * update the group team counts. Teams without a combined rating count as 0; a team's club is
+     * the first club membership of its first player, or of its second player if the first has none.
+     */
+    private void seedTeams(UUID tournamentId, List<TournamentGroup> groups, boolean separateClubs) {
+        // Group matches and standings refer to the groups the teams are in now
+        if (TournamentMatch.count("tournament.tournamentId = ?1 and group is not null", tournamentId) > 0
+                || TournamentStanding.count("tournamentId", tournamentId.toString()) > 0) {
+            throw new IllegalStateException("Teams can't be reseeded once group matches or standings exist");
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                SELECT t.team_id,
+                       COALESCE(t.combined_rating, 0),
+                       COALESCE(
+                           (SELECT MIN(CAST(uc.club_id AS text)) FROM core.user_club uc WHERE uc.firebase_uid = t.player1_firebase_uid),
+                           (SELECT MIN(CAST(uc.club_id AS text)) FROM core.user_club uc WHERE uc.firebase_uid = t.player2_firebase_uid))
+                FROM core.tournament_team t
+                WHERE t.tournament_id = ?
+                ORDER BY t.team_id
+                """)
+                .setParameter(1, tournamentId)
+                .getResultList();
+
+        int[] ratings = new int[rows.size()];
+        int[] clubs = new int[rows.size()];
+        Map<String, Integer> clubIndex = new HashMap<>();
+        for (int team = 0; team < rows.size(); team++) {
+            Object[] row = rows.get(team);
+            ratings[team] = ((Number) row[1]).intValue();
+            String club = (String) row[2];
+            clubs[team] = club == null ? GroupSeeder.NO_CLUB : clubIndex.computeIfAbsent(club, key -> clubIndex.size());
+        }
+
+        int[] groupOf = GroupSeeder.seed(ratings, separateClubs ? clubs : null, groups.size(),
+                tournamentId.getMostSignificantBits());
+
+        int[] sizes = new int[groups.size()];
+        for (int group : groupOf) {
+            sizes[group]++;
+        }
+        for (int group = 0; group < groups.size(); group++) {
+            Integer maxTeams = groups.get(group).maxTeams;
+            if (maxTeams != null && sizes[group] > maxTeams) {
+                throw new IllegalArgumentException(rows.size() + " teams don't fit in " + groups.size()
+                        + " groups: " + groups.get(group).name + " takes " + maxTeams + " teams, seeding places " + sizes[group]);
+            }
+        }
+
+        Map<UUID, TournamentTeam> teams = TournamentTeam.<TournamentTeam>list("tournament.tournamentId", tournamentId)
+                .stream()
+                .collect(Collectors.toMap(team -> team.teamId, team -> team));
+        for (int team = 0; team < rows.size(); team++) {
+            TournamentTeam entity = teams.get((UUID) rows.get(team)[0]);
+            if (entity != null) {
+                entity.group = groups.get(groupOf[team]);
+            }
+        }
+
+        // Teams may have been moved out of groups that are not being seeded
+        for (TournamentGroup group : TournamentGroup.<TournamentGroup>list("tournament.tournamentId", tournamentId)) {
+            group.currentTeams = 0;
+        }
+        for (int group = 0; group < groups.size(); group++) {
+            groups.get(group).currentTeams = sizes[group];
+        }
+        entityManager.flush();
+    }
+
     /**
      * Delete all tournament groups.
      */
@@ -900,8 +1110,7 @@ public class TournamentService {
             }
             
             // Parse group data from JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.valueToTree(groupData);
+            JsonNode jsonNode = objectMapper.valueToTree(groupData);
             
             // Update fields if provided
             if (jsonNode.has("name") && !jsonNode.get("name").isNull()) {
@@ -1065,8 +1274,7 @@ public class TournamentService {
             }
             
             // Parse team data from JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.valueToTree(teamData);
+            JsonNode jsonNode = objectMapper.valueToTree(teamData);
             
             // Create new team
             TournamentTeam team = new TournamentTeam();
@@ -1156,8 +1364,7 @@ public class TournamentService {
             }
             
             // Parse team data from JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.valueToTree(teamData);
+            JsonNode jsonNode = objectMapper.valueToTree(teamData);
             
             // Update team name
             if (jsonNode.has("name")) {
@@ -1226,187 +1433,163 @@ public class TournamentService {
             // Find all matches for this tournament
             List<TournamentMatch> matches = TournamentMatch.find("tournament.tournamentId", id).list();
             
-            return matches.stream().map(match -> {
-                Map<String, Object> matchDto = new HashMap<>();
-                matchDto.put("id", match.matchId.toString());
-                matchDto.put("tournamentId", tournamentId);
-                matchDto.put("groupId", match.group != null ? match.group.groupId.toString() : null);
-                matchDto.put("phase", match.phase);
-                matchDto.put("round", match.round);
-                matchDto.put("team1Id", match.team1 != null ? match.team1.teamId.toString() : null);
-                matchDto.put("team2Id", match.team2 != null ? match.team2.teamId.toString() : null);
-                matchDto.put("team1Score", match.team1Score);
-                matchDto.put("team2Score", match.team2Score);
-                matchDto.put("team1Set1", match.team1Set1);
-                matchDto.put("team2Set1", match.team2Set1);
-                matchDto.put("team1Set2", match.team1Set2);
-                matchDto.put("team2Set2", match.team2Set2);
-                matchDto.put("team1Set3", match.team1Set3);
-                matchDto.put("team2Set3", match.team2Set3);
-                matchDto.put("winnerId", match.winner != null ? match.winner.teamId.toString() : null);
-                matchDto.put("status", match.status);
-                matchDto.put("scheduledTime", match.scheduledTime);
-                matchDto.put("venueId", match.venueId);
-                
-                return matchDto;
-            }).collect(Collectors.toList());
+            return matches.stream()
+                    .map(match -> (Object) matchDto(match, tournamentId))
+                    .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RuntimeException("Error retrieving tournament matches: " + e.getMessage(), e);
         }
     }
 
+    private Map<String, Object> matchDto(TournamentMatch match, String tournamentId) {
+        Map<String, Object> matchDto = new HashMap<>();
+        matchDto.put("id", match.matchId.toString());
+        matchDto.put("tournamentId", tournamentId);
+        matchDto.put("groupId", match.group != null ? match.group.groupId.toString() : null);
+        matchDto.put("phase", match.phase);
+        matchDto.put("round", match.round);
+        matchDto.put("team1Id", match.team1 != null ? match.team1.teamId.toString() : null);
+        matchDto.put("team2Id", match.team2 != null ? match.team2.teamId.toString() : null);
+        matchDto.put("team1Score", match.team1Score);
+        matchDto.put("team2Score", match.team2Score);
+        matchDto.put("team1Set1", match.team1Set1);
+        matchDto.put("team2Set1", match.team2Set1);
+        matchDto.put("team1Set2", match.team1Set2);
+        matchDto.put("team2Set2", match.team2Set2);
+        matchDto.put("team1Set3", match.team1Set3);
+        matchDto.put("team2Set3", match.team2Set3);
+        matchDto.put("winnerId", match.winner != null ? match.winner.teamId.toString() : null);
+        matchDto.put("status", match.status);
+        matchDto.put("scheduledTime", match.scheduledTime);
+        matchDto.put("venueId", match.venueId);
+        matchDto.put("court", match.court);
+        matchDto.put("version", match.version);
+        return matchDto;
+    }
+
     /**
-     * Update match score.
+     * Apply a referee's score update; only the fields supplied change.
+     *
+     * Fails with an {@link OptimisticLockException} when the update names a version the match is
+     * no longer at, or when another update to the match commits first. Returns the updated match,
+     * including its new version, or empty if there is no such match.
      */
     @Transactional
-    public void updateMatchScore(String matchId, Object matchData) {
+    public Optional<Map<String, Object>> updateMatchScore(String matchId, MatchScoreUpdate update) {
+        if (update == null) {
+            throw new IllegalArgumentException("Score update is required");
+        }
+        UUID id;
         try {
-            UUID id = UUID.fromString(matchId);
-            
-            // Find the match
-            TournamentMatch match = TournamentMatch.findById(id);
-            if (match == null) {
-                throw new RuntimeException("Match not found: " + matchId);
-            }
-            
-            // Parse the match data from JSON
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode jsonNode = mapper.valueToTree(matchData);
-            
-            // Update match fields if provided
-            boolean hasScores = false;
-            
-            if (jsonNode.has("team1Score")) {
-                match.team1Score = jsonNode.get("team1Score").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team2Score")) {
-                match.team2Score = jsonNode.get("team2Score").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team1Set1")) {
-                match.team1Set1 = jsonNode.get("team1Set1").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team2Set1")) {
-                match.team2Set1 = jsonNode.get("team2Set1").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team1Set2")) {
-                match.team1Set2 = jsonNode.get("team1Set2").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team2Set2")) {
-                match.team2Set2 = jsonNode.get("team2Set2").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team1Set3")) {
-                match.team1Set3 = jsonNode.get("team1Set3").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("team2Set3")) {
-                match.team2Set3 = jsonNode.get("team2Set3").asInt();
-                hasScores = true;
-            }
-            if (jsonNode.has("winnerId")) {
-                String winnerId = jsonNode.get("winnerId").asText();
-                if (winnerId != null && !winnerId.isEmpty()) {
-                    UUID winnerTeamId = UUID.fromString(winnerId);
-                    match.winner = TournamentTeam.findById(winnerTeamId);
-                } else {
-                    match.winner = null;
-                }
-            }
-            if (jsonNode.has("status")) {
-                match.status = jsonNode.get("status").asText();
-            }
-            if (jsonNode.has("scheduledTime")) {
-                String scheduledTimeStr = jsonNode.get("scheduledTime").asText();
-                if (scheduledTimeStr != null && !scheduledTimeStr.isEmpty()) {
-                    try {
-                        // Handle different datetime formats
-                        if (scheduledTimeStr.contains("T")) {
-                            // ISO format like "2025-08-04T20:00:00.000Z" or "2025-08-04T20:00"
-                            String cleanTime = scheduledTimeStr.replace("Z", "").replace(".000", "");
-                            if (cleanTime.length() == 16) {
-                                // Format: "2025-08-04T20:00" - add seconds
-                                cleanTime += ":00";
-                            }
-                            match.scheduledTime = LocalDateTime.parse(cleanTime);
-                        } else {
-                            // Handle other formats if needed
-                            match.scheduledTime = LocalDateTime.parse(scheduledTimeStr);
-                        }
-                    } catch (Exception e) {
-                        // Don't update if parsing fails
-                    }
-                } else {
-                    match.scheduledTime = null;
-                }
-            }
-            if (jsonNode.has("venueId")) {
-                String venueId = jsonNode.get("venueId").asText();
-                if (venueId != null && !venueId.isEmpty()) {
-                    match.venueId = venueId;
-                } else {
-                    match.venueId = null;
-                }
-            }
-            
-            // Update match status based on whether the match is actually completed
-            if (hasScores) {
-                // For knockout matches, only set to completed if we have enough sets to determine a winner
-                if (match.phase != null && !match.phase.equals("group")) {
-                    // Knockout match - check if we have at least 2 sets with scores to determine winner
-                    int completedSets = 0;
-                    if (match.team1Set1 != null && match.team2Set1 != null && 
-                        !(match.team1Set1 == 0 && match.team2Set1 == 0)) {
-                        completedSets++;
-                    }
-                    if (match.team1Set2 != null && match.team2Set2 != null && 
-                        !(match.team1Set2 == 0 && match.team2Set2 == 0)) {
-                        completedSets++;
-                    }
-                    if (match.team1Set3 != null && match.team2Set3 != null && 
-                        !(match.team1Set3 == 0 && match.team2Set3 == 0)) {
-                        completedSets++;
-                    }
-                    
-                    // Only set to completed if we have at least 2 sets and can determine a winner
-                    if (completedSets >= 2) {
-                        match.status = "completed";
-                    } else {
-                        match.status = "in_progress";
-                    }
-                } else {
-                    // Group match - set to completed if scores are provided
-                    match.status = "completed";
-                }
-            }
-            
-            // Use merge to ensure the entity is properly managed and changes are persisted
-            entityManager.merge(match);
-            
-            // Force flush to ensure the data is written to the database
-            entityManager.flush();
-            
-            // Check for auto-generation opportunities (but do it in a separate transaction to avoid interference)
-            if (match.status != null && match.status.equals("completed")) {
-                try {
-                    checkAndAutoGenerateNextRound(match);
-                } catch (Exception e) {
-                    // Don't let auto-generation errors break match updates
-                    System.err.println("Error in auto-generation: " + e.getMessage());
-                }
-            }
-            
-            // Recalculate standings for the group (only for group matches, not knockout matches)
-            if (match.group != null) {
-                calculateAndUpdateStandings(match.tournament.tournamentId.toString(), match.group.groupId.toString());
+            id = UUID.fromString(matchId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid match ID format: " + matchId);
+        }
+
+        TournamentMatch match = TournamentMatch.findById(id);
+        if (match == null) {
+            return Optional.empty();
+        }
+        if (update.version() != null && !update.version().equals(match.version)) {
+            throw new OptimisticLockException("Match " + matchId + " was updated by someone else (now at version "
+                    + match.version + ", update was for version " + update.version() + ")");
+        }
+        boolean hasScores = update.hasScores();
+        if (hasScores && (match.team1 == null || match.team2 == null)) {
+            throw new IllegalArgumentException("Teams of match " + matchId + " are not decided yet");
+        }
+
+        // Remember what the match contributed to the standings before this update
+        StandingsEngine.MatchOutcome previousOutcome = match.group != null ? outcomeOf(match) : null;
+
+        if (update.team1Score() != null) {
+            match.team1Score = update.team1Score();
+        }
+        if (update.team2Score() != null) {
+            match.team2Score = update.team2Score();
+        }
+        if (update.team1Set1() != null) {
+            match.team1Set1 = update.team1Set1();
+        }
+        if (update.team2Set1() != null) {
+            match.team2Set1 = update.team2Set1();
+        }
+        if (update.team1Set2() != null) {
+            match.team1Set2 = update.team1Set2();
+        }
+        if (update.team2Set2() != null) {
+            match.team2Set2 = update.team2Set2();
+        }
+        if (update.team1Set3() != null) {
+            match.team1Set3 = update.team1Set3();
+        }
+        if (update.team2Set3() != null) {
+            match.team2Set3 = update.team2Set3();
+        }
+        if (update.winnerId() != null) {
+            match.winner = update.winnerId().isEmpty()
+                    ? null
+                    : entityManager.getReference(TournamentTeam.class, parseTeamId(update.winnerId()));
+        }
+        if (update.status() != null) {
+            match.status = update.status();
+        }
+        if (update.scheduledTime() != null) {
+            match.scheduledTime = update.scheduledTime().isEmpty() ? null : parseScheduledTime(update.scheduledTime());
+        }
+        if (update.venueId() != null) {
+            match.venueId = update.venueId().isEmpty() ? null : update.venueId();
+        }
+
+        // Update match status based on whether the match is actually completed
+        if (hasScores) {
+            // Knockout matches are completed once two sets decide them; group matches by any score
+            if (match.phase != null && !match.phase.equals("group")) {
+                match.status = calculateMatchResult(match).isComplete ? "completed" : "in_progress";
+            } else {
+                match.status = "completed";
             }
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Error updating match score: " + e.getMessage(), e);
+        }
+        if (match.group == null && "completed".equals(match.status)) {
+            // Record the knockout winner in this same write, so the match changes version once
+            match.winner = winnerOf(match);
+        }
+
+        // Write now so a concurrent update surfaces here as a version conflict
+        entityManager.flush();
+        publishMatch("match.updated", match);
+
+        // Check for auto-generation opportunities
+        if ("completed".equals(match.status)) {
+            checkAndAutoGenerateNextRound(match);
+        }
+
+        // Update standings for the group (only for group matches, not knockout matches)
+        if (match.group != null) {
+            updateStandingsForMatch(match, previousOutcome);
+        }
+
+        entityManager.flush();
+        return Optional.of(matchDto(match, match.tournament.tournamentId.toString()));
+    }
+
+    private static UUID parseTeamId(String teamId) {
+        try {
+            return UUID.fromString(teamId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid winner team ID format: " + teamId);
+        }
+    }
+
+    /**
+     * Parse an ISO date-time as sent by browsers ("2025-08-04T20:00", "2025-08-04T20:00:00.000Z").
+     * Any offset is dropped: scheduled times are local to the venue.
+     */
+    static LocalDateTime parseScheduledTime(String scheduledTime) {
+        try {
+            return LocalDateTime.parse(scheduledTime, DateTimeFormatter.ISO_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid scheduledTime: " + scheduledTime);
         }
     }
 
@@ -1415,6 +1598,15 @@ public class TournamentService {
      */
     @Transactional
     public List<Object> generateAllGroupMatches(String tournamentId) {
+        return generateAllGroupMatches(tournamentId, FixtureScheduler.Algorithm.CIRCLE, 0);
+    }
+
+    /**
+     * Generate all group matches for a tournament with the given scheduling algorithm.
+     * Fixtures are computed in memory and all matches are inserted in one JDBC batch.
+     */
+    @Transactional
+    public List<Object> generateAllGroupMatches(String tournamentId, FixtureScheduler.Algorithm algorithm, int courts) {
         try {
             UUID id = UUID.fromString(tournamentId);
             
@@ -1430,39 +1622,33 @@ public class TournamentService {
                 throw new RuntimeException("No groups found for tournament: " + tournamentId);
             }
             
-            List<Object> generatedMatches = new ArrayList<>();
+            // Get the teams of all groups in one query
+            Map<UUID, List<TournamentTeam>> teamsByGroup = new HashMap<>();
+            List<TournamentTeam> allTeams = TournamentTeam.find("tournament.tournamentId = ?1 and group is not null", id).list();
+            for (TournamentTeam team : allTeams) {
+                teamsByGroup.computeIfAbsent(team.group.groupId, groupId -> new ArrayList<>()).add(team);
+            }
+            
+            List<TournamentMatch> matches = new ArrayList<>();
             
-            // Generate matches for each group
             for (TournamentGroup group : groups) {
-                List<TournamentTeam> teams = TournamentTeam.find("group.groupId", group.groupId).list();
+                List<TournamentTeam> teams = teamsByGroup.getOrDefault(group.groupId, List.of());
                 
-                if (teams.size() < 2) {
-                    continue;
-                }
-                
-                // Generate round-robin matches for this group
-                List<TournamentMatch> groupMatches = generateRoundRobinMatches(tournament, group, teams);
-                
-                // Convert matches to DTOs for response
-                for (TournamentMatch match : groupMatches) {
-                    Map<String, Object> matchDto = new HashMap<>();
-                    matchDto.put("id", match.matchId.toString());
-                    matchDto.put("tournamentId", tournamentId);
-                    matchDto.put("groupId", group.groupId.toString());
-                    matchDto.put("phase", match.phase);
-                    matchDto.put("round", match.round);
-                    matchDto.put("team1Id", match.team1.teamId.toString());
-                    matchDto.put("team2Id", match.team2.teamId.toString());
-                    matchDto.put("team1Score", match.team1Score);
-                    matchDto.put("team2Score", match.team2Score);
-                    matchDto.put("status", match.status);
-                    matchDto.put("scheduledTime", match.scheduledTime);
-                    matchDto.put("venueId", match.venueId);
-                    
-                    generatedMatches.add(matchDto);
+                for (FixtureScheduler.Fixture fixture : FixtureScheduler.schedule(teams.size(), algorithm, courts)) {
+                    TournamentTeam team1 = teams.get(fixture.home());
+                    TournamentTeam team2 = teams.get(fixture.away());
+                    matches.add(newGroupMatch(tournament, group, team1, team2, fixture));
                 }
             }
             
+            persistInOneBatch(matches);
+            
+            // Match ids are only assigned on persist
+            List<Object> generatedMatches = new ArrayList<>(matches.size());
+            for (TournamentMatch match : matches) {
+                generatedMatches.add(new GeneratedMatchDto(match, tournamentId, match.group.groupId.toString(),
+                        match.team1.teamId.toString(), match.team2.teamId.toString()));
+            }
             return generatedMatches;
         } catch (Exception e) {
             throw new RuntimeException("Error generating group matches: " + e.getMessage(), e);
@@ -1470,157 +1656,231 @@ public class TournamentService {
     }
 
     /**
-     * Generate round-robin matches for a group.
+     * Create (but don't persist) a scheduled group match for a fixture.
      */
-    private List<TournamentMatch> generateRoundRobinMatches(Tournament tournament, TournamentGroup group, List<TournamentTeam> teams) {
-        List<TournamentMatch> matches = new ArrayList<>();
-        
-        int numTeams = teams.size();
-        if (numTeams < 2) {
-            return matches;
+    private TournamentMatch newGroupMatch(Tournament tournament, TournamentGroup group,
+                                          TournamentTeam team1, TournamentTeam team2,
+                                          FixtureScheduler.Fixture fixture) {
+        TournamentMatch match = new TournamentMatch();
+        match.tournament = tournament;
+        match.group = group;
+        match.phase = "group";
+        match.round = fixture.round();
+        match.team1 = team1;
+        match.team2 = team2;
+        match.team1Score = null;
+        match.team2Score = null;
+        match.status = "scheduled";
+        match.scheduledTime = null; // Will be set later
+        match.venueId = group.venueId;
+        match.court = fixture.court();
+        return match;
+    }
+
+    /**
+     * Persist new matches and flush them as a single JDBC batch.
+     */
+    private void persistInOneBatch(List<TournamentMatch> matches) {
+        if (matches.isEmpty()) {
+            return;
         }
+        Session session = entityManager.unwrap(Session.class);
+        Integer configuredBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(matches.size(), configuredBatchSize != null ? configuredBatchSize : 0));
+        try {
+            for (TournamentMatch match : matches) {
+                entityManager.persist(match);
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(configuredBatchSize);
+        }
+    }
+
+    /**
+     * Apply a changed match result to the group standings.
+     * Only the two teams of the match change their numbers; positions are re-ranked in memory and
+     * dirty checking writes just the rows that actually changed.
+     */
+    private void updateStandingsForMatch(TournamentMatch match, StandingsEngine.MatchOutcome previousOutcome) {
+        String tournamentId = match.tournament.tournamentId.toString();
+        String groupId = match.group.groupId.toString();
         
-        // For round-robin, we need (n-1) rounds where n is the number of teams
-        int numRounds = numTeams - 1;
-        int matchesPerRound = numTeams / 2;
-        
-        // Create a copy of teams list to manipulate
-        List<TournamentTeam> teamList = new ArrayList<>(teams);
+        List<TournamentStanding> standings = TournamentStanding.findByTournamentAndGroup(tournamentId, groupId);
+        if (standings.isEmpty()) {
+            // Standings not initialised for this group yet
+            calculateAndUpdateStandings(tournamentId, groupId);
+            return;
+        }
         
-        // If odd number of teams, add a "bye" team (null)
-        if (numTeams % 2 != 0) {
-            teamList.add(null);
-            numTeams++;
-            numRounds = numTeams - 1;
-            matchesPerRound = numTeams / 2;
+        StandingsEngine.MatchOutcome outcome = outcomeOf(match);
+        if (Objects.equals(previousOutcome, outcome)) {
+            return;
         }
         
-        // Generate matches for each round
-        for (int round = 1; round <= numRounds; round++) {
-            // Generate matches for this round
-            for (int i = 0; i < matchesPerRound; i++) {
-                int team1Index = i;
-                int team2Index = numTeams - 1 - i;
-                
-                // Skip if either team is "bye"
-                if (teamList.get(team1Index) != null && teamList.get(team2Index) != null) {
-                    TournamentMatch match = new TournamentMatch();
-                    match.tournament = tournament;
-                    match.group = group;
-                    match.phase = "group";
-                    match.round = round;
-                    match.team1 = teamList.get(team1Index);
-                    match.team2 = teamList.get(team2Index);
-                    match.team1Score = null;
-                    match.team2Score = null;
-                    match.status = "scheduled";
-                    match.scheduledTime = null; // Will be set later
-                    match.venueId = group.venueId;
-                    
-                    match.persist();
-                    matches.add(match);
-                }
-            }
-            
-            // Rotate teams for next round (keep first team fixed, rotate the rest)
-            if (round < numRounds) {
-                TournamentTeam lastTeam = teamList.remove(teamList.size() - 1);
-                teamList.add(1, lastTeam);
-            }
+        Map<String, List<Integer>> before = standingValues(standings);
+        Map<String, TournamentStanding> standingsByTeam = standings.stream()
+                .collect(Collectors.toMap(standing -> standing.teamId, standing -> standing, (first, duplicate) -> first));
+        if (!StandingsEngine.applyDelta(standingsByTeam, previousOutcome, outcome)) {
+            // A team of this match has no standing yet
+            calculateAndUpdateStandings(tournamentId, groupId);
+            return;
         }
         
-        return matches;
+        StandingsEngine.rank(standings, getTeamNames(match.group.groupId));
+        publishChangedStandings(match.tournament.tournamentId, standings, before);
     }
-
+    
     /**
-     * Calculate and update standings for a tournament group.
+     * Calculate and update standings for a tournament group from all of its matches.
+     * Used to repair standings; score updates go through the incremental path.
      */
     @Transactional
     public void calculateAndUpdateStandings(String tournamentId, String groupId) {
         try {
+            UUID tournamentUuid = UUID.fromString(tournamentId);
+            UUID groupUuid = UUID.fromString(groupId);
+            
             // Get all teams in the group
-            List<TournamentTeam> teams = TournamentTeam.find("tournament.tournamentId = ?1 and group.groupId = ?2", UUID.fromString(tournamentId), UUID.fromString(groupId)).list();
+            List<TournamentTeam> teams = TournamentTeam.find("tournament.tournamentId = ?1 and group.groupId = ?2", tournamentUuid, groupUuid).list();
             
             // Get all matches for the group
-            List<TournamentMatch> matches = TournamentMatch.find("tournament.tournamentId = ?1 and group.groupId = ?2", UUID.fromString(tournamentId), UUID.fromString(groupId)).list();
+            List<TournamentMatch> matches = TournamentMatch.find("tournament.tournamentId = ?1 and group.groupId = ?2", tournamentUuid, groupUuid).list();
             
-            // Initialize standings for all teams
+            // Reuse existing standings, creating one for each team that doesn't have one yet
+            List<TournamentStanding> standings = TournamentStanding.findByTournamentAndGroup(tournamentId, groupId);
+            Map<String, List<Integer>> before = standingValues(standings);
+            Map<String, TournamentStanding> existing = standings.stream()
+                    .collect(Collectors.toMap(standing -> standing.teamId, standing -> standing, (first, duplicate) -> first));
             Map<String, TournamentStanding> standingsMap = new HashMap<>();
+            Map<String, String> teamNames = new HashMap<>();
             
             for (TournamentTeam team : teams) {
-                TournamentStanding standing = TournamentStanding.findByTournamentGroupAndTeam(tournamentId, groupId, team.teamId.toString());
+                String teamId = team.teamId.toString();
+                TournamentStanding standing = existing.get(teamId);
                 if (standing == null) {
                     standing = new TournamentStanding();
                     standing.tournamentId = tournamentId;
                     standing.groupId = groupId;
-                    standing.teamId = team.teamId.toString();
-                }
-                
-                // Reset stats
-                standing.matchesPlayed = 0;
-                standing.matchesWon = 0;
-                standing.matchesLost = 0;
-                standing.matchesDrawn = 0;
-                standing.goalsFor = 0;
-                standing.goalsAgainst = 0;
-                standing.goalDifference = 0;
-                standing.points = 0;
-                
-                standingsMap.put(team.teamId.toString(), standing);
-            }
-            
-            // Calculate standings from matches
-            for (TournamentMatch match : matches) {
-                if (match.team1Set1 == null || match.team2Set1 == null) {
-                    continue; // Skip incomplete matches
-                }
-                
-                // Calculate match result using the new set-based scoring system
-                MatchResult result = calculateMatchResult(match);
-                
-                if (result.isComplete) {
-                    TournamentStanding team1Standing = standingsMap.get(match.team1.teamId.toString());
-                    TournamentStanding team2Standing = standingsMap.get(match.team2.teamId.toString());
-                    
-                    if (team1Standing != null && team2Standing != null) {
-                        // Update goals (total points from sets)
-                        team1Standing.goalsFor += result.team1Total;
-                        team1Standing.goalsAgainst += result.team2Total;
-                        team2Standing.goalsFor += result.team2Total;
-                        team2Standing.goalsAgainst += result.team1Total;
-                        
-                        // Update match results
-                        if (result.winner.equals(match.team1.teamId.toString())) {
-                            team1Standing.matchesWon++;
-                            team2Standing.matchesLost++;
-                        } else if (result.winner.equals(match.team2.teamId.toString())) {
-                            team2Standing.matchesWon++;
-                            team1Standing.matchesLost++;
-                        } else {
-                            // Draw (shouldn't happen in padel, but just in case)
-                            team1Standing.matchesDrawn++;
-                            team2Standing.matchesDrawn++;
-                        }
-                    }
+                    standing.teamId = teamId;
+                    standing.persist();
+                    standings.add(standing);
                 }
+                standingsMap.put(teamId, standing);
+                teamNames.put(teamId, team.name);
             }
             
-            // Calculate derived fields and save standings
-            for (TournamentStanding standing : standingsMap.values()) {
-                standing.calculateMatchesPlayed();
-                standing.calculateGoalDifference();
-                standing.calculatePoints();
-                standing.persist();
-            }
+            List<StandingsEngine.MatchOutcome> outcomes = matches.stream()
+                    .map(this::outcomeOf)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            StandingsEngine.recompute(standingsMap, outcomes);
             
             // Calculate positions
-            calculatePositions(tournamentId, groupId);
+            StandingsEngine.rank(standings, teamNames);
+            publishChangedStandings(tournamentUuid, standings, before);
             
         } catch (Exception e) {
             throw new RuntimeException("Error calculating standings: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Get what a match contributes to the standings, or null if it doesn't count (yet).
+     */
+    private StandingsEngine.MatchOutcome outcomeOf(TournamentMatch match) {
+        if (match.team1 == null || match.team2 == null) {
+            return null;
+        }
+        return StandingsEngine.outcome(match.team1.teamId.toString(), match.team2.teamId.toString(),
+                match.team1Set1, match.team2Set1,
+                match.team1Set2, match.team2Set2,
+                match.team1Set3, match.team2Set3);
+    }
+    
+    /**
+     * Push a match's current state to live viewers of its tournament (delivered after commit).
+     */
+    private void publishMatch(String type, TournamentMatch match) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", match.matchId.toString());
+        data.put("groupId", match.group != null ? match.group.groupId.toString() : null);
+        data.put("phase", match.phase);
+        data.put("round", match.round);
+        data.put("team1Id", match.team1 != null ? match.team1.teamId.toString() : null);
+        data.put("team2Id", match.team2 != null ? match.team2.teamId.toString() : null);
+        data.put("team1Score", match.team1Score);
+        data.put("team2Score", match.team2Score);
+        data.put("team1Set1", match.team1Set1);
+        data.put("team2Set1", match.team2Set1);
+        data.put("team1Set2", match.team1Set2);
+        data.put("team2Set2", match.team2Set2);
+        data.put("team1Set3", match.team1Set3);
+        data.put("team2Set3", match.team2Set3);
+        data.put("winnerId", match.winner != null ? match.winner.teamId.toString() : null);
+        data.put("status", match.status);
+        data.put("scheduledTime", match.scheduledTime);
+        data.put("venueId", match.venueId);
+        data.put("court", match.court);
+        data.put("version", match.version);
+        liveEvents.fire(LiveEvent.tournament(match.tournament.tournamentId, type, "match:" + match.matchId, data));
+    }
+    
+    /**
+     * The numbers of each standing keyed by team id, to tell afterwards which rows changed.
+     */
+    private static Map<String, List<Integer>> standingValues(List<TournamentStanding> standings) {
+        Map<String, List<Integer>> values = new HashMap<>();
+        for (TournamentStanding standing : standings) {
+            values.put(standing.teamId, Arrays.asList(standing.matchesPlayed, standing.matchesWon, standing.matchesLost,
+                    standing.matchesDrawn, standing.goalsFor, standing.goalsAgainst, standing.goalDifference,
+                    standing.points, standing.position));
+        }
+        return values;
+    }
+    
+    /**
+     * Push the standing rows that differ from {@code before} to live viewers of the tournament.
+     */
+    private void publishChangedStandings(UUID tournamentId, List<TournamentStanding> standings,
+                                         Map<String, List<Integer>> before) {
+        Map<String, List<Integer>> after = standingValues(standings);
+        for (TournamentStanding standing : standings) {
+            if (after.get(standing.teamId).equals(before.get(standing.teamId))) {
+                continue;
+            }
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("groupId", standing.groupId);
+            data.put("teamId", standing.teamId);
+            data.put("matchesPlayed", standing.matchesPlayed);
+            data.put("matchesWon", standing.matchesWon);
+            data.put("matchesLost", standing.matchesLost);
+            data.put("matchesDrawn", standing.matchesDrawn);
+            data.put("goalsFor", standing.goalsFor);
+            data.put("goalsAgainst", standing.goalsAgainst);
+            data.put("goalDifference", standing.goalDifference);
+            data.put("points", standing.points);
+            data.put("position", standing.position);
+            liveEvents.fire(LiveEvent.tournament(tournamentId, "standing.updated",
+                    "standing:" + standing.groupId + ":" + standing.teamId, data));
+        }
+    }
+    
+    /**
+     * Get team names of a group keyed by team id, in one query.
+     */
+    private Map<String, String> getTeamNames(UUID groupId) {
+        List<Object[]> rows = entityManager.createQuery(
+                "select t.teamId, t.name from TournamentTeam t where t.group.groupId = :groupId", Object[].class)
+                .setParameter("groupId", groupId)
+                .getResultList();
+        Map<String, String> teamNames = new HashMap<>();
+        for (Object[] row : rows) {
+            teamNames.put(row[0].toString(), (String) row[1]);
+        }
+        return teamNames;
+    }
+    
     /**
      * Calculate match result based on set scores.
      */
@@ -1665,44 +1925,7 @@ public class TournamentService {
     @Transactional
     public void calculatePositions(String tournamentId, String groupId) {
         List<TournamentStanding> standings = TournamentStanding.findByTournamentAndGroup(tournamentId, groupId);
-        
-        // Sort by points (desc), goal difference (desc), goals for (desc)
-        // Add deterministic fallbacks to avoid unstable ordering when fully tied
-        standings.sort((a, b) -> {
-            int pointsCompare = Integer.compare(b.points, a.points);
-            if (pointsCompare != 0) return pointsCompare;
-
-            int goalDiffCompare = Integer.compare(b.goalDifference, a.goalDifference);
-            if (goalDiffCompare != 0) return goalDiffCompare;
-
-            int goalsForCompare = Integer.compare(b.goalsFor, a.goalsFor);
-            if (goalsForCompare != 0) return goalsForCompare;
-
-            // Fallback: sort by team name if available, otherwise by teamId
-            String aTeamName = getTeamNameSafe(a.teamId);
-            String bTeamName = getTeamNameSafe(b.teamId);
-            int nameCompare = aTeamName.compareToIgnoreCase(bTeamName);
-            if (nameCompare != 0) return nameCompare;
-
-            return a.teamId.compareTo(b.teamId);
-        });
-        
-        // Update positions
-        for (int i = 0; i < standings.size(); i++) {
-            standings.get(i).position = i + 1;
-            standings.get(i).persist();
-        }
-    }
-
-    private String getTeamNameSafe(String teamId) {
-        try {
-            if (teamId == null) return "";
-            TournamentTeam team = TournamentTeam.findById(UUID.fromString(teamId));
-            if (team != null && team.name != null) {
-                return team.name;
-            }
-        } catch (Exception ignored) {}
-        return "";
+        StandingsEngine.rank(standings, getTeamNames(UUID.fromString(groupId)));
     }
     
     /**
@@ -1854,7 +2077,62 @@ public class TournamentService {
     // ==================== KNOCKOUT BRACKET METHODS ====================
 
     /**
-     * Generate knockout bracket matches based on round robin standings
+     * Advancing teams of every group with their group-stage record, in one statement. Points and
+     * goals are aggregated from the completed group matches (3 for a win, 1 for a draw) so teams
+     * from different groups can be compared.
+     */
+    private static final String KNOCKOUT_SEEDING_QUERY = """
+            WITH results AS (
+                SELECT m.team1_id AS team_id, m.team1_score AS scored, m.team2_score AS conceded
+                FROM core.tournament_match m
+                WHERE m.tournament_id = :tournamentId AND m.phase = 'group'
+                  AND m.team1_score IS NOT NULL AND m.team2_score IS NOT NULL
+                UNION ALL
+                SELECT m.team2_id, m.team2_score, m.team1_score
+                FROM core.tournament_match m
+                WHERE m.tournament_id = :tournamentId AND m.phase = 'group'
+                  AND m.team1_score IS NOT NULL AND m.team2_score IS NOT NULL
+            ),
+            performance AS (
+                SELECT team_id,
+                       SUM(CASE WHEN scored > conceded THEN 3 WHEN scored = conceded THEN 1 ELSE 0 END) AS points,
+                       SUM(scored) AS goals_for,
+                       SUM(conceded) AS goals_against
+                FROM results
+                GROUP BY team_id
+            )
+            SELECT CAST(s.team_id AS uuid), CAST(s.group_id AS uuid), s.position,
+                   COALESCE(p.points, 0), COALESCE(p.goals_for, 0), COALESCE(p.goals_against, 0)
+            FROM core.tournament_standings s
+            LEFT JOIN performance p ON p.team_id = CAST(s.team_id AS uuid)
+            WHERE s.tournament_id = :tournamentKey
+              AND s.position BETWEEN 1 AND :advancing
+            """;
+
+    /**
+     * An advancing team and its group-stage record.
+     */
+    private record KnockoutSeed(UUID teamId, UUID groupId, int position, int points, int goalsFor, int goalsAgainst) {
+        int goalDifference() {
+            return goalsFor - goalsAgainst;
+        }
+    }
+
+    /** Better group-stage record first: points, goal difference, goals scored, fewest conceded. */
+    private static final Comparator<KnockoutSeed> BY_PERFORMANCE = Comparator
+            .comparingInt(KnockoutSeed::points).reversed()
+            .thenComparing(Comparator.comparingInt(KnockoutSeed::goalDifference).reversed())
+            .thenComparing(Comparator.comparingInt(KnockoutSeed::goalsFor).reversed())
+            .thenComparingInt(KnockoutSeed::goalsAgainst)
+            .thenComparing(KnockoutSeed::teamId);
+
+    /**
+     * Generate the knockout bracket from the round robin standings.
+     *
+     * Every round is created at once: first round matches with their teams, later rounds as
+     * placeholders filled in as winners are known (see {@link KnockoutBracket}). Each match is
+     * linked to the match and slot its winner moves on to. Byes for fields that are not a power
+     * of two go to the top seeds. All matches go in as a single JDBC batch.
      */
     @Transactional
     public List<Object> generateKnockoutBracket(String tournamentId) {
@@ -1877,42 +2155,60 @@ public class TournamentService {
                 throw new RuntimeException("All group matches must be completed before generating knockout bracket");
             }
 
-            // Get all groups for this tournament
-            List<TournamentGroup> groups = TournamentGroup.find("tournament.tournamentId", id).list();
-            if (groups.isEmpty()) {
-                throw new RuntimeException("No groups found for tournament: " + tournamentId);
+            if (TournamentMatch.count("tournament.tournamentId = ?1 and phase != ?2", id, "group") > 0) {
+                throw new RuntimeException("Knockout bracket has already been generated");
             }
 
-            // Get advancing teams based on standings
-            List<TournamentTeam> advancingTeams = getAdvancingTeams(tournament, groups);
-            
-            if (advancingTeams.size() < 2) {
+            // Advancing teams in seed order
+            List<KnockoutSeed> seeds = getKnockoutSeeds(tournament);
+            if (seeds.size() < 2) {
                 throw new RuntimeException("At least 2 teams must advance to generate knockout bracket");
             }
 
-            // Generate knockout matches
-            List<TournamentMatch> knockoutMatches = generateKnockoutMatches(tournament, advancingTeams);
+            // Number the groups so the bracket can keep teams of a group apart in the first round
+            Map<UUID, Integer> groupIndex = new HashMap<>();
+            int[] groups = new int[seeds.size()];
+            for (int i = 0; i < seeds.size(); i++) {
+                groups[i] = groupIndex.computeIfAbsent(seeds.get(i).groupId(), key -> groupIndex.size());
+            }
+
+            List<TournamentMatch> knockoutMatches = new ArrayList<>();
+            Map<String, TournamentMatch> byPosition = new HashMap<>();
+            int size = KnockoutBracket.bracketSize(seeds.size());
+            for (KnockoutBracket.Match slot : KnockoutBracket.build(seeds.size(), groups)) {
+                TournamentMatch match = new TournamentMatch();
+                match.tournament = tournament;
+                match.group = null; // Knockout matches don't have groups
+                match.round = slot.round();
+                match.bracketPosition = slot.position();
+                match.phase = KnockoutBracket.phase(slot.round(), size >> slot.round());
+                match.team1 = teamReference(seeds, slot.team1());
+                match.team2 = teamReference(seeds, slot.team2());
+                match.status = "scheduled";
+                knockoutMatches.add(match);
+                byPosition.put(match.round + ":" + match.bracketPosition, match);
+            }
+
+            // Link every match to the slot its winner fills in the next round
+            for (TournamentMatch match : knockoutMatches) {
+                TournamentMatch next = byPosition.get((match.round + 1) + ":" + KnockoutBracket.nextPosition(match.bracketPosition));
+                if (next != null) {
+                    match.nextMatch = next;
+                    match.nextSlot = KnockoutBracket.nextSlot(match.bracketPosition);
+                }
+            }
+
+            // Insert the final first so every row's next match already exists
+            List<TournamentMatch> insertOrder = new ArrayList<>(knockoutMatches);
+            java.util.Collections.reverse(insertOrder);
+            persistInOneBatch(insertOrder);
+            knockoutMatches.forEach(match -> publishMatch("match.created", match));
             
             // Convert matches to DTOs for response
             List<Object> matchDtos = new ArrayList<>();
             for (TournamentMatch match : knockoutMatches) {
-                Map<String, Object> matchDto = new HashMap<>();
-                matchDto.put("id", match.matchId.toString());
-                matchDto.put("tournamentId", tournamentId);
-                matchDto.put("groupId", null); // Knockout matches don't have groups
-                matchDto.put("phase", match.phase);
-                matchDto.put("round", match.round);
-                matchDto.put("team1Id", match.team1.teamId.toString());
-                matchDto.put("team2Id", match.team2.teamId.toString());
-                matchDto.put("team1Score", match.team1Score);
-                matchDto.put("team2Score", match.team2Score);
-                matchDto.put("status", match.status);
-                matchDto.put("scheduledTime", match.scheduledTime);
-                matchDto.put("venueId", match.venueId);
-                
-                matchDtos.add(matchDto);
+                matchDtos.add(knockoutMatchDto(match, tournamentId));
             }
-            
             return matchDtos;
         } catch (Exception e) {
             throw new RuntimeException("Error generating knockout bracket: " + e.getMessage(), e);
@@ -1920,52 +2216,77 @@ public class TournamentService {
     }
 
     /**
-     * Get knockout bracket matches for a tournament
+     * Get the knockout bracket of a tournament, in round and bracket order. Each match carries
+     * the match and slot its winner moves on to and the matches feeding it, so clients can draw
+     * the bracket from this one response.
      */
     public List<Object> getKnockoutMatches(String tournamentId) {
         try {
             UUID id = UUID.fromString(tournamentId);
             
-            // Get all knockout matches for this tournament (exclude group phase)
-            List<TournamentMatch> matches = TournamentMatch.find(
-                "tournament.tournamentId = ?1 and phase != ?2", 
-                id, 
-                "group"
-            ).list();
+            // The whole bracket with team names in one query (exclude group phase)
+            List<TournamentMatch> matches = entityManager.createQuery(
+                    "select m from TournamentMatch m left join fetch m.team1 left join fetch m.team2 "
+                            + "where m.tournament.tournamentId = ?1 and m.phase != ?2 order by m.round, m.bracketPosition",
+                    TournamentMatch.class)
+                .setParameter(1, id)
+                .setParameter(2, "group")
+                .getResultList();
+
+            Map<UUID, List<String>> feeders = new HashMap<>();
+            for (TournamentMatch match : matches) {
+                if (match.nextMatch != null) {
+                    feeders.computeIfAbsent(match.nextMatch.matchId, key -> new ArrayList<>()).add(match.matchId.toString());
+                }
+            }
             
             // Convert matches to DTOs for response
             List<Object> matchDtos = new ArrayList<>();
             for (TournamentMatch match : matches) {
-                
-                Map<String, Object> matchDto = new HashMap<>();
-                matchDto.put("id", match.matchId.toString());
-                matchDto.put("tournamentId", tournamentId);
-                matchDto.put("groupId", match.group != null ? match.group.groupId.toString() : null);
-                matchDto.put("phase", match.phase);
-                matchDto.put("round", match.round);
-                matchDto.put("team1Id", match.team1.teamId.toString());
-                matchDto.put("team2Id", match.team2.teamId.toString());
-                matchDto.put("team1Score", match.team1Score);
-                matchDto.put("team2Score", match.team2Score);
-                matchDto.put("team1Set1", match.team1Set1);
-                matchDto.put("team2Set1", match.team2Set1);
-                matchDto.put("team1Set2", match.team1Set2);
-                matchDto.put("team2Set2", match.team2Set2);
-                matchDto.put("team1Set3", match.team1Set3);
-                matchDto.put("team2Set3", match.team2Set3);
-                matchDto.put("status", match.status);
-                matchDto.put("scheduledTime", match.scheduledTime);
-                matchDto.put("venueId", match.venueId);
-                
+                Map<String, Object> matchDto = knockoutMatchDto(match, tournamentId);
+                matchDto.put("team1Name", match.team1 != null ? match.team1.name : null);
+                matchDto.put("team2Name", match.team2 != null ? match.team2.name : null);
+                matchDto.put("feederMatchIds", feeders.getOrDefault(match.matchId, List.of()));
                 matchDtos.add(matchDto);
             }
-            
             return matchDtos;
         } catch (Exception e) {
             throw new RuntimeException("Error getting knockout matches: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Knockout match as returned to clients. Teams of placeholder matches are null until the
+     * feeder matches are decided.
+     */
+    private Map<String, Object> knockoutMatchDto(TournamentMatch match, String tournamentId) {
+        Map<String, Object> matchDto = new HashMap<>();
+        matchDto.put("id", match.matchId.toString());
+        matchDto.put("tournamentId", tournamentId);
+        matchDto.put("groupId", match.group != null ? match.group.groupId.toString() : null);
+        matchDto.put("phase", match.phase);
+        matchDto.put("round", match.round);
+        matchDto.put("bracketPosition", match.bracketPosition);
+        matchDto.put("team1Id", match.team1 != null ? match.team1.teamId.toString() : null);
+        matchDto.put("team2Id", match.team2 != null ? match.team2.teamId.toString() : null);
+        matchDto.put("team1Score", match.team1Score);
+        matchDto.put("team2Score", match.team2Score);
+        matchDto.put("team1Set1", match.team1Set1);
+        matchDto.put("team2Set1", match.team2Set1);
+        matchDto.put("team1Set2", match.team1Set2);
+        matchDto.put("team2Set2", match.team2Set2);
+        matchDto.put("team1Set3", match.team1Set3);
+        matchDto.put("team2Set3", match.team2Set3);
+        matchDto.put("winnerId", match.winner != null ? match.winner.teamId.toString() : null);
+        matchDto.put("nextMatchId", match.nextMatch != null ? match.nextMatch.matchId.toString() : null);
+        matchDto.put("nextSlot", match.nextSlot);
+        matchDto.put("status", match.status);
+        matchDto.put("version", match.version);
+        matchDto.put("scheduledTime", match.scheduledTime);
+        matchDto.put("venueId", match.venueId);
+        return matchDto;
+    }
+
     /**
      * Check if all group matches are completed
      */
@@ -1999,299 +2320,55 @@ public class TournamentService {
     }
 
     /**
-     * Get advancing teams based on standings and tournament configuration
-     * Uses proper tournament seeding: group winners vs runners-up from different groups
+     * Advancing teams in seed order, from one query over the standings of all groups.
+     *
+     * With two teams advancing per group (group-based elimination) all group winners are seeded
+     * above all runners-up, each tier ordered by its group-stage record, so winners meet runners-up
+     * in the first round. Otherwise (combined elimination) all advancing teams are seeded purely by
+     * their group-stage record.
      */
-    private List<TournamentTeam> getAdvancingTeams(Tournament tournament, List<TournamentGroup> groups) {
-        List<TournamentTeam> advancingTeams = new ArrayList<>();
-        
+    private List<KnockoutSeed> getKnockoutSeeds(Tournament tournament) {
         // Get teams to advance per group from tournament configuration
         int teamsToAdvancePerGroup = 2; // Default to 2 teams per group
-        
-        // If it's a RoundRobinTournament, get the teamsToAdvance value
-        if (tournament instanceof RoundRobinTournament) {
-            RoundRobinTournament roundRobinTournament = (RoundRobinTournament) tournament;
-            if (roundRobinTournament.getTeamsToAdvance() != null) {
-                teamsToAdvancePerGroup = roundRobinTournament.getTeamsToAdvance();
-            }
+        if (tournament instanceof RoundRobinTournament roundRobinTournament
+                && roundRobinTournament.getTeamsToAdvance() != null) {
+            teamsToAdvancePerGroup = roundRobinTournament.getTeamsToAdvance();
         }
-        
-        // Collect group winners and runners-up separately
-        List<TournamentTeam> groupWinners = new ArrayList<>();
-        List<TournamentTeam> runnersUp = new ArrayList<>();
-        
-        for (TournamentGroup group : groups) {
-            // Get standings for this group
-            List<TournamentStanding> standings = TournamentStanding.find(
-                "tournamentId = ?1 and groupId = ?2 order by position asc", 
-                tournament.tournamentId.toString(), 
-                group.groupId.toString()
-            ).list();
-            
-            // Add group winner (1st place)
-            if (standings.size() > 0) {
-                TournamentStanding winnerStanding = standings.get(0);
-                TournamentTeam winner = TournamentTeam.find("teamId", UUID.fromString(winnerStanding.teamId)).firstResult();
-                if (winner != null) {
-                    groupWinners.add(winner);
-                }
-            }
-            
-            // Add runner-up (2nd place) if advancing 2 teams per group
-            if (teamsToAdvancePerGroup >= 2 && standings.size() > 1) {
-                TournamentStanding runnerUpStanding = standings.get(1);
-                TournamentTeam runnerUp = TournamentTeam.find("teamId", UUID.fromString(runnerUpStanding.teamId)).firstResult();
-                if (runnerUp != null) {
-                    runnersUp.add(runnerUp);
-                }
-            }
-        }
-        
-        // Apply proper tournament seeding based on tournament type
-        if (teamsToAdvancePerGroup == 2) {
-            // Standard group-based elimination: group winners vs runners-up from different groups
-            advancingTeams = createGroupBasedEliminationBracket(groupWinners, runnersUp);
-        } else {
-            // Combined elimination: all advancing teams seeded by overall performance
-            advancingTeams = createCombinedEliminationBracket(groupWinners, runnersUp, tournament, groups);
-        }        
-        return advancingTeams;
-    }
-
-    /**
-     * Create bracket for Group-Based Elimination (standard tournament format)
-     * Group winners face runners-up from different groups
-     * Uses FIFA/UEFA style bracket to ensure same-group teams are on opposite sides
-     */
-    private List<TournamentTeam> createGroupBasedEliminationBracket(List<TournamentTeam> groupWinners, List<TournamentTeam> runnersUp) {
-        List<TournamentTeam> bracket = new ArrayList<>();
-        
-        int numGroups = Math.min(groupWinners.size(), runnersUp.size());
-        
-        // FIFA/UEFA style bracket structure to avoid same-group matchups
-        // For 4 groups: A1 vs B2, C1 vs D2, B1 vs A2, D1 vs C2
-        // This ensures same-group teams are on opposite sides of the bracket
-        
-        for (int i = 0; i < numGroups; i++) {
-            // Add group winner
-            TournamentTeam winner = groupWinners.get(i);
-            bracket.add(winner);
-            
-            // Calculate runner-up index to avoid same-group matchups
-            // Use a pattern that ensures different group pairings
-            int runnerUpIndex;
-            if (numGroups == 4) {
-                // Standard 4-group bracket: A1 vs B2, C1 vs D2, B1 vs A2, D1 vs C2
-                if (i == 0) runnerUpIndex = 1;      // A1 vs B2
-                else if (i == 1) runnerUpIndex = 0; // B1 vs A2  
-                else if (i == 2) runnerUpIndex = 3; // C1 vs D2
-                else runnerUpIndex = 2;             // D1 vs C2
-            } else if (numGroups == 3) {
-                // 3-group bracket: A1 vs B2, B1 vs C2, C1 vs A2
-                runnerUpIndex = (i + 1) % numGroups;
-            } else if (numGroups == 2) {
-                // 2-group bracket: A1 vs B2, B1 vs A2
-                runnerUpIndex = (i + 1) % numGroups;
-            } else {
-                // For other numbers, use a simple offset but ensure no same-group matchups
-                runnerUpIndex = (i + 1) % numGroups;
-            }
-            
-            TournamentTeam runnerUp = runnersUp.get(runnerUpIndex);
-            bracket.add(runnerUp);
-        }
-        
-        return bracket;
-    }
 
-    /**
-     * Create bracket for Combined Elimination (all teams seeded by overall performance)
-     * Teams are ranked by their overall performance across all groups and seeded accordingly
-     */
-    private List<TournamentTeam> createCombinedEliminationBracket(List<TournamentTeam> groupWinners, List<TournamentTeam> runnersUp, Tournament tournament, List<TournamentGroup> groups) {
-        List<TournamentTeam> allAdvancingTeams = new ArrayList<>();
-        allAdvancingTeams.addAll(groupWinners);
-        allAdvancingTeams.addAll(runnersUp);
-        
-        // Create a comprehensive ranking of all advancing teams based on overall performance
-        List<TeamPerformance> teamPerformances = new ArrayList<>();
-        
-        for (TournamentTeam team : allAdvancingTeams) {
-            TeamPerformance performance = calculateOverallPerformance(team, tournament);
-            teamPerformances.add(performance);
-        }
-        
-        // Sort by overall performance (points, goal difference, goals scored, etc.)
-        teamPerformances.sort((a, b) -> {
-            // Primary: Points
-            int pointsComparison = Integer.compare(b.points, a.points);
-            if (pointsComparison != 0) return pointsComparison;
-            
-            // Secondary: Goal difference
-            int goalDiffComparison = Integer.compare(b.goalDifference, a.goalDifference);
-            if (goalDiffComparison != 0) return goalDiffComparison;
-            
-            // Tertiary: Goals scored
-            int goalsScoredComparison = Integer.compare(b.goalsScored, a.goalsScored);
-            if (goalsScoredComparison != 0) return goalsScoredComparison;
-            
-            // Quaternary: Goals conceded (fewer is better)
-            return Integer.compare(a.goalsConceded, b.goalsConceded);
-        });
-        
-        // Extract teams in performance order
-        List<TournamentTeam> seededTeams = new ArrayList<>();
-        for (TeamPerformance performance : teamPerformances) {
-            seededTeams.add(performance.team);
-        }
-        
-        return seededTeams;
-    }
-    
-    /**
-     * Calculate overall performance metrics for a team across all group matches
-     */
-    private TeamPerformance calculateOverallPerformance(TournamentTeam team, Tournament tournament) {
-        TeamPerformance performance = new TeamPerformance();
-        performance.team = team;
-        performance.points = 0;
-        performance.goalsScored = 0;
-        performance.goalsConceded = 0;
-        
-        
-        // Get all group matches for this team
-        List<TournamentMatch> teamMatches = TournamentMatch.find(
-            "tournament.tournamentId = ?1 and (team1.teamId = ?2 or team2.teamId = ?2) and phase = 'group'", 
-            tournament.tournamentId, 
-            team.teamId
-        ).list();
-        
-        for (TournamentMatch match : teamMatches) {
-            if (match.team1Score != null && match.team2Score != null) {
-                
-                if (match.team1.teamId.equals(team.teamId)) {
-                    // Team is team1
-                    performance.goalsScored += match.team1Score;
-                    performance.goalsConceded += match.team2Score;
-                    
-                    if (match.team1Score > match.team2Score) {
-                        performance.points += 3; // Win
-                    } else if (match.team1Score.equals(match.team2Score)) {
-                        performance.points += 1; // Draw
-                    }
-                } else {
-                    // Team is team2
-                    performance.goalsScored += match.team2Score;
-                    performance.goalsConceded += match.team1Score;
-                    
-                    if (match.team2Score > match.team1Score) {
-                        performance.points += 3; // Win
-                    } else if (match.team2Score.equals(match.team1Score)) {
-                        performance.points += 1; // Draw
-                    }
-                }
-            }
-        }
-        
-        performance.goalDifference = performance.goalsScored - performance.goalsConceded;
-        return performance;
-    }
-    
-    /**
-     * Helper class to hold team performance metrics
-     */
-    private static class TeamPerformance {
-        TournamentTeam team;
-        int points;
-        int goalsScored;
-        int goalsConceded;
-        int goalDifference;
-    }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(KNOCKOUT_SEEDING_QUERY)
+                .setParameter("tournamentId", tournament.tournamentId)
+                .setParameter("tournamentKey", tournament.tournamentId.toString())
+                .setParameter("advancing", teamsToAdvancePerGroup)
+                .getResultList();
 
-    /**
-     * Generate knockout matches for advancing teams - only the first round
-     */
-    private List<TournamentMatch> generateKnockoutMatches(Tournament tournament, List<TournamentTeam> advancingTeams) {
-        List<TournamentMatch> matches = new ArrayList<>();
-        
-        int numTeams = advancingTeams.size();
-        if (numTeams < 2) {
-            return matches;
-        }
-        
-        // Only generate the first round of matches
-        // Subsequent rounds will be generated as previous rounds are completed
-        String firstPhase = determineFirstKnockoutPhase(numTeams);
-        
-        // Generate first round matches
-        // For group-based elimination, pair teams sequentially as they come from bracket creation
-        // For combined elimination, use 1st vs last seeding
-        for (int i = 0; i < numTeams / 2; i++) {
-            TournamentMatch match = new TournamentMatch();
-            match.tournament = tournament;
-            match.group = null; // Knockout matches don't have groups
-            match.phase = firstPhase;
-            match.round = 1;
-            
-            int team1Index, team2Index;
-            
-            // Check if this is group-based elimination (teams are already properly paired)
-            // or combined elimination (need 1st vs last seeding)
-            if (isGroupBasedElimination(tournament)) {
-                // Group-based elimination: pair teams sequentially (already properly paired)
-                team1Index = i * 2;
-                team2Index = i * 2 + 1;
-            } else {
-                // Combined elimination: 1st vs last, 2nd vs second-to-last, etc.
-                team1Index = i;
-                team2Index = numTeams - 1 - i;
-            }
-            
-            match.team1 = advancingTeams.get(team1Index);
-            match.team2 = advancingTeams.get(team2Index);
-            match.team1Score = null;
-            match.team2Score = null;
-            match.status = "scheduled";
-            match.scheduledTime = null; // Will be set later
-            match.venueId = null; // Will be set later            
-            match.persist();
-            matches.add(match);
+        List<KnockoutSeed> seeds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            seeds.add(new KnockoutSeed((UUID) row[0], (UUID) row[1], ((Number) row[2]).intValue(),
+                    ((Number) row[3]).intValue(), ((Number) row[4]).intValue(), ((Number) row[5]).intValue()));
         }
-        
-        return matches;
-    }
 
-    /**
-     * Check if this is group-based elimination (2 teams per group) or combined elimination
-     */
-    private boolean isGroupBasedElimination(Tournament tournament) {
-        if (tournament instanceof RoundRobinTournament) {
-            RoundRobinTournament roundRobinTournament = (RoundRobinTournament) tournament;
-            return roundRobinTournament.getTeamsToAdvance() != null && roundRobinTournament.getTeamsToAdvance() == 2;
+        if (teamsToAdvancePerGroup == 2) {
+            seeds.sort(Comparator.comparingInt(KnockoutSeed::position).thenComparing(BY_PERFORMANCE));
+        } else {
+            seeds.sort(BY_PERFORMANCE);
         }
-        return true; // Default to group-based elimination
+        return seeds;
     }
 
     /**
-     * Determine the first knockout phase based on number of teams
+     * Team of a bracket slot without loading it, or null for a slot still to be decided.
      */
-    private String determineFirstKnockoutPhase(int numTeams) {
-        if (numTeams <= 2) {
-            return "final";
-        } else if (numTeams <= 4) {
-            return "semifinal";
-        } else if (numTeams <= 8) {
-            return "quarterfinal";
-        } else {
-            // For more than 8 teams, start with round_1
-            return "round_1";
-        }
+    private TournamentTeam teamReference(List<KnockoutSeed> seeds, int seed) {
+        return seed == KnockoutBracket.TBD ? null : entityManager.getReference(TournamentTeam.class, seeds.get(seed).teamId());
     }
 
-    
-
     /**
-     * Generate next round of knockout matches when a round is completed
+     * Move the winners of completed knockout rounds into the next round.
+     *
+     * Brackets generated up front only need their placeholder slots filled: the winner of
+     * position p goes to position p / 2 of the next round. Brackets generated before placeholders
+     * existed get their next round matches created here. Returns the matches that gained a team.
      */
     @Transactional
     public List<Object> generateNextKnockoutRound(String tournamentId) {
@@ -2304,9 +2381,8 @@ public class TournamentService {
                 throw new RuntimeException("Tournament not found: " + tournamentId);
             }
 
-            // Find the highest completed round
             List<TournamentMatch> allKnockoutMatches = TournamentMatch.find(
-                "tournament.tournamentId = ?1 and phase != ?2", 
+                "tournament.tournamentId = ?1 and phase != ?2 order by round, bracketPosition, matchId",
                 id, 
                 "group"
             ).list();
@@ -2315,86 +2391,75 @@ public class TournamentService {
                 throw new RuntimeException("No knockout matches found for tournament: " + tournamentId);
             }
 
-            // Find the highest round number
-            int maxRound = allKnockoutMatches.stream()
-                .mapToInt(match -> match.round)
-                .max()
-                .orElse(0);
-
-            // Check if the highest round is completed
-            List<TournamentMatch> currentRoundMatches = allKnockoutMatches.stream()
-                .filter(match -> match.round == maxRound)
-                .collect(java.util.stream.Collectors.toList());
-
-            boolean allCompleted = currentRoundMatches.stream()
-                .allMatch(match -> "completed".equals(match.status));
-
-            if (!allCompleted) {
-                throw new RuntimeException("Current round must be completed before generating next round");
+            Map<Integer, List<TournamentMatch>> byRound = new java.util.TreeMap<>();
+            for (TournamentMatch match : allKnockoutMatches) {
+                byRound.computeIfAbsent(match.round, round -> new ArrayList<>()).add(match);
             }
 
-            // Get winners from current round using set-based scoring
-            List<TournamentTeam> winners = new ArrayList<>();
-            for (TournamentMatch match : currentRoundMatches) {
-                // Use the same logic as calculateMatchResult to determine winner
-                MatchResult result = calculateMatchResult(match);
-                if (result.isComplete && result.winner != null) {
-                    if (result.winner.equals(match.team1.teamId.toString())) {
-                        winners.add(match.team1);
-                    } else if (result.winner.equals(match.team2.teamId.toString())) {
-                        winners.add(match.team2);
-                    }
+            List<TournamentMatch> changed = new ArrayList<>();
+            List<TournamentMatch> created = new ArrayList<>();
+            for (Map.Entry<Integer, List<TournamentMatch>> entry : byRound.entrySet()) {
+                int round = entry.getKey();
+                List<TournamentMatch> roundMatches = entry.getValue();
+                if (!roundMatches.stream().allMatch(match -> "completed".equals(match.status))) {
+                    break;
                 }
-            }
+                if (roundMatches.size() == 1 && byRound.get(round + 1) == null) {
+                    break; // The final
+                }
+                numberBracketPositions(roundMatches);
 
-            if (winners.size() < 2) {
-                throw new RuntimeException("Not enough winners to generate next round");
+                List<TournamentMatch> nextRound = byRound.computeIfAbsent(round + 1, next -> new ArrayList<>());
+                for (TournamentMatch match : roundMatches) {
+                    TournamentTeam winner = winnerOf(match);
+                    if (winner == null) {
+                        continue;
+                    }
+                    int position = KnockoutBracket.nextPosition(match.bracketPosition);
+                    TournamentMatch next = nextRound.stream()
+                            .filter(candidate -> candidate.bracketPosition != null && candidate.bracketPosition == position)
+                            .findFirst()
+                            .orElse(null);
+                    if (next == null) {
+                        next = new TournamentMatch();
+                        next.tournament = tournament;
+                        next.group = null;
+                        next.round = round + 1;
+                        next.bracketPosition = position;
+                        next.phase = KnockoutBracket.phase(round + 1, (roundMatches.size() + 1) / 2);
+                        next.status = "scheduled";
+                        nextRound.add(next);
+                        created.add(next);
+                    }
+                    if (match.nextMatch == null) {
+                        match.nextMatch = next;
+                        match.nextSlot = KnockoutBracket.nextSlot(match.bracketPosition);
+                    }
+                    if (match.bracketPosition % 2 == 0 && next.team1 == null) {
+                        next.team1 = winner;
+                    } else if (match.bracketPosition % 2 == 1 && next.team2 == null) {
+                        next.team2 = winner;
+                    } else {
+                        continue;
+                    }
+                    if (!changed.contains(next)) {
+                        changed.add(next);
+                    }
+                }
             }
 
-            // Determine next phase
-            String nextPhase = determineNextKnockoutPhase(maxRound, winners.size());
-            int nextRound = maxRound + 1;
-
-            // Generate next round matches
-            List<TournamentMatch> newMatches = new ArrayList<>();
-            for (int i = 0; i < winners.size() / 2; i++) {
-                TournamentMatch match = new TournamentMatch();
-                match.tournament = tournament;
-                match.group = null;
-                match.phase = nextPhase;
-                match.round = nextRound;
-                match.team1 = winners.get(i * 2);
-                match.team2 = winners.get(i * 2 + 1);
-                match.team1Score = null;
-                match.team2Score = null;
-                match.status = "scheduled";
-                match.scheduledTime = null;
-                match.venueId = null;
-                
-                match.persist();
-                newMatches.add(match);
+            if (changed.isEmpty()) {
+                throw new RuntimeException("Current round must be completed before generating next round");
             }
+            // New matches are referenced by their feeders, so they go in before the flush
+            persistInOneBatch(created);
+            entityManager.flush();
 
-            // Convert to DTOs
             List<Object> matchDtos = new ArrayList<>();
-            for (TournamentMatch match : newMatches) {
-                Map<String, Object> matchDto = new HashMap<>();
-                matchDto.put("id", match.matchId.toString());
-                matchDto.put("tournamentId", tournamentId);
-                matchDto.put("groupId", null);
-                matchDto.put("phase", match.phase);
-                matchDto.put("round", match.round);
-                matchDto.put("team1Id", match.team1.teamId.toString());
-                matchDto.put("team2Id", match.team2.teamId.toString());
-                matchDto.put("team1Score", match.team1Score);
-                matchDto.put("team2Score", match.team2Score);
-                matchDto.put("status", match.status);
-                matchDto.put("scheduledTime", match.scheduledTime);
-                matchDto.put("venueId", match.venueId);
-                
-                matchDtos.add(matchDto);
+            for (TournamentMatch match : changed) {
+                publishMatch(created.contains(match) ? "match.created" : "match.updated", match);
+                matchDtos.add(knockoutMatchDto(match, tournamentId));
             }
-
             return matchDtos;
         } catch (Exception e) {
             throw new RuntimeException("Error generating next knockout round: " + e.getMessage(), e);
@@ -2402,19 +2467,62 @@ public class TournamentService {
     }
 
     /**
-     * Determine the next knockout phase based on current round and number of teams
+     * Give matches of brackets generated before bracket positions existed their position in the
+     * round, in the order the winners used to be paired.
      */
-    private String determineNextKnockoutPhase(int currentRound, int numTeams) {
-        if (numTeams == 2) {
-            return "final";
-        } else if (numTeams == 4) {
-            return "semifinal";
-        } else if (numTeams == 8) {
-            return "quarterfinal";
-        } else {
-            // For other cases, continue with round numbering
-            return "round_" + (currentRound + 1);
+    private static void numberBracketPositions(List<TournamentMatch> roundMatches) {
+        if (roundMatches.stream().allMatch(match -> match.bracketPosition != null)) {
+            return;
         }
+        for (int i = 0; i < roundMatches.size(); i++) {
+            roundMatches.get(i).bracketPosition = i;
+        }
+    }
+
+    /**
+     * Winner of a knockout match by sets, or the recorded winner if the sets don't decide it.
+     */
+    private TournamentTeam winnerOf(TournamentMatch match) {
+        if (match.team1 == null || match.team2 == null) {
+            return match.team1 != null ? match.team1 : match.team2;
+        }
+        MatchResult result = calculateMatchResult(match);
+        if (result.isComplete && result.winner != null) {
+            return result.winner.equals(match.team1.teamId.toString()) ? match.team1 : match.team2;
+        }
+        return match.winner;
+    }
+
+    /**
+     * Put the winner of a decided knockout match into its slot of the next match: one row, no
+     * rescan of the bracket. A corrected result replaces the team as long as the next match has
+     * not started.
+     *
+     * Only the slot column is written, so the two feeder matches of a match can be completed at
+     * the same time without overwriting each other's finalist. The next match's version is bumped,
+     * so a score update based on the match before the team arrived is rejected.
+     */
+    private void advanceWinner(TournamentMatch match) {
+        TournamentTeam winner = winnerOf(match);
+        TournamentMatch next = match.nextMatch;
+        if (winner == null || next == null) {
+            return;
+        }
+        if (match.winner == null || !match.winner.teamId.equals(winner.teamId)) {
+            match.winner = winner;
+        }
+        String slot = Integer.valueOf(2).equals(match.nextSlot) ? "team2_id" : "team1_id";
+        int updated = entityManager.createNativeQuery("UPDATE core.tournament_match SET " + slot + " = ?1, version = version + 1"
+                        + " WHERE match_id = ?2 AND status = 'scheduled' AND " + slot + " IS DISTINCT FROM ?1")
+                .setParameter(1, winner.teamId)
+                .setParameter(2, next.matchId)
+                .executeUpdate();
+        if (updated == 0) {
+            return;
+        }
+        // Pick up the new team, and the sibling's if it got there first
+        entityManager.refresh(next);
+        publishMatch("match.updated", next);
     }
 
     /**
@@ -2430,9 +2538,13 @@ public class TournamentService {
                     generateKnockoutBracket(tournamentId);
                 }
             }
-            // Check if this was a knockout match and all matches in current round are completed
+            // Knockout match: the winner moves straight into its slot of the next match
             else if (completedMatch.phase != null && !completedMatch.phase.equals("group")) {
-                if (areAllMatchesInCurrentRoundCompleted(tournamentId, completedMatch.round)) {
+                if (completedMatch.nextMatch != null) {
+                    advanceWinner(completedMatch);
+                } else if (completedMatch.bracketPosition == null
+                        && areAllMatchesInCurrentRoundCompleted(tournamentId, completedMatch.round)) {
+                    // Brackets generated before matches were linked advance a round at a time
                     generateNextKnockoutRound(tournamentId);
                 }
             }
@@ -2463,4 +2575,4 @@ public class TournamentService {
     }
 
     
-} 
\ No newline at end of file
+} 
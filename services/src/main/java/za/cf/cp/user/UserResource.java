@@ -1,11 +1,17 @@
 package za.cf.cp.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import za.cf.cp.auth.AuthenticatedUser;
 import za.cf.cp.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,17 +23,38 @@ import java.util.Optional;
 @Consumes(MediaType.APPLICATION_JSON)
 public class UserResource {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Inject
     UserService userService;
     
+    @Inject
+    ObjectMapper objectMapper;
+    
+    @Inject
+    AuthenticatedUser authenticatedUser;
+    
     /**
-     * Get all active users
+     * Get users one page at a time, as slim summaries.
+     * The next page's cursor is returned in X-Next-Cursor; profile pictures are only included
+     * with includePicture=true.
      */
     @GET
-    public Response getAllUsers() {
+    public Response getAllUsers(
+            @QueryParam("limit") @DefaultValue("50") int limit,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("includePicture") @DefaultValue("false") boolean includePicture) {
         try {
-            List<User> users = userService.findAll();
-            return Response.ok(users).build();
+            var page = userService.findSummaryPage(cursor, limit, includePicture);
+            Response.ResponseBuilder response = Response.ok(page.users());
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Error retrieving users: " + e.getMessage())
@@ -36,7 +63,39 @@ public class UserResource {
     }
     
     /**
-     * Get users with pagination
+     * Export all users as one JSON array, written as the rows are read rather than collected first.
+     * Admins only, as it includes every user's contact details.
+     */
+    @GET
+    @Path("/export")
+    public Response exportUsers(@QueryParam("includePicture") @DefaultValue("false") boolean includePicture) {
+        if (!userService.isAdmin(authenticatedUser.getUid())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity("Admin role required")
+                    .build();
+        }
+        StreamingOutput body = output -> {
+            try (JsonGenerator json = objectMapper.createGenerator(output)) {
+                json.writeStartArray();
+                userService.streamSummaries(includePicture, summary -> {
+                    try {
+                        json.writeObject(summary);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return Response.ok(body)
+                .header("Content-Disposition", "attachment; filename=\"users.json\"")
+                .build();
+    }
+    
+    /**
+     * Get users with pagination (offset based; prefer the cursor on GET /api/users)
      */
     @GET
     @Path("/page/{page}/size/{size}")
@@ -135,14 +194,28 @@ public class UserResource {
     }
     
     /**
-     * Search users by name, email, or username
+     * Search users by name, email, or username.
+     * mode=prefix matches the start of a name, username or email (for autocomplete); the default
+     * matches anywhere, best match first. The next page's cursor is returned in X-Next-Cursor.
      */
     @GET
     @Path("/search")
-    public Response searchUsers(@QueryParam("q") String searchTerm) {
+    public Response searchUsers(
+            @QueryParam("q") String searchTerm,
+            @QueryParam("mode") @DefaultValue("contains") String mode,
+            @QueryParam("limit") @DefaultValue("20") int limit,
+            @QueryParam("cursor") String cursor) {
         try {
-            List<User> users = userService.searchUsers(searchTerm);
-            return Response.ok(users).build();
+            var page = userService.searchUsers(searchTerm, "prefix".equalsIgnoreCase(mode), limit, cursor);
+            Response.ResponseBuilder response = Response.ok(page.users());
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Error searching users: " + e.getMessage())
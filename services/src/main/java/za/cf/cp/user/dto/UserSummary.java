@@ -0,0 +1,70 @@
+package za.cf.cp.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+
+/**
+ * Slim view of a user for admin listings and exports.
+ * Leaves out the interests array; the profile picture URL is only filled in when requested.
+ */
+public class UserSummary {
+
+    @JsonProperty("firebase_uid")
+    public String firebaseUid;
+
+    @JsonProperty("email")
+    public String email;
+
+    @JsonProperty("username")
+    public String username;
+
+    @JsonProperty("first_name")
+    public String firstName;
+
+    @JsonProperty("last_name")
+    public String lastName;
+
+    @JsonProperty("display_name")
+    public String displayName;
+
+    @JsonProperty("mobile")
+    public String mobile;
+
+    @JsonProperty("rating")
+    public Integer rating;
+
+    @JsonProperty("email_verified")
+    public Boolean emailVerified;
+
+    @JsonProperty("profile_completed")
+    public Boolean profileCompleted;
+
+    @JsonProperty("playtomic_rating")
+    public BigDecimal playtomicRating;
+
+    @JsonProperty("profile_picture")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String profilePicture;
+
+    // Default constructor
+    public UserSummary() {}
+
+    // Constructor used by JPQL projections
+    public UserSummary(String firebaseUid, String email, String username, String firstName, String lastName,
+                       String displayName, String mobile, Integer rating, Boolean emailVerified,
+                       Boolean profileCompleted, BigDecimal playtomicRating, String profilePicture) {
+        this.firebaseUid = firebaseUid;
+        this.email = email;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.displayName = displayName;
+        this.mobile = mobile;
+        this.rating = rating;
+        this.emailVerified = emailVerified;
+        this.profileCompleted = profileCompleted;
+        this.playtomicRating = playtomicRating;
+        this.profilePicture = profilePicture;
+    }
+}
@@ -1,114 +1,135 @@
 package za.cf.cp.user.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import za.cf.cp.user.User;
-import za.cf.cp.user.UserRole;
-import za.cf.cp.user.UserClub;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import za.cf.cp.user.dto.CachedUserData;
 import za.cf.cp.user.dto.CachedUserData.ClubMembership;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Service for caching user authentication data including roles and club memberships.
  * This helps avoid repeated database queries for user permissions.
+ *
+ * The cache is bounded (W-TinyLFU eviction), refreshes entries in the background before
+ * they expire and loads each firebaseUid at most once at a time, so concurrent misses for
+ * the same user share a single database round trip. Snapshots come from {@link UserAuthDataLoader}.
  */
 @ApplicationScoped
 public class UserAuthCacheService {
-    
+
+    static final String CACHE_NAME = "user-auth";
+
+    @Inject
+    UserAuthDataLoader userAuthDataLoader;
+
     @Inject
-    UserService userService;
-    
-    // In-memory cache - in production, consider using Redis or similar
-    private final Map<String, CachedUserData> userCache = new ConcurrentHashMap<>();
-    
-    // Cache expiration time in hours
-    private static final int CACHE_EXPIRATION_HOURS = 1;
-    
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "user-auth-cache.maximum-size", defaultValue = "10000")
+    long maximumSize;
+
+    @ConfigProperty(name = "user-auth-cache.maximum-weight", defaultValue = "0")
+    long maximumWeight;
+
+    @ConfigProperty(name = "user-auth-cache.expire-after-write", defaultValue = "PT1H")
+    Duration expireAfterWrite;
+
+    @ConfigProperty(name = "user-auth-cache.refresh-after-write", defaultValue = "PT45M")
+    Duration refreshAfterWrite;
+
+    private LoadingCache<String, CachedUserData> userCache;
+
+    @PostConstruct
+    void init() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats();
+
+        // Caffeine accepts a single bound: weight when configured, entry count otherwise
+        if (maximumWeight > 0) {
+            builder.maximumWeight(maximumWeight)
+                    .<String, CachedUserData>weigher((firebaseUid, data) -> weigh(data));
+        } else {
+            builder.maximumSize(maximumSize);
+        }
+
+        userCache = builder.build(new UserDataLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, CACHE_NAME);
+    }
+
     /**
      * Get cached user data or fetch from database if not cached or expired
      */
     public CachedUserData getCachedUserData(String firebaseUid) {
-        CachedUserData cachedData = userCache.get(firebaseUid);
-        
-        if (cachedData == null || cachedData.isExpired()) {
-            // Cache miss or expired, fetch from database
-            cachedData = fetchAndCacheUserData(firebaseUid);
-        }
-        
-        return cachedData;
+        return userCache.get(firebaseUid);
     }
-    
+
     /**
-     * Fetch user data from database and cache it
+     * Warm the cache for many users at once, e.g. every participant of a tournament before the event.
+     * Users that are not cached yet are loaded together in a single query.
+     *
+     * @return the number of users now cached
      */
-    private CachedUserData fetchAndCacheUserData(String firebaseUid) {
-        // Get user basic info
-        User user = userService.findByFirebaseUid(firebaseUid)
-                .orElseThrow(() -> new RuntimeException("User not found: " + firebaseUid));
-        
-        // Get user roles
-        List<String> roles = getUserRoles(firebaseUid);
-        
-        // Get user club memberships
-        List<ClubMembership> clubMemberships = getUserClubMemberships(firebaseUid);
-        
-        // Create cached data
-        CachedUserData cachedData = new CachedUserData(
-                user.firebaseUid,
-                user.email,
-                user.username,
-                user.displayName,
-                roles,
-                clubMemberships
-        );
-        
-        // Cache the data
-        userCache.put(firebaseUid, cachedData);
-        
-        return cachedData;
+    public int warmUp(Collection<String> firebaseUids) {
+        if (firebaseUids == null || firebaseUids.isEmpty()) {
+            return 0;
+        }
+        return userCache.getAll(new LinkedHashSet<>(firebaseUids)).size();
     }
-    
+
     /**
-     * Get user roles from database
+     * Loads snapshots through the single-statement loader. The cache calls it on misses and for
+     * refresh-ahead, which runs on a background thread, so every load gets its own transaction.
      */
-    private List<String> getUserRoles(String firebaseUid) {
-        List<UserRole> userRoles = UserRole.find("user.firebaseUid", firebaseUid).list();
-        return userRoles.stream()
-                .map(userRole -> userRole.getRole().roleName)
-                .collect(Collectors.toList());
+    private class UserDataLoader implements CacheLoader<String, CachedUserData> {
+
+        @Override
+        public CachedUserData load(String firebaseUid) {
+            CachedUserData cachedData = QuarkusTransaction.requiringNew().call(() -> userAuthDataLoader.load(firebaseUid));
+            if (cachedData == null) {
+                throw new RuntimeException("User not found: " + firebaseUid);
+            }
+            return withExpiry(cachedData);
+        }
+
+        @Override
+        public Map<String, CachedUserData> loadAll(Set<? extends String> firebaseUids) {
+            Map<String, CachedUserData> loaded = QuarkusTransaction.requiringNew().call(() -> userAuthDataLoader.loadAll(firebaseUids));
+            loaded.values().forEach(UserAuthCacheService.this::withExpiry);
+            return loaded;
+        }
     }
-    
-    /**
-     * Get user club memberships from database
-     */
-    private List<ClubMembership> getUserClubMemberships(String firebaseUid) {
-        List<UserClub> userClubs = UserClub.find("user.firebaseUid", firebaseUid).list();
-                
-        List<ClubMembership> memberships = userClubs.stream()
-                .map(userClub -> new ClubMembership(
-                        userClub.getClub().clubId,
-                        userClub.getClub().name,
-                        userClub.getRole().roleName,
-                        isAdminRole(userClub.getRole().roleName)
-                ))
-                .collect(Collectors.toList());
-        
-        return memberships;
+
+    private CachedUserData withExpiry(CachedUserData cachedData) {
+        cachedData.expiresAt = cachedData.cachedAt.plus(expireAfterWrite);
+        return cachedData;
     }
-    
+
     /**
-     * Check if a role is an admin role
+     * Weight of a cache entry: one for the user plus one per role and club membership
      */
-    private boolean isAdminRole(String roleName) {
-        return "admin".equals(roleName) || "owner".equals(roleName);
+    private static int weigh(CachedUserData data) {
+        int roles = data.roles != null ? data.roles.size() : 0;
+        int memberships = data.clubMemberships != null ? data.clubMemberships.size() : 0;
+        return 1 + roles + memberships;
     }
-    
+
     /**
      * Check if user has a specific role (using cache)
      */
@@ -116,16 +137,16 @@ public class UserAuthCacheService {
         CachedUserData cachedData = getCachedUserData(firebaseUid);
         return cachedData.hasRole(roleName);
     }
-    
+
     /**
      * Check if user is admin of a specific club (using cache)
      */
     public boolean isAdminOfClub(String firebaseUid, UUID clubId) {
-        CachedUserData cachedData = getCachedUserData(firebaseUid);        
+        CachedUserData cachedData = getCachedUserData(firebaseUid);
         boolean result = cachedData.isAdminOfClub(clubId);
         return result;
     }
-    
+
     /**
      * Get all clubs where user is admin (using cache)
      */
@@ -133,7 +154,7 @@ public class UserAuthCacheService {
         CachedUserData cachedData = getCachedUserData(firebaseUid);
         return cachedData.getAdminClubs();
     }
-    
+
     /**
      * Get all club memberships for user (using cache)
      */
@@ -141,42 +162,25 @@ public class UserAuthCacheService {
         CachedUserData cachedData = getCachedUserData(firebaseUid);
         return cachedData.getClubMemberships();
     }
-    
+
     /**
      * Invalidate cache for a specific user
      */
     public void invalidateUserCache(String firebaseUid) {
-        userCache.remove(firebaseUid);
+        userCache.invalidate(firebaseUid);
     }
-    
+
     /**
      * Clear all cached data
      */
     public void clearAllCache() {
-        userCache.clear();
+        userCache.invalidateAll();
     }
-    
-    /**
-     * Get cache statistics
-     */
-    public Map<String, Object> getCacheStats() {
-        Map<String, Object> stats = new ConcurrentHashMap<>();
-        stats.put("totalCachedUsers", userCache.size());
-        stats.put("cacheExpirationHours", CACHE_EXPIRATION_HOURS);
-        
-        // Count expired entries
-        long expiredCount = userCache.values().stream()
-                .mapToLong(cachedData -> cachedData.isExpired() ? 1 : 0)
-                .sum();
-        stats.put("expiredEntries", expiredCount);
-        
-        return stats;
-    }
-    
+
     /**
-     * Clean up expired entries from cache
+     * Run pending eviction and expiry maintenance on the cache
      */
     public void cleanupExpiredEntries() {
-        userCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        userCache.cleanUp();
     }
 }
@@ -0,0 +1,119 @@
+package za.cf.cp.user.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import za.cf.cp.user.dto.CachedUserData;
+import za.cf.cp.user.dto.CachedUserData.ClubMembership;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Loads authorization snapshots (user, roles and club memberships) straight from the database.
+ * A snapshot for any number of users is materialized by a single statement.
+ */
+@ApplicationScoped
+public class UserAuthDataLoader {
+
+    private static final int ROW_USER = 0;
+    private static final int ROW_ROLE = 1;
+    private static final int ROW_CLUB = 2;
+
+    /**
+     * One row per user, one per role and one per club membership, tagged by row kind.
+     * Ordered by kind so the user rows are read before their roles and memberships.
+     */
+    private static final String AUTH_SNAPSHOT_QUERY = """
+            SELECT u.firebase_uid, u.email, u.username, u.display_name,
+                   CAST(NULL AS varchar) AS role_name, CAST(NULL AS uuid) AS club_id, CAST(NULL AS varchar) AS club_name,
+                   0 AS row_kind
+            FROM core."user" u
+            WHERE u.firebase_uid IN (:uids)
+            UNION ALL
+            SELECT ur.firebase_uid, NULL, NULL, NULL, r.role_name, NULL, NULL, 1
+            FROM core.user_role ur
+            JOIN core.role r ON r.role_id = ur.role_id
+            WHERE ur.firebase_uid IN (:uids)
+            UNION ALL
+            SELECT uc.firebase_uid, NULL, NULL, NULL, r.role_name, c.club_id, c.name, 2
+            FROM core.user_club uc
+            JOIN core.club c ON c.club_id = uc.club_id
+            JOIN core.role r ON r.role_id = uc.role_id
+            WHERE uc.firebase_uid IN (:uids)
+            ORDER BY row_kind
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Load the authorization snapshot for a single user, or null if the user does not exist.
+     */
+    public CachedUserData load(String firebaseUid) {
+        return loadAll(List.of(firebaseUid)).get(firebaseUid);
+    }
+
+    /**
+     * Load authorization snapshots for many users in one round trip.
+     * Users that do not exist are absent from the returned map.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, CachedUserData> loadAll(Collection<? extends String> firebaseUids) {
+        Map<String, CachedUserData> snapshots = new LinkedHashMap<>();
+        if (firebaseUids == null || firebaseUids.isEmpty()) {
+            return snapshots;
+        }
+
+        List<Object[]> rows = entityManager.createNativeQuery(AUTH_SNAPSHOT_QUERY)
+                .setParameter("uids", firebaseUids)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            String firebaseUid = (String) row[0];
+            int kind = ((Number) row[7]).intValue();
+
+            if (kind == ROW_USER) {
+                snapshots.put(firebaseUid, new CachedUserData(
+                        firebaseUid,
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        new ArrayList<>(),
+                        new ArrayList<>()
+                ));
+                continue;
+            }
+
+            CachedUserData snapshot = snapshots.get(firebaseUid);
+            if (snapshot == null) {
+                continue;
+            }
+
+            String roleName = (String) row[4];
+            if (kind == ROW_ROLE) {
+                snapshot.roles.add(roleName);
+            } else if (kind == ROW_CLUB) {
+                snapshot.clubMemberships.add(new ClubMembership(
+                        (UUID) row[5],
+                        (String) row[6],
+                        roleName,
+                        isAdminRole(roleName)
+                ));
+            }
+        }
+
+        return snapshots;
+    }
+
+    /**
+     * Check if a role is an admin role
+     */
+    static boolean isAdminRole(String roleName) {
+        return "admin".equals(roleName) || "owner".equals(roleName);
+    }
+}
@@ -1,19 +1,32 @@
 package za.cf.cp.user.service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.AvailableHints;
 import za.cf.cp.user.User;
 import za.cf.cp.user.UserRole;
 import za.cf.cp.user.Role;
 import za.cf.cp.user.UserClub;
 import za.cf.cp.club.Club;
 import za.cf.cp.user.dto.CachedUserData;
+import za.cf.cp.user.dto.UserSummary;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing users in PostgreSQL.
@@ -22,9 +35,30 @@ import java.util.UUID;
 @ApplicationScoped
 public class UserService {
     
+    private static final String USERNAME_UNIQUE_CONSTRAINT = "user_username_key";
+    // Each lost race still lets one of the competing sign-ups through
+    private static final int USERNAME_ATTEMPTS = 10;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 500;
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final String PAGE_CURSOR = "u:";
+    // %s is the profile picture column, or a null literal when pictures are not wanted
+    private static final String SUMMARY_SELECT = """
+            SELECT new za.cf.cp.user.dto.UserSummary(u.firebaseUid, u.email, u.username, u.firstName, u.lastName,
+                u.displayName, u.mobile, u.rating, u.emailVerified, u.profileCompleted, u.playtomicRating,
+                %s)
+            FROM User u""";
+    // Shorter terms have no trigrams to look up, so they are matched as prefixes
+    private static final int MIN_CONTAINS_LENGTH = 3;
+    private static final String PREFIX_CURSOR = "p:";
+    private static final String CONTAINS_CURSOR = "c:";
+    
     @Inject
     UserAuthCacheService userAuthCacheService;
     
+    @Inject
+    EntityManager entityManager;
+    
     /**
      * Find a user by their Firebase UID
      */
@@ -61,7 +95,64 @@ public class UserService {
     }
     
     /**
-     * Get all users with pagination
+     * Get one page of users as slim summaries, in Firebase UID order.
+     * Pages are continued from the last UID of the previous page (an index seek on the primary
+     * key), so deep pages cost the same as the first.
+     * @param cursor the previous page's {@link UserSummaryPage#nextCursor}, or null for the first page
+     * @throws IllegalArgumentException if the cursor is not a user page cursor
+     */
+    public UserSummaryPage findSummaryPage(String cursor, int limit, boolean includePicture) {
+        String afterUid = cursor == null ? null : decodeCursor(cursor, PAGE_CURSOR);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        
+        var query = entityManager.createQuery(summarySelect(includePicture)
+                + (afterUid != null ? " WHERE u.firebaseUid > :afterUid" : "")
+                + " ORDER BY u.firebaseUid", UserSummary.class);
+        if (afterUid != null) {
+            query.setParameter("afterUid", afterUid);
+        }
+        List<UserSummary> rows = query.setMaxResults(pageSize + 1).getResultList();
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(PAGE_CURSOR + rows.get(pageSize - 1).firebaseUid);
+        }
+        return new UserSummaryPage(rows, nextCursor);
+    }
+    
+    /**
+     * Summary projection; pictures are left out of the select itself, as the URLs can be long
+     */
+    private static String summarySelect(boolean includePicture) {
+        return SUMMARY_SELECT.formatted(includePicture ? "u.profilePicture" : "cast(null as String)");
+    }
+    
+    /**
+     * A page of user summaries, with the cursor of the next page (null on the last page)
+     */
+    public record UserSummaryPage(List<UserSummary> users, String nextCursor) {
+    }
+    
+    /**
+     * Hand every user to {@code sink} as a slim summary, in Firebase UID order, as the rows come
+     * off a database cursor. Nothing is collected in memory, so this is safe for full exports.
+     */
+    public void streamSummaries(boolean includePicture, Consumer<UserSummary> sink) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            try (Stream<UserSummary> rows = entityManager.createQuery(
+                            summarySelect(includePicture) + " ORDER BY u.firebaseUid", UserSummary.class)
+                    .setHint(AvailableHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                    .setHint(AvailableHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                rows.forEach(sink);
+            }
+        });
+    }
+    
+    /**
+     * Get all users with pagination.
+     * Offset based, so later pages get slower; use {@link #findSummaryPage} instead.
      */
     public List<User> findAllWithPagination(int page, int size) {
         return User.findAll(Sort.by("firebaseUid").descending())
@@ -70,9 +161,10 @@ public class UserService {
     }
     
     /**
-     * Create a new user
+     * Create a new user, with the first free numbered variant of the requested username.
+     * Each attempt runs in its own transaction: a sign-up that loses the race for a username to a
+     * concurrent one is retried with the next free suffix.
      */
-    @Transactional
     public User createUser(User user) {
         // Validate required fields
         if (user.firebaseUid == null || user.firebaseUid.trim().isEmpty()) {
@@ -113,23 +205,51 @@ public class UserService {
             user.profileCompleted = false;
         }
         
-        // Ensure username is unique by appending a suffix if needed
         String baseUsername = user.username;
-        String uniqueUsername = baseUsername;
-        int suffix = 1;
-        
-        while (findByUsername(uniqueUsername).isPresent()) {
-            uniqueUsername = baseUsername + suffix;
-            suffix++;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return QuarkusTransaction.requiringNew().call(() -> {
+                    user.username = allocateUsername(baseUsername);
+                    user.persist();
+                    entityManager.flush();
+                    
+                    // Assign default role 'player' if no roles exist yet
+                    assignDefaultPlayerRole(user.firebaseUid);
+                    
+                    return user;
+                });
+            } catch (ConstraintViolationException e) {
+                if (!USERNAME_UNIQUE_CONSTRAINT.equals(e.getConstraintName()) || attempt == USERNAME_ATTEMPTS) {
+                    throw e;
+                }
+            }
         }
-        user.username = uniqueUsername;
-        
-        user.persist();
-        
-        // Assign default role 'player' if no roles exist yet
-        assignDefaultPlayerRole(user.firebaseUid);
-        
-        return user;
+    }
+    
+    /**
+     * Find the first free username for a base name in one query: the base itself if it is free,
+     * otherwise the base with the lowest free numeric suffix (john, john1, john2, ...).
+     * Names are compared case-insensitively, which lets the lookup use the LOWER(username) prefix index.
+     */
+    String allocateUsername(String baseUsername) {
+        String base = baseUsername.toLowerCase();
+        Number suffix = (Number) entityManager.createNativeQuery("""
+                WITH taken AS (
+                    SELECT CASE WHEN LOWER(username) = :base THEN 0
+                                ELSE CAST(SUBSTRING(LOWER(username) FROM :suffixStart) AS INTEGER) END AS n
+                    FROM core."user"
+                    WHERE LOWER(username) LIKE :pattern
+                      AND SUBSTRING(LOWER(username) FROM :suffixStart) ~ '^([1-9][0-9]{0,8})?$'
+                )
+                SELECT MIN(candidate.n)
+                FROM (SELECT 0 AS n UNION ALL SELECT n + 1 FROM taken) candidate
+                WHERE NOT EXISTS (SELECT 1 FROM taken WHERE taken.n = candidate.n)
+                """)
+                .setParameter("base", base)
+                .setParameter("suffixStart", base.codePointCount(0, base.length()) + 1)
+                .setParameter("pattern", escapeLike(base) + "%")
+                .getSingleResult();
+        return suffix.intValue() == 0 ? baseUsername : baseUsername + suffix.intValue();
     }
     
     private void assignDefaultPlayerRole(String firebaseUid) {
@@ -328,6 +448,21 @@ public class UserService {
         return userAuthCacheService.hasRole(firebaseUid, roleName);
     }
     
+    /**
+     * Check if user holds the platform admin role (using cache); false for unknown users
+     */
+    public boolean isAdmin(String firebaseUid) {
+        if (firebaseUid == null) {
+            return false;
+        }
+        try {
+            return hasRole(firebaseUid, "admin");
+        } catch (RuntimeException e) {
+            // No such user
+            return false;
+        }
+    }
+    
     /**
      * Check if user is admin of a specific club (using cache)
      */
@@ -349,6 +484,13 @@ public class UserService {
         return userAuthCacheService.getClubMemberships(firebaseUid);
     }
     
+    /**
+     * Prime the authentication cache for many users with a single query
+     */
+    public int warmUserCache(Collection<String> firebaseUids) {
+        return userAuthCacheService.warmUp(firebaseUids);
+    }
+    
     /**
      * Invalidate user cache (call when user data changes)
      */
@@ -378,21 +520,144 @@ public class UserService {
     }
     
     /**
-     * Search users by name, email, or username
+     * Search users by name, email, or username, one page at a time.
+     * In prefix mode (and for terms shorter than three characters) users with a name, username or
+     * email starting with the term are returned in username order; otherwise users containing the
+     * term anywhere are returned best match first. An empty term pages through all users.
+     * @param cursor the previous page's {@link UserSearchPage#nextCursor}, or null for the first page
+     * @throws IllegalArgumentException if the cursor is not one of this search's
      */
-    public List<User> searchUsers(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return findAll();
+    public UserSearchPage searchUsers(String searchTerm, boolean prefix, int limit, String cursor) {
+        String term = searchTerm == null ? "" : searchTerm.trim().toLowerCase();
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (prefix || term.length() < MIN_CONTAINS_LENGTH) {
+            return searchByPrefix(term, pageSize, cursor);
+        }
+        return searchByContains(term, pageSize, cursor);
+    }
+    
+    /**
+     * A page of search results, with the cursor of the next page (null on the last page)
+     */
+    public record UserSearchPage(List<User> users, String nextCursor) {
+    }
+    
+    private UserSearchPage searchByPrefix(String term, int limit, String cursor) {
+        String after = cursor == null ? null : decodeCursor(cursor, PREFIX_CURSOR);
+        StringBuilder sql = new StringBuilder("SELECT firebase_uid, username FROM core.\"user\" WHERE TRUE");
+        if (!term.isEmpty()) {
+            // Each branch can use its column's prefix index
+            sql.append(" AND (LOWER(first_name) LIKE :pattern OR LOWER(last_name) LIKE :pattern")
+               .append(" OR LOWER(display_name) LIKE :pattern OR LOWER(username) LIKE :pattern")
+               .append(" OR LOWER(email) LIKE :pattern)");
         }
+        if (after != null) {
+            sql.append(" AND username > :after");
+        }
+        sql.append(" ORDER BY username LIMIT :limit");
         
-        String trimmedSearchTerm = "%" + searchTerm.trim().toLowerCase() + "%";
+        var query = entityManager.createNativeQuery(sql.toString());
+        if (!term.isEmpty()) {
+            query.setParameter("pattern", escapeLike(term) + "%");
+        }
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        List<?> rows = query.setParameter("limit", limit + 1).getResultList();
         
-        return User.find("""
-            LOWER(firstName) LIKE ?1 OR 
-            LOWER(lastName) LIKE ?1 OR 
-            LOWER(displayName) LIKE ?1 OR 
-            LOWER(email) LIKE ?1 OR 
-            LOWER(username) LIKE ?1
-            """, trimmedSearchTerm).list();
-    }
-} 
\ No newline at end of file
+        List<String> uids = new ArrayList<>(Math.min(rows.size(), limit));
+        String nextCursor = null;
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            Object[] row = (Object[]) rows.get(i);
+            uids.add((String) row[0]);
+            if (rows.size() > limit && i == limit - 1) {
+                nextCursor = encodeCursor(PREFIX_CURSOR + row[1]);
+            }
+        }
+        return new UserSearchPage(loadInOrder(uids), nextCursor);
+    }
+    
+    private UserSearchPage searchByContains(String term, int limit, String cursor) {
+        String after = cursor == null ? null : decodeCursor(cursor, CONTAINS_CURSOR);
+        Float afterRank = null;
+        String afterUid = null;
+        if (after != null) {
+            int separator = after.indexOf(':');
+            try {
+                afterRank = Float.valueOf(after.substring(0, separator));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+            afterUid = after.substring(separator + 1);
+        }
+        
+        // The LIKE filter is answered from the trigram index; the rank only orders the matches
+        StringBuilder sql = new StringBuilder("""
+                SELECT firebase_uid, word_similarity(:term, search_text) AS rank
+                FROM core."user"
+                WHERE search_text LIKE :pattern""");
+        if (afterRank != null) {
+            sql.append(" AND (word_similarity(:term, search_text) < CAST(:afterRank AS real)")
+               .append(" OR (word_similarity(:term, search_text) = CAST(:afterRank AS real) AND firebase_uid > :afterUid))");
+        }
+        sql.append(" ORDER BY rank DESC, firebase_uid LIMIT :limit");
+        
+        var query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("term", term)
+                .setParameter("pattern", "%" + escapeLike(term) + "%");
+        if (afterRank != null) {
+            query.setParameter("afterRank", afterRank).setParameter("afterUid", afterUid);
+        }
+        List<?> rows = query.setParameter("limit", limit + 1).getResultList();
+        
+        List<String> uids = new ArrayList<>(Math.min(rows.size(), limit));
+        String nextCursor = null;
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            Object[] row = (Object[]) rows.get(i);
+            uids.add((String) row[0]);
+            if (rows.size() > limit && i == limit - 1) {
+                nextCursor = encodeCursor(CONTAINS_CURSOR + ((Number) row[1]).floatValue() + ":" + row[0]);
+            }
+        }
+        return new UserSearchPage(loadInOrder(uids), nextCursor);
+    }
+    
+    private List<User> loadInOrder(List<String> uids) {
+        if (uids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, User> byUid = new HashMap<>();
+        for (User user : User.<User>list("firebaseUid in ?1", uids)) {
+            byUid.put(user.firebaseUid, user);
+        }
+        List<User> users = new ArrayList<>(uids.size());
+        for (String uid : uids) {
+            User user = byUid.get(uid);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+    
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String decodeCursor(String cursor, String kind) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+        if (!value.startsWith(kind)) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+        return value.substring(kind.length());
+    }
+}
@@ -0,0 +1,59 @@
+package za.cf.cp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that key lookups answer from the cached key set and leave fetching to the refresh thread.
+ */
+public class FirebasePublicKeysTest {
+
+    @Test
+    public void testUnknownKeyIdIsFetchedInTheBackground() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        RSAPublicKey first = (RSAPublicKey) generator.generateKeyPair().getPublic();
+        RSAPublicKey rotated = (RSAPublicKey) generator.generateKeyPair().getPublic();
+
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch rotatedLoaded = new CountDownLatch(1);
+        FirebasePublicKeys keys = new FirebasePublicKeys(() -> {
+            if (fetches.incrementAndGet() == 1) {
+                return new FirebasePublicKeys.KeySet(Map.of("first", first), Instant.now().plusSeconds(3600));
+            }
+            // The key endpoint is slow; lookups must not wait for it
+            release.await(10, TimeUnit.SECONDS);
+            rotatedLoaded.countDown();
+            return new FirebasePublicKeys.KeySet(Map.of("first", first, "rotated", rotated), Instant.now().plusSeconds(3600));
+        }, Duration.ZERO);
+        try {
+            keys.start();
+            assertEquals(first, keys.getPublicKeyById("first"));
+
+            // Returns straight away while the fetch it triggered is still blocked
+            assertEquals(null, keys.getPublicKeyById("rotated"));
+            assertEquals(first, keys.getPublicKeyById("first"));
+            release.countDown();
+
+            assertTrue(rotatedLoaded.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 100 && keys.getPublicKeyById("rotated") == null; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(rotated, keys.getPublicKeyById("rotated"));
+        } finally {
+            keys.stop();
+        }
+    }
+}
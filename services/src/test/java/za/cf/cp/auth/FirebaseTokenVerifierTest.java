@@ -0,0 +1,93 @@
+package za.cf.cp.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies Firebase ID tokens offline against a local key set file.
+ */
+public class FirebaseTokenVerifierTest {
+
+    private static final String PROJECT_ID = "corepadel-test";
+    private static final String KEY_ID = "test-key";
+
+    @TempDir
+    Path tempDir;
+
+    private KeyPair keyPair;
+    private FirebaseTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        Path keysFile = tempDir.resolve("firebase-keys.json");
+        Files.writeString(keysFile, "{\"" + KEY_ID + "\": \"" + pem.replace("\n", "\\n").replace("\r", "") + "\"}");
+
+        FirebasePublicKeys keys = new FirebasePublicKeys(FirebasePublicKeys.fromFile(keysFile));
+        verifier = new FirebaseTokenVerifier(PROJECT_ID, keys, 100);
+    }
+
+    @Test
+    public void testValidTokenReturnsUid() {
+        String token = token(KEY_ID, PROJECT_ID, Instant.now().plusSeconds(3600));
+
+        assertEquals("player-1", verifier.verify(token));
+        // Second call is served from the verified-token cache
+        assertEquals("player-1", verifier.verify(token));
+    }
+
+    @Test
+    public void testWrongAudienceIsRejected() {
+        String token = token(KEY_ID, "another-project", Instant.now().plusSeconds(3600));
+
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    public void testExpiredTokenIsRejected() {
+        String token = token(KEY_ID, PROJECT_ID, Instant.now().minusSeconds(3600));
+
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    public void testUnknownKeyIdIsRejected() {
+        String token = token("rotated-key", PROJECT_ID, Instant.now().plusSeconds(3600));
+
+        assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    }
+
+    private String token(String keyId, String audience, Instant expiresAt) {
+        Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate());
+        return JWT.create()
+                .withKeyId(keyId)
+                .withIssuer(FirebaseTokenVerifier.ISSUER_PREFIX + audience)
+                .withAudience(audience)
+                .withSubject("player-1")
+                .withIssuedAt(expiresAt.minusSeconds(3600))
+                .withExpiresAt(expiresAt)
+                .sign(algorithm);
+    }
+}
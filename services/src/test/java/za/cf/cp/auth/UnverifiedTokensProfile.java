@@ -0,0 +1,16 @@
+package za.cf.cp.auth;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Test profile that accepts any bearer token, so tests don't need Firebase credentials.
+ * Shared by all tests that call authenticated endpoints, so Quarkus restarts only once for them.
+ */
+public class UnverifiedTokensProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("firebase.auth.verify-tokens", "false");
+    }
+}
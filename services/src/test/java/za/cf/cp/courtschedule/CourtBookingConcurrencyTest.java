@@ -0,0 +1,155 @@
+package za.cf.cp.courtschedule;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.club.Club;
+import za.cf.cp.courtschedule.dto.CourtBookingRequest;
+import za.cf.cp.courtschedule.service.CourtBookingAdmission;
+import za.cf.cp.courtschedule.service.CourtBookingService;
+import za.cf.cp.courtschedule.service.CourtSlotOccupancyService;
+import za.cf.cp.user.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires many simultaneous bookings at one court and checks that the capacity rules hold:
+ * at most four players per court and two per team.
+ */
+@QuarkusTest
+public class CourtBookingConcurrencyTest {
+
+    private static final int PLAYERS = 200;
+    private static final int COURT = 1;
+    private static final LocalTime TIME_SLOT = LocalTime.of(18, 0);
+
+    @Inject
+    CourtBookingAdmission admission;
+
+    @Inject
+    CourtBookingService courtBookingService;
+
+    @Inject
+    CourtSlotOccupancyService occupancyService;
+
+    private UUID venueId;
+    private UUID scheduleId;
+    private LocalDate bookingDate;
+    private final List<String> userIds = new ArrayList<>();
+
+    @BeforeEach
+    public void createCourt() {
+        bookingDate = LocalDate.now().plusDays(30);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Club venue = new Club("Concurrency Venue " + UUID.randomUUID(), null);
+            venue.persist();
+            venueId = venue.getClubId();
+
+            CourtSchedule schedule = new CourtSchedule();
+            schedule.clubId = venueId;
+            schedule.startDate = bookingDate;
+            schedule.endDate = bookingDate;
+            schedule.persist();
+            scheduleId = schedule.scheduleId;
+
+            for (int i = 0; i < PLAYERS; i++) {
+                String uid = "concurrency-" + UUID.randomUUID();
+                new User(uid, uid + "@example.com", uid).persist();
+                userIds.add(uid);
+            }
+        });
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            CourtBooking.delete("venueId", venueId);
+            CourtSchedule.deleteById(scheduleId);
+            User.delete("firebaseUid in ?1", userIds);
+            Club.deleteById(venueId);
+        });
+        userIds.clear();
+    }
+
+    @Test
+    public void testConcurrentBookingsThroughAdmission() throws Exception {
+        assertCapacityHolds(fireBookings(request -> admission.admit(request)));
+    }
+
+    @Test
+    public void testConcurrentBookingsWithDatabaseLockOnly() throws Exception {
+        // Bypasses the in-JVM lock: the conditional counter update alone must keep the court consistent
+        assertCapacityHolds(fireBookings(request -> courtBookingService.createBooking(request)));
+    }
+
+    private int fireBookings(Consumer<CourtBookingRequest> book) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < PLAYERS; i++) {
+                CourtBookingRequest request = new CourtBookingRequest(scheduleId.toString(), userIds.get(i), null,
+                        bookingDate, TIME_SLOT, 90, venueId, COURT, i % 3 == 0 ? null : (i % 3));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        book.accept(request);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    admitted++;
+                }
+            }
+            return admitted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertCapacityHolds(int admitted) {
+        List<CourtBooking> bookings = QuarkusTransaction.requiringNew().call(() -> CourtBooking.<CourtBooking>list(
+                "venueId = ?1 AND bookingDate = ?2 AND timeSlot = ?3 AND courtNumber = ?4 AND status = 'confirmed'",
+                venueId, bookingDate, TIME_SLOT, COURT));
+
+        long team1 = bookings.stream().filter(booking -> Integer.valueOf(1).equals(booking.teamNumber)).count();
+        long team2 = bookings.stream().filter(booking -> Integer.valueOf(2).equals(booking.teamNumber)).count();
+
+        assertEquals(4, bookings.size());
+        assertEquals(4, admitted);
+        assertTrue(team1 <= 2, "team 1 has " + team1 + " players");
+        assertTrue(team2 <= 2, "team 2 has " + team2 + " players");
+
+        // The counters must agree with the bookings that were admitted
+        var occupancy = QuarkusTransaction.requiringNew().call(() ->
+                occupancyService.getOccupancy(venueId, bookingDate, TIME_SLOT, COURT));
+        assertEquals(4, occupancy.total());
+        assertEquals(team1, occupancy.team1Count());
+        assertEquals(team2, occupancy.team2Count());
+        var mismatches = QuarkusTransaction.requiringNew().call(() -> occupancyService.check(bookingDate, bookingDate));
+        assertTrue(mismatches.stream().noneMatch(mismatch -> venueId.equals(mismatch.venueId)));
+    }
+}
@@ -0,0 +1,112 @@
+package za.cf.cp.live;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.auth.UnverifiedTokensProfile;
+
+import java.net.URL;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Opens thousands of idle Server-Sent Events subscriptions to one run month and checks that they
+ * are all held open without a worker thread each, and that a single published change reaches
+ * every one of them.
+ * The number of subscribers can be raised with -Dlive.load-test.subscribers (each needs two file
+ * descriptors in this JVM).
+ */
+@QuarkusTest
+@TestProfile(UnverifiedTokensProfile.class)
+public class LiveEventStreamLoadTest {
+
+    private static final int SUBSCRIBERS = Integer.getInteger("live.load-test.subscribers", 2000);
+    private static final YearMonth MONTH = YearMonth.of(2030, 1);
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    LiveEventBus liveEventBus;
+
+    @TestHTTPResource("/")
+    URL baseUrl;
+
+    @Test
+    public void testThousandsOfIdleSubscribers() throws Exception {
+        HttpClient client = vertx.createHttpClient(
+                new HttpClientOptions().setDefaultHost(baseUrl.getHost()).setDefaultPort(baseUrl.getPort()),
+                new PoolOptions().setHttp1MaxSize(SUBSCRIBERS));
+        String path = "/api/run-bookings/month/" + MONTH.getYear() + "/" + MONTH.getMonthValue() + "/events";
+        CountDownLatch subscribed = new CountDownLatch(SUBSCRIBERS);
+        CountDownLatch received = new CountDownLatch(SUBSCRIBERS);
+        AtomicInteger failures = new AtomicInteger();
+        int workersBefore = workerThreads();
+
+        try {
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                client.request(HttpMethod.GET, path)
+                        .compose(request -> request
+                                .putHeader("Accept", "text/event-stream")
+                                .putHeader("Authorization", "Bearer load-test")
+                                .send())
+                        .onSuccess(response -> {
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                                return;
+                            }
+                            boolean[] seen = new boolean[2];
+                            response.handler(chunk -> {
+                                String data = chunk.toString();
+                                if (!seen[0] && data.contains(LiveEvent.SUBSCRIBED)) {
+                                    seen[0] = true;
+                                    subscribed.countDown();
+                                }
+                                if (!seen[1] && data.contains("run-booking.created")) {
+                                    seen[1] = true;
+                                    received.countDown();
+                                }
+                            });
+                        })
+                        .onFailure(e -> failures.incrementAndGet());
+            }
+
+            assertTrue(subscribed.await(60, TimeUnit.SECONDS),
+                    (SUBSCRIBERS - subscribed.getCount()) + " of " + SUBSCRIBERS + " subscribed, " + failures.get() + " failed");
+            assertEquals(SUBSCRIBERS, liveEventBus.subscriberCount(LiveEvent.runMonthTopic(MONTH)));
+
+            // Idle streams are parked on the event loop, not on one worker thread each
+            int workersAdded = workerThreads() - workersBefore;
+            assertTrue(workersAdded < SUBSCRIBERS / 10, workersAdded + " worker threads added");
+
+            // A burst of changes to one day is coalesced and delivered to everyone
+            LocalDate day = MONTH.atDay(2);
+            for (int i = 0; i < 50; i++) {
+                liveEventBus.publish(LiveEvent.runDay("run-booking.created", day));
+            }
+            assertTrue(received.await(30, TimeUnit.SECONDS),
+                    (SUBSCRIBERS - received.getCount()) + " of " + SUBSCRIBERS + " received the change");
+        } finally {
+            client.close().toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static int workerThreads() {
+        return (int) Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("executor-thread-"))
+                .count();
+    }
+}
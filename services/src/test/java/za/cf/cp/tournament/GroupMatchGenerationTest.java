@@ -0,0 +1,127 @@
+package za.cf.cp.tournament;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.club.Club;
+import za.cf.cp.tournament.dto.GeneratedMatchDto;
+import za.cf.cp.tournament.service.FixtureScheduler;
+import za.cf.cp.tournament.service.TournamentService;
+import za.cf.cp.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Generates the group stage with every scheduling algorithm and checks that each group plays a
+ * full round robin of persisted matches.
+ */
+@QuarkusTest
+public class GroupMatchGenerationTest {
+
+    private static final int COURTS = 2;
+
+    @Inject
+    TournamentService tournamentService;
+
+    private UUID clubId;
+    private UUID tournamentId;
+    private final List<String> userIds = new ArrayList<>();
+    // Teams per group: odd and even sized groups
+    private final Map<UUID, Integer> groupSizes = new HashMap<>();
+
+    @BeforeEach
+    public void createGroups() {
+        String suffix = UUID.randomUUID().toString();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Club club = new Club("Fixture Club " + suffix, null);
+            club.persist();
+            clubId = club.getClubId();
+
+            RoundRobinTournament tournament = new RoundRobinTournament();
+            tournament.setName("Fixture Tournament " + suffix);
+            tournament.setStartDate(LocalDateTime.now().plusDays(1));
+            tournament.setEndDate(LocalDateTime.now().plusDays(2));
+            tournament.setMaxParticipants(9);
+            tournament.setFirebaseUid("fixture-test");
+            tournament.setClub(club);
+            tournament.setVenueClub(club);
+            tournament.persist();
+            tournamentId = tournament.getTournamentId();
+
+            for (int size : new int[]{5, 4}) {
+                TournamentGroup group = new TournamentGroup(tournament, "Group " + size, size);
+                group.persist();
+                groupSizes.put(group.groupId, size);
+                for (int i = 0; i < size; i++) {
+                    String uid = "fixture-" + size + "-" + i + "-" + suffix;
+                    new User(uid, uid + "@example.com", uid).persist();
+                    userIds.add(uid);
+                    TournamentTeam team = new TournamentTeam(tournament, "Team " + size + "-" + i, uid, null, 0);
+                    team.group = group;
+                    team.persist();
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            TournamentMatch.delete("tournament.tournamentId", tournamentId);
+            TournamentTeam.delete("tournament.tournamentId", tournamentId);
+            TournamentGroup.delete("tournament.tournamentId", tournamentId);
+            Tournament.deleteById(tournamentId);
+            Club.deleteById(clubId);
+            User.delete("firebaseUid in ?1", userIds);
+        });
+    }
+
+    @Test
+    public void testEveryAlgorithmGeneratesAFullRoundRobin() {
+        for (FixtureScheduler.Algorithm algorithm : FixtureScheduler.Algorithm.values()) {
+            List<Object> generated = tournamentService.generateAllGroupMatches(tournamentId.toString(), algorithm, COURTS);
+
+            // 5 teams play 10 matches, 4 teams play 6
+            assertEquals(16, generated.size(), algorithm.name());
+            Map<String, Set<String>> pairingsByGroup = new HashMap<>();
+            Set<String> matchIds = new HashSet<>();
+            for (Object item : generated) {
+                GeneratedMatchDto match = (GeneratedMatchDto) item;
+                assertNotNull(match.id, algorithm.name());
+                assertTrue(matchIds.add(match.id), algorithm.name());
+                assertEquals("group", match.phase);
+                String pairing = match.team1Id.compareTo(match.team2Id) < 0
+                        ? match.team1Id + ":" + match.team2Id
+                        : match.team2Id + ":" + match.team1Id;
+                assertTrue(pairingsByGroup.computeIfAbsent(match.groupId, id -> new HashSet<>()).add(pairing),
+                        algorithm + ": repeated pairing " + pairing);
+                if (algorithm == FixtureScheduler.Algorithm.COURT_ROTATION) {
+                    assertTrue(match.court >= 1 && match.court <= COURTS, algorithm + ": court " + match.court);
+                }
+            }
+            for (Map.Entry<UUID, Integer> group : groupSizes.entrySet()) {
+                int size = group.getValue();
+                assertEquals(size * (size - 1) / 2, pairingsByGroup.get(group.getKey().toString()).size(), algorithm.name());
+            }
+
+            QuarkusTransaction.requiringNew().run(() -> {
+                assertEquals(16L, TournamentMatch.count("tournament.tournamentId", tournamentId));
+                TournamentMatch.delete("tournament.tournamentId", tournamentId);
+            });
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package za.cf.cp.tournament;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.auth.UnverifiedTokensProfile;
+import za.cf.cp.club.Club;
+import za.cf.cp.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Completes both semifinals of a bracket at the same time and checks that both winners reach the
+ * final and neither referee's update is rejected.
+ */
+@QuarkusTest
+@TestProfile(UnverifiedTokensProfile.class)
+public class KnockoutAdvanceTest {
+
+    private UUID clubId;
+    private UUID tournamentId;
+    private UUID finalId;
+    private final List<UUID> semifinalIds = new ArrayList<>();
+    private final List<UUID> teamIds = new ArrayList<>();
+    private final List<String> userIds = new ArrayList<>();
+
+    @BeforeEach
+    public void createBracket() {
+        String suffix = UUID.randomUUID().toString();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Club club = new Club("Knockout Club " + suffix, null);
+            club.persist();
+            clubId = club.getClubId();
+
+            RoundRobinTournament tournament = new RoundRobinTournament();
+            tournament.setName("Knockout Tournament " + suffix);
+            tournament.setStartDate(LocalDateTime.now().plusDays(1));
+            tournament.setEndDate(LocalDateTime.now().plusDays(2));
+            tournament.setMaxParticipants(8);
+            tournament.setFirebaseUid("knockout-test");
+            tournament.setClub(club);
+            tournament.setVenueClub(club);
+            tournament.persist();
+            tournamentId = tournament.getTournamentId();
+
+            List<TournamentTeam> teams = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String uid = "knockout-" + i + "-" + suffix;
+                new User(uid, uid + "@example.com", uid).persist();
+                userIds.add(uid);
+                TournamentTeam team = new TournamentTeam(tournament, "Team " + i, uid, null, 0);
+                team.persist();
+                teams.add(team);
+                teamIds.add(team.teamId);
+            }
+
+            TournamentMatch last = new TournamentMatch(tournament, "final", 2, null, null);
+            last.bracketPosition = 0;
+            last.persist();
+            finalId = last.matchId;
+
+            for (int position = 0; position < 2; position++) {
+                TournamentMatch semifinal = new TournamentMatch(tournament, "semifinal", 1,
+                        teams.get(2 * position), teams.get(2 * position + 1));
+                semifinal.bracketPosition = position;
+                semifinal.nextMatch = last;
+                semifinal.nextSlot = position + 1;
+                semifinal.persist();
+                semifinalIds.add(semifinal.matchId);
+            }
+        });
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            TournamentMatch.delete("tournament.tournamentId", tournamentId);
+            TournamentTeam.delete("tournament.tournamentId", tournamentId);
+            Tournament.deleteById(tournamentId);
+            Club.deleteById(clubId);
+            User.delete("firebaseUid in ?1", userIds);
+        });
+    }
+
+    @Test
+    public void testBothSemifinalWinnersReachTheFinal() throws Exception {
+        ExecutorService referees = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<Integer>> updates = new ArrayList<>();
+            for (UUID semifinalId : semifinalIds) {
+                updates.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    // Team 1 wins in two sets
+                    return given()
+                            .header("Authorization", "Bearer knockout-test")
+                            .contentType(ContentType.JSON)
+                            .body(Map.of("team1Set1", 6, "team2Set1", 2, "team1Set2", 6, "team2Set2", 3))
+                            .when()
+                            .patch("/api/tournaments/matches/" + semifinalId)
+                            .statusCode();
+                }, referees));
+            }
+            start.countDown();
+            for (CompletableFuture<Integer> update : updates) {
+                assertEquals(200, update.get());
+            }
+        } finally {
+            referees.shutdown();
+        }
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            TournamentMatch last = TournamentMatch.findById(finalId);
+            assertEquals(teamIds.get(0), last.team1.teamId);
+            assertEquals(teamIds.get(2), last.team2.teamId);
+            assertEquals("scheduled", last.status);
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package za.cf.cp.tournament;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.auth.UnverifiedTokensProfile;
+import za.cf.cp.club.Club;
+import za.cf.cp.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks referee score updates over HTTP: an update based on a stale version is rejected with 409
+ * and an unknown match with 404.
+ * The latency benchmark (HTTP PATCH through to the database) only runs with -Pbenchmark; its 95th
+ * percentile budget can be changed with -Dmatch-score.max-p95-millis.
+ */
+@QuarkusTest
+@TestProfile(UnverifiedTokensProfile.class)
+public class MatchScoreUpdateTest {
+
+    private static final double MAX_P95_MILLIS = Double.parseDouble(System.getProperty("match-score.max-p95-millis", "50"));
+    private static final int WARM_UP = 50;
+    private static final int UPDATES = 300;
+
+    private UUID clubId;
+    private UUID tournamentId;
+    private UUID matchId;
+    private List<String> userIds;
+
+    @BeforeEach
+    public void createMatch() {
+        String suffix = UUID.randomUUID().toString();
+        userIds = List.of("score-a-" + suffix, "score-b-" + suffix);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (String uid : userIds) {
+                new User(uid, uid + "@example.com", uid).persist();
+            }
+            Club club = new Club("Score Update Club " + suffix, null);
+            club.persist();
+            clubId = club.getClubId();
+
+            RoundRobinTournament tournament = new RoundRobinTournament();
+            tournament.setName("Score Update Tournament " + suffix);
+            tournament.setStartDate(LocalDateTime.now().plusDays(1));
+            tournament.setEndDate(LocalDateTime.now().plusDays(2));
+            tournament.setMaxParticipants(4);
+            tournament.setFirebaseUid(userIds.get(0));
+            tournament.setClub(club);
+            tournament.setVenueClub(club);
+            tournament.persist();
+            tournamentId = tournament.getTournamentId();
+
+            TournamentTeam team1 = new TournamentTeam(tournament, "Team A", userIds.get(0), null, 0);
+            TournamentTeam team2 = new TournamentTeam(tournament, "Team B", userIds.get(1), null, 0);
+            team1.persist();
+            team2.persist();
+
+            // A knockout match stays in progress while only the first set is scored
+            TournamentMatch match = new TournamentMatch(tournament, "final", 1, team1, team2);
+            match.persist();
+            matchId = match.matchId;
+        });
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            TournamentMatch.delete("tournament.tournamentId", tournamentId);
+            TournamentTeam.delete("tournament.tournamentId", tournamentId);
+            Tournament.deleteById(tournamentId);
+            Club.deleteById(clubId);
+            User.delete("firebaseUid in ?1", userIds);
+        });
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testScoreUpdateLatency() {
+        long version = 0;
+        for (int i = 0; i < WARM_UP; i++) {
+            version = patch(i % 7, (i + 3) % 7, version).jsonPath().getLong("version");
+        }
+
+        double[] millis = new double[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            long start = System.nanoTime();
+            Response response = patch(i % 7, (i + 3) % 7, version);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+            version = response.jsonPath().getLong("version");
+        }
+        Arrays.sort(millis);
+        double p50 = millis[UPDATES / 2];
+        double p95 = millis[UPDATES * 95 / 100];
+        System.out.printf("Match score update latency: p50 %.2f ms, p95 %.2f ms, max %.2f ms%n",
+                p50, p95, millis[UPDATES - 1]);
+        assertTrue(p95 < MAX_P95_MILLIS, String.format("p95 %.2f ms", p95));
+    }
+
+    @Test
+    public void testStaleVersionIsRejected() {
+        long version = patch(6, 4, 0).jsonPath().getLong("version");
+        assertEquals(1, version);
+
+        // A second referee still looking at version 0
+        given()
+                .header("Authorization", "Bearer score-test")
+                .contentType(ContentType.JSON)
+                .body(Map.of("team1Set1", 5, "team2Set1", 4, "version", 0))
+                .when()
+                .patch("/api/tournaments/matches/" + matchId)
+                .then()
+                .statusCode(409);
+
+        Response current = given()
+                .header("Authorization", "Bearer score-test")
+                .when()
+                .get("/api/tournaments/" + tournamentId + "/matches");
+        assertEquals(6, current.jsonPath().getInt("[0].team1Set1"));
+        assertEquals(1, current.jsonPath().getInt("[0].version"));
+    }
+
+    @Test
+    public void testUnknownMatchIsNotFound() {
+        given()
+                .header("Authorization", "Bearer score-test")
+                .contentType(ContentType.JSON)
+                .body(Map.of("team1Set1", 6, "team2Set1", 4))
+                .when()
+                .patch("/api/tournaments/matches/" + UUID.randomUUID())
+                .then()
+                .statusCode(404);
+    }
+
+    private Response patch(int team1Games, int team2Games, long version) {
+        return given()
+                .header("Authorization", "Bearer score-test")
+                .contentType(ContentType.JSON)
+                .body(Map.of("team1Set1", team1Games, "team2Set1", team2Games, "version", version))
+                .when()
+                .patch("/api/tournaments/matches/" + matchId)
+                .then()
+                .statusCode(200)
+                .extract()
+                .response();
+    }
+}
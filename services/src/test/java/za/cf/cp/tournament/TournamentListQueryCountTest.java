@@ -0,0 +1,85 @@
+package za.cf.cp.tournament;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.club.Club;
+import za.cf.cp.tournament.service.TournamentService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards against N+1 queries when listing tournaments: the number of SQL statements
+ * must not grow with the number of tournaments or of the clubs hosting them.
+ */
+@QuarkusTest
+public class TournamentListQueryCountTest {
+
+    @Inject
+    TournamentService tournamentService;
+
+    @Inject
+    EntityManager entityManager;
+
+    private final List<UUID> clubIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Tournament.delete("club.clubId in ?1", clubIds);
+            Club.delete("clubId in ?1", clubIds);
+        });
+        clubIds.clear();
+    }
+
+    @Test
+    public void testStatementCountIsIndependentOfTournamentCount() {
+        createTournaments(5);
+        long statementsForFew = countStatementsForGetAll();
+
+        createTournaments(495);
+        long statementsForMany = countStatementsForGetAll();
+
+        assertEquals(statementsForFew, statementsForMany);
+    }
+
+    private long countStatementsForGetAll() {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        tournamentService.getAllTournaments();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createTournaments(int count) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < count; i++) {
+                // A club per tournament, so per-club lookups would show up in the count
+                Club club = new Club("Query Count Club " + UUID.randomUUID(), null);
+                club.persist();
+                clubIds.add(club.getClubId());
+
+                RoundRobinTournament tournament = new RoundRobinTournament();
+                tournament.setName("Query Count Tournament " + i);
+                tournament.setStartDate(LocalDateTime.now().plusDays(i));
+                tournament.setEndDate(LocalDateTime.now().plusDays(i + 1));
+                tournament.setMaxParticipants(16);
+                tournament.setFirebaseUid("query-count-test");
+                tournament.setClub(club);
+                tournament.setVenueClub(club);
+                tournament.persist();
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package za.cf.cp.tournament.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that Americano schedules seat every player exactly once per round, spread sit-outs
+ * evenly and rarely repeat partnerships.
+ * The pairing time benchmark for big social nights (16 to 128 players) only runs with
+ * -Pbenchmark; its budget per round can be changed with -Damericano.max-round-millis.
+ */
+public class AmericanoSchedulerTest {
+
+    private static final double MAX_ROUND_MILLIS = Double.parseDouble(System.getProperty("americano.max-round-millis", "5"));
+
+    @Test
+    public void testEveryPlayerSeatedOncePerRoundAndSitOutsSpread() {
+        for (int players = 4; players <= 41; players++) {
+            int courts = Math.max(1, players / 5);
+            List<AmericanoScheduler.Round> schedule = AmericanoScheduler.americano(players, courts, players - 1, players);
+
+            for (AmericanoScheduler.Round round : schedule) {
+                Set<Integer> seen = new HashSet<>();
+                for (AmericanoScheduler.Match match : round.matches()) {
+                    assertTrue(match.court() >= 1 && match.court() <= courts);
+                    for (int player : new int[]{match.team1Player1(), match.team1Player2(), match.team2Player1(), match.team2Player2()}) {
+                        assertTrue(seen.add(player), "player " + player + " seated twice in round " + round.round());
+                    }
+                }
+                for (int player : round.sittingOut()) {
+                    assertTrue(seen.add(player), "player " + player + " both plays and sits out in round " + round.round());
+                }
+                assertEquals(players, seen.size());
+            }
+
+            AmericanoScheduler.History history = AmericanoScheduler.History.of(players, schedule);
+            int fewest = Integer.MAX_VALUE;
+            int most = 0;
+            for (int player = 0; player < players; player++) {
+                fewest = Math.min(fewest, history.sitOuts(player));
+                most = Math.max(most, history.sitOuts(player));
+            }
+            assertTrue(most - fewest <= 1, players + " players: sit-outs range from " + fewest + " to " + most);
+        }
+    }
+
+    @Test
+    public void testPartnershipsRarelyRepeat() {
+        for (int players : new int[]{8, 16, 32, 64, 128}) {
+            List<AmericanoScheduler.Round> schedule = AmericanoScheduler.americano(players, players / 4, players - 1, 7L);
+            AmericanoScheduler.History history = AmericanoScheduler.History.of(players, schedule);
+
+            int partnerships = 0;
+            int repeated = 0;
+            for (int a = 0; a < players; a++) {
+                for (int b = a + 1; b < players; b++) {
+                    int count = history.partnerCount(a, b);
+                    assertTrue(count <= 2, players + " players: " + a + " and " + b + " partnered " + count + " times");
+                    partnerships += count;
+                    repeated += Math.max(count - 1, 0);
+                }
+            }
+            assertTrue(repeated * 10 <= partnerships, players + " players: " + repeated + " of " + partnerships + " partnerships repeat");
+        }
+    }
+
+    @Test
+    public void testSameSeedGivesSameSchedule() {
+        assertEquals(AmericanoScheduler.americano(24, 5, 10, 99L), AmericanoScheduler.americano(24, 5, 10, 99L));
+    }
+
+    @Test
+    public void testMexicanoGroupsPlayersByRanking() {
+        int players = 16;
+        int[] ranking = new int[players];
+        for (int i = 0; i < players; i++) {
+            ranking[i] = players - 1 - i;
+        }
+        AmericanoScheduler.Round round = AmericanoScheduler.mexicanoRound(1, ranking, new AmericanoScheduler.History(players), 4);
+
+        for (AmericanoScheduler.Match match : round.matches()) {
+            int base = (match.court() - 1) * 4;
+            Set<Integer> expected = Set.of(ranking[base], ranking[base + 1], ranking[base + 2], ranking[base + 3]);
+            assertEquals(expected, Set.of(match.team1Player1(), match.team1Player2(), match.team2Player1(), match.team2Player2()));
+            // First and fourth of the group against second and third
+            assertEquals(Set.of(ranking[base], ranking[base + 3]), Set.of(match.team1Player1(), match.team1Player2()));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testPairingTimeForLargeSocialNights() {
+        for (int players = 16; players <= 128; players *= 2) {
+            int courts = players / 4;
+            int rounds = 12;
+            // Warm up so the timing reflects compiled code
+            for (int i = 0; i < 20; i++) {
+                AmericanoScheduler.americano(players, courts, rounds, i);
+            }
+
+            long start = System.nanoTime();
+            int repetitions = 10;
+            for (int i = 0; i < repetitions; i++) {
+                AmericanoScheduler.americano(players, courts, rounds, 1000L + i);
+            }
+            double millisPerRound = (System.nanoTime() - start) / 1_000_000.0 / (repetitions * rounds);
+            assertTrue(millisPerRound < MAX_ROUND_MILLIS,
+                    players + " players: " + String.format("%.3f", millisPerRound) + " ms per round");
+        }
+    }
+}
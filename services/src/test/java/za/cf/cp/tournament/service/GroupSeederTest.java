@@ -0,0 +1,120 @@
+package za.cf.cp.tournament.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that group seeding keeps group sizes within one of each other, balances group rating
+ * sums better than the snake draft alone and keeps clubs apart where possible.
+ * The benchmark seeding 256 teams into 32 groups only runs with -Pbenchmark; its budget can be
+ * changed with -Dgroup-seeding.max-millis.
+ */
+public class GroupSeederTest {
+
+    private static final double MAX_MILLIS = Double.parseDouble(System.getProperty("group-seeding.max-millis", "1000"));
+
+    @Test
+    public void testGroupSizesDifferByAtMostOne() {
+        for (int teams = 1; teams <= 70; teams += 3) {
+            for (int groups = 1; groups <= 8; groups++) {
+                int[] groupOf = GroupSeeder.seed(ratings(teams, teams), clubs(teams, 5, teams), groups, 1L);
+                int[] sizes = new int[groups];
+                for (int group : groupOf) {
+                    sizes[group]++;
+                }
+                int fewest = Integer.MAX_VALUE;
+                int most = 0;
+                for (int size : sizes) {
+                    fewest = Math.min(fewest, size);
+                    most = Math.max(most, size);
+                }
+                assertTrue(most - fewest <= 1, teams + " teams in " + groups + " groups: sizes " + fewest + " to " + most);
+            }
+        }
+    }
+
+    @Test
+    public void testBalancesBetterThanSnakeDraft() {
+        int[] ratings = ratings(128, 3L);
+        int[] snake = GroupSeeder.snakeDraft(ratings, 16);
+        int[] seeded = GroupSeeder.seed(ratings, null, 16, 3L);
+
+        double before = GroupSeeder.imbalance(ratings, snake, 16);
+        double after = GroupSeeder.imbalance(ratings, seeded, 16);
+        assertTrue(after < before / 10, "imbalance " + after + " after seeding, " + before + " from the snake draft");
+    }
+
+    @Test
+    public void testKeepsClubsApartWhenPossible() {
+        // 8 clubs of 8 teams across 8 groups: every group can take one team of each club
+        int teams = 64;
+        int[] clubs = new int[teams];
+        for (int team = 0; team < teams; team++) {
+            clubs[team] = team % 8;
+        }
+        int[] ratings = ratings(teams, 11L);
+        int[] groupOf = GroupSeeder.seed(ratings, clubs, 8, 11L);
+
+        assertEquals(0, GroupSeeder.clubClashes(clubs, groupOf, 8));
+        assertTrue(GroupSeeder.imbalance(ratings, groupOf, 8) < GroupSeeder.imbalance(ratings, GroupSeeder.snakeDraft(ratings, 8), 8));
+    }
+
+    @Test
+    public void testSameSeedGivesSameGroups() {
+        int[] ratings = ratings(100, 5L);
+        int[] clubs = clubs(100, 12, 5L);
+        assertArrayEquals(GroupSeeder.seed(ratings, clubs, 10, 42L), GroupSeeder.seed(ratings, clubs, 10, 42L));
+    }
+
+    @Test
+    public void testKeepsClubsApartIn32Groups() {
+        int[] ratings = ratings(256, 7L);
+        int[] clubs = clubs(256, 40, 7L);
+        int[] groupOf = GroupSeeder.seed(ratings, clubs, 32, 1000L);
+
+        assertEquals(0, GroupSeeder.clubClashes(clubs, groupOf, 32));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void testSeedingTimeFor256TeamsIn32Groups() {
+        int[] ratings = ratings(256, 7L);
+        int[] clubs = clubs(256, 40, 7L);
+        // Warm up so the timing reflects compiled code
+        for (int i = 0; i < 3; i++) {
+            GroupSeeder.seed(ratings, clubs, 32, i);
+        }
+
+        long start = System.nanoTime();
+        GroupSeeder.seed(ratings, clubs, 32, 1000L);
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        assertTrue(millis < MAX_MILLIS, "256 teams in 32 groups took " + String.format("%.1f", millis) + " ms");
+    }
+
+    /** Combined ratings of two players, roughly as stored on tournament teams. */
+    private static int[] ratings(int teams, long seed) {
+        Random random = new Random(seed);
+        int[] ratings = new int[teams];
+        for (int team = 0; team < teams; team++) {
+            ratings[team] = 200 + random.nextInt(1200);
+        }
+        return ratings;
+    }
+
+    /** Club per team; about a fifth of the teams have no club. */
+    private static int[] clubs(int teams, int clubCount, long seed) {
+        Random random = new Random(seed);
+        int[] clubs = new int[teams];
+        for (int team = 0; team < teams; team++) {
+            clubs[team] = random.nextInt(5) == 0 ? GroupSeeder.NO_CLUB : random.nextInt(clubCount);
+        }
+        return clubs;
+    }
+}
@@ -0,0 +1,118 @@
+package za.cf.cp.tournament.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that knockout brackets contain every round up front, send every winner to an open slot
+ * of the next round, hand byes to the top seeds, keep the top seeds apart until the late rounds
+ * and avoid first round games between teams of the same group.
+ */
+public class KnockoutBracketTest {
+
+    @Test
+    public void testEveryTeamEntersOnceWithByesForTopSeeds() {
+        for (int teams = 2; teams <= 130; teams++) {
+            int size = KnockoutBracket.bracketSize(teams);
+            List<KnockoutBracket.Match> bracket = KnockoutBracket.build(teams, null);
+
+            // A full bracket of `size` has size - 1 matches; a first round bye removes one
+            int byes = size - teams;
+            assertEquals(size - 1 - byes, bracket.size(), teams + " teams");
+
+            Set<Integer> entered = new HashSet<>();
+            for (KnockoutBracket.Match match : bracket) {
+                for (int team : new int[]{match.team1(), match.team2()}) {
+                    if (team != KnockoutBracket.TBD) {
+                        assertTrue(entered.add(team), teams + " teams: team " + team + " entered twice");
+                        if (match.round() == 2) {
+                            assertTrue(team < byes, teams + " teams: seed " + team + " got a bye");
+                        }
+                    }
+                }
+                assertTrue(match.round() <= 2 || (match.team1() == KnockoutBracket.TBD && match.team2() == KnockoutBracket.TBD));
+            }
+            assertEquals(teams, entered.size(), teams + " teams");
+        }
+    }
+
+    @Test
+    public void testEveryWinnerHasAnOpenSlotInTheNextRound() {
+        for (int teams = 2; teams <= 130; teams++) {
+            List<KnockoutBracket.Match> bracket = KnockoutBracket.build(teams, null);
+            int rounds = Integer.numberOfTrailingZeros(KnockoutBracket.bracketSize(teams));
+            Map<String, KnockoutBracket.Match> byPosition = new HashMap<>();
+            for (KnockoutBracket.Match match : bracket) {
+                byPosition.put(match.round() + ":" + match.position(), match);
+            }
+            for (KnockoutBracket.Match match : bracket) {
+                if (match.round() == rounds) {
+                    continue;
+                }
+                KnockoutBracket.Match next = byPosition.get((match.round() + 1) + ":" + KnockoutBracket.nextPosition(match.position()));
+                assertTrue(next != null, teams + " teams: no next match for " + match);
+                int slot = KnockoutBracket.nextSlot(match.position()) == 1 ? next.team1() : next.team2();
+                assertEquals(KnockoutBracket.TBD, slot, teams + " teams: slot of " + match + " already taken in " + next);
+            }
+        }
+    }
+
+    @Test
+    public void testTopSeedsMeetLate() {
+        List<KnockoutBracket.Match> bracket = KnockoutBracket.build(64, null);
+        for (KnockoutBracket.Match match : bracket) {
+            if (match.round() == 1) {
+                // First round pairings add up to the last seed: 1 v 64, 2 v 63, ...
+                assertEquals(63, match.team1() + match.team2());
+            }
+        }
+        // Seeds 1 and 2 are in different halves, seeds 1 to 4 in different quarters
+        int[] order = KnockoutBracket.seedOrder(64);
+        int[] quarterOf = new int[64];
+        for (int line = 0; line < 64; line++) {
+            quarterOf[order[line]] = line / 16;
+        }
+        assertEquals(Set.of(0, 1, 2, 3), Set.of(quarterOf[0], quarterOf[1], quarterOf[2], quarterOf[3]));
+        assertTrue(quarterOf[0] / 2 != quarterOf[1] / 2);
+    }
+
+    @Test
+    public void testTeamsOfTheSameGroupDoNotMeetInTheFirstRound() {
+        for (int groupCount = 2; groupCount <= 16; groupCount++) {
+            // Two teams advance per group: winners are seeds 0..g-1, runners-up g..2g-1
+            int teams = 2 * groupCount;
+            int[] groups = new int[teams];
+            for (int i = 0; i < groupCount; i++) {
+                groups[i] = i;
+                groups[teams - 1 - i] = i; // Worst case: seed pairing would put every winner against their own runner-up
+            }
+            for (KnockoutBracket.Match match : KnockoutBracket.build(teams, groups)) {
+                if (match.round() == 1) {
+                    assertTrue(groups[match.team1()] != groups[match.team2()],
+                            groupCount + " groups: same group in first round match " + match);
+                    if (Integer.bitCount(groupCount) == 1) {
+                        // Without byes every winner meets a runner-up
+                        assertTrue(match.team1() < groupCount && match.team2() >= groupCount,
+                                groupCount + " groups: winners should meet runners-up " + match);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPhaseNames() {
+        assertEquals("final", KnockoutBracket.phase(3, 1));
+        assertEquals("semifinal", KnockoutBracket.phase(2, 2));
+        assertEquals("quarterfinal", KnockoutBracket.phase(1, 4));
+        assertEquals("round_1", KnockoutBracket.phase(1, 32));
+    }
+}
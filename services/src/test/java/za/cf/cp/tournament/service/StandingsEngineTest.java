@@ -0,0 +1,128 @@
+package za.cf.cp.tournament.service;
+
+import org.junit.jupiter.api.Test;
+import za.cf.cp.tournament.TournamentStanding;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that applying score changes incrementally yields the same standings and positions as
+ * recomputing the group from scratch.
+ */
+public class StandingsEngineTest {
+
+    @Test
+    public void testIncrementalMatchesFullRecomputeOnRandomScoreSequences() {
+        Random random = new Random(20240817L);
+
+        for (int run = 0; run < 200; run++) {
+            int teamCount = 3 + random.nextInt(6);
+            List<String> teamIds = new ArrayList<>();
+            Map<String, String> teamNames = new HashMap<>();
+            for (int i = 0; i < teamCount; i++) {
+                String teamId = "team-" + i;
+                teamIds.add(teamId);
+                // Duplicate names (ignoring case) exercise the team id fallback
+                teamNames.put(teamId, random.nextBoolean() ? "Team " + (i % 3) : "team " + (i % 3));
+            }
+
+            List<String[]> pairings = new ArrayList<>();
+            for (int i = 0; i < teamCount; i++) {
+                for (int j = i + 1; j < teamCount; j++) {
+                    pairings.add(new String[]{teamIds.get(i), teamIds.get(j)});
+                }
+            }
+
+            Map<String, TournamentStanding> incremental = newStandings(teamIds);
+            StandingsEngine.MatchOutcome[] current = new StandingsEngine.MatchOutcome[pairings.size()];
+
+            int updates = 1 + random.nextInt(40);
+            for (int update = 0; update < updates; update++) {
+                int matchIndex = random.nextInt(pairings.size());
+                String[] pairing = pairings.get(matchIndex);
+                StandingsEngine.MatchOutcome outcome = randomOutcome(random, pairing[0], pairing[1]);
+
+                assertTrue(StandingsEngine.applyDelta(incremental, current[matchIndex], outcome));
+                current[matchIndex] = outcome;
+                List<TournamentStanding> incrementalRanking = StandingsEngine.rank(incremental.values(), teamNames);
+
+                List<StandingsEngine.MatchOutcome> outcomes = new ArrayList<>();
+                for (StandingsEngine.MatchOutcome counted : current) {
+                    if (counted != null) {
+                        outcomes.add(counted);
+                    }
+                }
+                Map<String, TournamentStanding> full = StandingsEngine.recompute(newStandings(teamIds), outcomes);
+                List<TournamentStanding> fullRanking = StandingsEngine.rank(full.values(), teamNames);
+
+                assertEquals(describe(fullRanking), describe(incrementalRanking), "run " + run + ", update " + update);
+            }
+        }
+    }
+
+    @Test
+    public void testOutcomeRequiresTwoSetsWon() {
+        assertNull(StandingsEngine.outcome("a", "b", 6, 4, null, null, null, null));
+        assertNull(StandingsEngine.outcome("a", "b", 6, 4, 4, 6, 0, 0));
+
+        StandingsEngine.MatchOutcome outcome = StandingsEngine.outcome("a", "b", 6, 4, 3, 6, 7, 5);
+        assertEquals("a", outcome.winnerId());
+        assertEquals(16, outcome.team1Total());
+        assertEquals(15, outcome.team2Total());
+    }
+
+    @Test
+    public void testTiesAreBrokenByNameThenTeamId() {
+        Map<String, TournamentStanding> standings = newStandings(List.of("b", "a", "c"));
+        Map<String, String> teamNames = Map.of("a", "Zebras", "b", "alpha", "c", "Alpha");
+
+        List<TournamentStanding> ranking = StandingsEngine.rank(standings.values(), teamNames);
+
+        assertEquals(List.of("b", "c", "a"), ranking.stream().map(standing -> standing.teamId).toList());
+        assertEquals(1, standings.get("b").position);
+        assertEquals(3, standings.get("a").position);
+    }
+
+    private static Map<String, TournamentStanding> newStandings(List<String> teamIds) {
+        Map<String, TournamentStanding> standings = new LinkedHashMap<>();
+        for (String teamId : teamIds) {
+            TournamentStanding standing = new TournamentStanding();
+            standing.teamId = teamId;
+            standings.put(teamId, standing);
+        }
+        return standings;
+    }
+
+    private static StandingsEngine.MatchOutcome randomOutcome(Random random, String team1Id, String team2Id) {
+        if (random.nextInt(5) == 0) {
+            // Score cleared or only partially entered
+            return StandingsEngine.outcome(team1Id, team2Id,
+                    random.nextBoolean() ? null : 6, random.nextBoolean() ? null : 3, null, null, null, null);
+        }
+        return StandingsEngine.outcome(team1Id, team2Id,
+                random.nextInt(8), random.nextInt(8),
+                random.nextInt(8), random.nextInt(8),
+                random.nextInt(8), random.nextInt(8));
+    }
+
+    private static List<String> describe(List<TournamentStanding> ranking) {
+        List<String> rows = new ArrayList<>();
+        for (TournamentStanding standing : ranking) {
+            rows.add(standing.position + ":" + standing.teamId
+                    + " p=" + standing.matchesPlayed + " w=" + standing.matchesWon
+                    + " l=" + standing.matchesLost + " d=" + standing.matchesDrawn
+                    + " gf=" + standing.goalsFor + " ga=" + standing.goalsAgainst
+                    + " gd=" + standing.goalDifference + " pts=" + standing.points);
+        }
+        return rows;
+    }
+}
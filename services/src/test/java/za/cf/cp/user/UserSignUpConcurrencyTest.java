@@ -0,0 +1,79 @@
+package za.cf.cp.user;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.cf.cp.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires simultaneous sign-ups that all ask for the same username and checks that every one of
+ * them succeeds with its own numbered variant.
+ */
+@QuarkusTest
+public class UserSignUpConcurrencyTest {
+
+    private static final int SIGN_UPS = 8;
+
+    @Inject
+    UserService userService;
+
+    private final List<String> userIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanUp() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            UserRole.delete("user.firebaseUid in ?1", userIds);
+            User.delete("firebaseUid in ?1", userIds);
+        });
+        userIds.clear();
+    }
+
+    @Test
+    public void testConcurrentSignUpsWithSameUsername() throws Exception {
+        String baseUsername = "signup" + UUID.randomUUID().toString().substring(0, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(SIGN_UPS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < SIGN_UPS; i++) {
+                String uid = "signup-" + UUID.randomUUID();
+                userIds.add(uid);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return userService.createUser(new User(uid, uid + "@example.com", baseUsername));
+                }));
+            }
+            start.countDown();
+
+            Set<String> usernames = new HashSet<>();
+            for (Future<User> result : results) {
+                usernames.add(result.get(60, TimeUnit.SECONDS).username);
+            }
+
+            // No gaps and no duplicates: the base name and suffixes 1..n-1
+            Set<String> expected = new HashSet<>();
+            expected.add(baseUsername);
+            for (int i = 1; i < SIGN_UPS; i++) {
+                expected.add(baseUsername + i);
+            }
+            assertEquals(expected, usernames);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -434,7 +434,7 @@ export class CourtBookingComponent implements OnInit, OnDestroy {
     let status = '';
     if (slot.isBookedByUser) {
       status = ' - You\'re booked';
-    } else if ((slot.totalCourts - slot.bookings.length) === 0) {
+    } else if (slot.availableCourts === 0) {
       status = ' - All Courts Booked';
     } else {
       status = ` - ${availableCount} courts available`;
@@ -50,8 +50,9 @@ export interface AvailableSlot {
     scheduleId: string;
     venueId: string;
     venueName: string;
-    availableCourts: number;
+    availableCourts: number; // Courts with fewer than 4 players
     totalCourts: number;
+    availableSeats: number;
     bookings: CourtBooking[];
     isBookedByUser: boolean;
     userBookingId?: string;